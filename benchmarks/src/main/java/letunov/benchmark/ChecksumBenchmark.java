@@ -0,0 +1,153 @@
+package letunov.benchmark;
+
+import letunov.impl.ChecksumContext;
+import letunov.impl.ChecksumUtil;
+import letunov.impl.ClassFileContractModelBuilder;
+import letunov.impl.ContractFingerprintBuilder;
+import letunov.impl.ReflectionContractModelBuilder;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.FieldDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checksums of every contract of a corpus. {@link #distinctContexts} is {@link ChecksumUtil#getContractChecksum},
+ * which starts from scratch for every contract, while the other benchmarks share one scan-wide context, so DTOs
+ * referenced from several contracts are computed once. {@link #hashing} reads the model built in the setup, so it
+ * measures the hashing alone; run it with {@code -prof gc} to see the allocations per scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+    @Param({"10", "100"})
+    public int contracts;
+
+    @Param({"10"})
+    public int methodsPerContract;
+
+    @Param({"2", "5"})
+    public int dtoDepth;
+
+    @Param({"4"})
+    public int dtoWidth;
+
+    @Param({"0", "3"})
+    public int genericNesting;
+
+    private ContractCorpus corpus;
+    private List<Class<?>> contractClasses;
+    private List<String> contractNames;
+    private ContractModelBuilder prebuiltModel;
+
+    @Setup(Level.Trial)
+    public void generateCorpus() {
+        corpus = ContractCorpus.generate(new CorpusSettings(contracts, methodsPerContract, dtoDepth, dtoWidth,
+            genericNesting, 0, 0));
+        contractClasses = corpus.getContracts();
+        contractNames = corpus.getContractNames();
+        prebuiltModel = new PrebuiltModelBuilder(new ReflectionContractModelBuilder(corpus.getClassLoader()));
+        var context = new ChecksumContext(prebuiltModel);
+        contractNames.forEach(context::getContractChecksum);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws IOException {
+        corpus.close();
+    }
+
+    @Benchmark
+    public void distinctContexts(Blackhole blackhole) {
+        for (var contract : contractClasses) {
+            blackhole.consume(ChecksumUtil.getContractChecksum(contract));
+        }
+    }
+
+    @Benchmark
+    public void sharedContext(Blackhole blackhole) {
+        var context = new ChecksumContext(new ReflectionContractModelBuilder(corpus.getClassLoader()));
+        for (var contractName : contractNames) {
+            blackhole.consume(context.getContractChecksum(contractName));
+        }
+    }
+
+    @Benchmark
+    public void sharedContextClassFiles(Blackhole blackhole) {
+        var context = new ChecksumContext(new ClassFileContractModelBuilder(corpus.getClassLoader()));
+        for (var contractName : contractNames) {
+            blackhole.consume(context.getContractChecksum(contractName));
+        }
+    }
+
+    @Benchmark
+    public void hashing(Blackhole blackhole) {
+        var context = new ChecksumContext(prebuiltModel);
+        for (var contractName : contractNames) {
+            blackhole.consume(context.getContractChecksum(contractName));
+        }
+    }
+
+    @Benchmark
+    public void fingerprints(Blackhole blackhole) {
+        var fingerprintBuilder = new ContractFingerprintBuilder(new ReflectionContractModelBuilder(corpus.getClassLoader()));
+        for (var contractName : contractNames) {
+            blackhole.consume(fingerprintBuilder.getContractFingerprint(contractName));
+        }
+    }
+
+    // Keeps every descriptor read once, so the model is not built again in the measured code
+    private static class PrebuiltModelBuilder implements ContractModelBuilder {
+        private final ContractModelBuilder delegate;
+        private final Map<String, ContractDescriptor> contracts = new ConcurrentHashMap<>();
+        private final Map<String, List<FieldDescriptor>> fields = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> publicMethodNames = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> supertypes = new ConcurrentHashMap<>();
+
+        private PrebuiltModelBuilder(ContractModelBuilder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ContractDescriptor getContractDescriptor(String contractName) {
+            return contracts.computeIfAbsent(contractName, delegate::getContractDescriptor);
+        }
+
+        @Override
+        public List<FieldDescriptor> getDeclaredFields(String typeName) {
+            return fields.computeIfAbsent(typeName, delegate::getDeclaredFields);
+        }
+
+        @Override
+        public Set<String> getPublicMethodNames(String typeName) {
+            return publicMethodNames.computeIfAbsent(typeName, delegate::getPublicMethodNames);
+        }
+
+        @Override
+        public Set<String> getSupertypes(String typeName) {
+            return supertypes.computeIfAbsent(typeName, delegate::getSupertypes);
+        }
+    }
+}
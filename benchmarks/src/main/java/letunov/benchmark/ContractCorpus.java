@@ -0,0 +1,330 @@
+package letunov.benchmark;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.IntStream;
+
+/**
+ * A synthetic microservice generated and compiled into a temporary directory: contract interfaces and their DTOs in a
+ * contracts jar, providers and consumers in the project output directory, and filler dependency jars that only make
+ * the classpath larger. All contracts share the same DTO graph, so shared references are exercised as well.
+ */
+public class ContractCorpus implements Closeable {
+    private static final String API_PACKAGE = "bench.api";
+    private static final String DTO_PACKAGE = "bench.api.dto";
+    private static final String SERVICE_PACKAGE = "bench.service";
+    private static final String GROUP_ID = "bench";
+    private static final String VERSION = "1.0";
+    private static final String MAPPING = "org.springframework.web.bind.annotation.";
+    private static final ArtifactHandler JAR_HANDLER = new JarArtifactHandler();
+
+    private final CorpusSettings settings;
+    private final Path root;
+    private final Path outputDirectory;
+    private final List<Path> dependencies = new ArrayList<>();
+    private URLClassLoader classLoader;
+
+    private ContractCorpus(CorpusSettings settings, Path root) {
+        this.settings = settings;
+        this.root = root;
+        this.outputDirectory = root.resolve("target/classes");
+    }
+
+    public static ContractCorpus generate(CorpusSettings settings) {
+        try {
+            var corpus = new ContractCorpus(settings, Files.createTempDirectory("contract-corpus"));
+            corpus.generate();
+            return corpus;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to generate the contract corpus", e);
+        }
+    }
+
+    public List<String> getContractNames() {
+        return IntStream.range(0, settings.contracts())
+            .mapToObj(this::getContractName)
+            .toList();
+    }
+
+    public List<Class<?>> getContracts() {
+        return getContractNames().stream()
+            .<Class<?>>map(this::loadClass)
+            .toList();
+    }
+
+    // Project output directory and dependencies, the contracts jar first
+    public synchronized ClassLoader getClassLoader() {
+        if (classLoader == null) {
+            List<URL> urls = new ArrayList<>();
+            urls.add(toUrl(outputDirectory));
+            dependencies.forEach(dependency -> urls.add(toUrl(dependency)));
+            classLoader = URLClassLoader.newInstance(urls.toArray(URL[]::new), getClass().getClassLoader());
+        }
+        return classLoader;
+    }
+
+    // A Maven project as the mojos see it once dependencies are resolved
+    public MavenProject createProject() {
+        var build = new Build();
+        build.setOutputDirectory(outputDirectory.toString());
+        var model = new Model();
+        model.setGroupId(GROUP_ID);
+        model.setArtifactId("service");
+        model.setVersion(VERSION);
+        model.setName("service");
+        model.setBuild(build);
+
+        var project = new MavenProject(model);
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        for (var dependency : dependencies) {
+            var artifactId = dependency.getFileName().toString().replace(".jar", "");
+            var artifact = new DefaultArtifact(GROUP_ID, artifactId, VersionRange.createFromVersion(VERSION), "compile",
+                "jar", null, JAR_HANDLER);
+            artifact.setFile(dependency.toFile());
+            artifacts.add(artifact);
+        }
+        project.setArtifacts(artifacts);
+        return project;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (classLoader != null) {
+            classLoader.close();
+            classLoader = null;
+        }
+        try (var files = Files.walk(root)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void generate() throws IOException {
+        var apiSources = root.resolve("api/src");
+        var apiClasses = root.resolve("api/classes");
+        for (int level = 0; level < settings.dtoDepth(); level++) {
+            for (int index = 0; index < settings.dtoWidth(); index++) {
+                writeSource(apiSources, DTO_PACKAGE, getDtoSimpleName(level, index), generateDto(level, index));
+            }
+        }
+        for (int contract = 0; contract < settings.contracts(); contract++) {
+            writeSource(apiSources, API_PACKAGE, "Contract" + contract, generateContract(contract));
+        }
+        compile(apiSources, apiClasses, null);
+        dependencies.add(writeJar(apiClasses, root.resolve("dependencies/contracts-api.jar")));
+
+        var serviceSources = root.resolve("service/src");
+        for (int contract = 0; contract < settings.contracts(); contract++) {
+            writeSource(serviceSources, SERVICE_PACKAGE, "Provider" + contract, generateProvider(contract));
+            if (contract % 2 == 0) {
+                writeSource(serviceSources, SERVICE_PACKAGE, "Consumer" + contract, generateConsumer(contract));
+            }
+        }
+        compile(serviceSources, outputDirectory, apiClasses);
+
+        for (int jar = 0; jar < settings.dependencyJars(); jar++) {
+            var sources = root.resolve("lib" + jar + "/src");
+            var classes = root.resolve("lib" + jar + "/classes");
+            for (int index = 0; index < settings.classesPerJar(); index++) {
+                writeSource(sources, "bench.lib" + jar, "Type" + index,
+                    "public class Type%d { public int getValue() { return %d; } }".formatted(index, index));
+            }
+            compile(sources, classes, null);
+            dependencies.add(writeJar(classes, root.resolve("dependencies/lib" + jar + ".jar")));
+        }
+    }
+
+    private String generateDto(int level, int index) {
+        var source = new StringBuilder("public class %s {\n".formatted(getDtoSimpleName(level, index)));
+        appendProperty(source, "String", "Name");
+        appendProperty(source, "int", "Count");
+        if (level + 1 < settings.dtoDepth()) {
+            for (int child = 0; child < settings.dtoWidth(); child++) {
+                appendProperty(source, getDtoSimpleName(level + 1, child), "Child" + child);
+            }
+        }
+        return source.append("}\n").toString();
+    }
+
+    // Field names are capitalized, the checksum only takes fields with a getter "get" + field name into account
+    private void appendProperty(StringBuilder source, String type, String name) {
+        source.append("    private %s %s;\n".formatted(type, name));
+        source.append("    public %s get%s() { return %s; }\n".formatted(type, name, name));
+    }
+
+    private String generateContract(int contract) {
+        var source = new StringBuilder("public interface Contract%d extends letunov.contract.Contract {\n".formatted(contract));
+        for (int method = 0; method < settings.methodsPerContract(); method++) {
+            source.append("    @%sPostMapping(\"/contract%d/method%d/{id}\")\n".formatted(MAPPING, contract, method));
+            source.append("    %s;\n".formatted(getMethodDeclaration(contract, method, true)));
+        }
+        return source.append("}\n").toString();
+    }
+
+    private String generateProvider(int contract) {
+        var source = new StringBuilder("@letunov.contract.ContractProvider\npublic class Provider%d implements %s {\n"
+            .formatted(contract, getContractName(contract)));
+        for (int method = 0; method < settings.methodsPerContract(); method++) {
+            source.append("    public %s { return null; }\n".formatted(getMethodDeclaration(contract, method, false)));
+        }
+        return source.append("}\n").toString();
+    }
+
+    private String generateConsumer(int contract) {
+        return "@letunov.contract.ContractConsumer(serviceName = \"upstream\")\npublic interface Consumer%d extends %s { }\n"
+            .formatted(contract, getContractName(contract));
+    }
+
+    private String getMethodDeclaration(int contract, int method, boolean annotated) {
+        var width = Math.max(1, settings.dtoWidth());
+        var returnType = wrap(getDtoName((contract + method) % width));
+        var bodyType = wrap(getDtoName((contract + method + 1) % width));
+        var pathVariable = annotated ? "@%sPathVariable(\"id\") ".formatted(MAPPING) : "";
+        var requestBody = annotated ? "@%sRequestBody ".formatted(MAPPING) : "";
+        return "%s method%d(%sString id, %s%s body)".formatted(returnType, method, pathVariable, requestBody, bodyType);
+    }
+
+    private String wrap(String type) {
+        for (int i = 0; i < settings.genericNesting(); i++) {
+            type = i % 2 == 0 ? "java.util.List<" + type + ">" : "java.util.Map<String, " + type + ">";
+        }
+        return type;
+    }
+
+    private String getDtoName(int index) {
+        return settings.dtoDepth() == 0 ? "String" : DTO_PACKAGE + "." + getDtoSimpleName(0, index);
+    }
+
+    private String getDtoSimpleName(int level, int index) {
+        return "Dto" + level + "x" + index;
+    }
+
+    private String getContractName(int contract) {
+        return API_PACKAGE + ".Contract" + contract;
+    }
+
+    private void writeSource(Path sourceRoot, String packageName, String simpleName, String body) throws IOException {
+        var directory = Files.createDirectories(sourceRoot.resolve(packageName.replace('.', '/')));
+        Files.writeString(directory.resolve(simpleName + ".java"), "package " + packageName + ";\n\n" + body);
+    }
+
+    // Sources are compiled against the benchmark classpath, which carries the Spring annotations and the contract
+    // metadata, plus the optional extra directory
+    private void compile(Path sourceRoot, Path classes, Path extraClasspath) throws IOException {
+        Files.createDirectories(classes);
+        List<String> arguments = new ArrayList<>(List.of("-d", classes.toString(), "-parameters", "-proc:none", "-nowarn"));
+        var classpath = System.getProperty("java.class.path");
+        if (extraClasspath != null) {
+            classpath = extraClasspath + File.pathSeparator + classpath;
+        }
+        arguments.addAll(List.of("-cp", classpath));
+        try (var files = Files.walk(sourceRoot)) {
+            files.filter(file -> file.toString().endsWith(".java"))
+                .forEach(file -> arguments.add(file.toString()));
+        }
+
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Generating a contract corpus needs a JDK");
+        }
+        var errors = new ByteArrayOutputStream();
+        if (compiler.run(null, null, errors, arguments.toArray(String[]::new)) != 0) {
+            throw new IllegalStateException("Unable to compile the contract corpus: " + errors.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Path writeJar(Path classes, Path jar) throws IOException {
+        Files.createDirectories(jar.getParent());
+        try (var output = new JarOutputStream(Files.newOutputStream(jar)); var files = Files.walk(classes)) {
+            for (var file : files.filter(Files::isRegularFile).sorted().toList()) {
+                output.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+                output.write(Files.readAllBytes(file));
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("The generated class " + className + " is missing", e);
+        }
+    }
+
+    private URL toUrl(Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class JarArtifactHandler implements ArtifactHandler {
+        @Override
+        public String getExtension() {
+            return "jar";
+        }
+
+        @Override
+        public String getDirectory() {
+            return null;
+        }
+
+        @Override
+        public String getClassifier() {
+            return null;
+        }
+
+        @Override
+        public String getPackaging() {
+            return "jar";
+        }
+
+        @Override
+        public boolean isIncludesDependencies() {
+            return false;
+        }
+
+        @Override
+        public String getLanguage() {
+            return "java";
+        }
+
+        @Override
+        public boolean isAddedToClasspath() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package letunov.benchmark;
+
+/**
+ * Shape of a generated contract corpus.
+ *
+ * @param contracts          contract interfaces, each with a provider in the project and every second one with a consumer
+ * @param methodsPerContract methods per contract interface
+ * @param dtoDepth           levels of DTOs below a method, every DTO references all DTOs of the next level
+ * @param dtoWidth           DTOs per level, which is also the number of DTO fields per DTO
+ * @param genericNesting     number of {@code List}/{@code Map} wrappers around the DTO of a return type or a body
+ * @param dependencyJars     filler dependency jars on the classpath besides the contracts jar
+ * @param classesPerJar      classes in every filler dependency jar
+ */
+public record CorpusSettings(
+    int contracts,
+    int methodsPerContract,
+    int dtoDepth,
+    int dtoWidth,
+    int genericNesting,
+    int dependencyJars,
+    int classesPerJar
+) { }
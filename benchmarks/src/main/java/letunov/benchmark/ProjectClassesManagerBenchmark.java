@@ -0,0 +1,90 @@
+package letunov.benchmark;
+
+import letunov.impl.JarClassNamesCache;
+import letunov.impl.ProjectClassesManager;
+import letunov.impl.data.ChecksumBackend;
+import letunov.impl.data.ScanMode;
+import letunov.impl.data.ScanSettings;
+import letunov.impl.data.TraversalPolicy;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class loader, Reflections and dependency index setup of {@link ProjectClassesManager} against a growing classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectClassesManagerBenchmark {
+    @Param({"10", "100"})
+    public int dependencyJars;
+
+    @Param({"200", "1000"})
+    public int classesPerJar;
+
+    private ContractCorpus corpus;
+    private MavenProject project;
+
+    @Setup(Level.Trial)
+    public void generateCorpus() {
+        corpus = ContractCorpus.generate(new CorpusSettings(10, 5, 2, 2, 1, dependencyJars, classesPerJar));
+        project = corpus.createProject();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws IOException {
+        corpus.close();
+    }
+
+    @Benchmark
+    public void targetedReflections(Blackhole blackhole) {
+        reflections(blackhole, ScanMode.TARGETED);
+    }
+
+    @Benchmark
+    public void fullClasspathReflections(Blackhole blackhole) {
+        reflections(blackhole, ScanMode.FULL_CLASSPATH);
+    }
+
+    @Benchmark
+    public void dependencyClassIndex(Blackhole blackhole) {
+        try (var projectClassesManager = new ProjectClassesManager()) {
+            blackhole.consume(projectClassesManager.getDependencyClassIndex(project));
+        }
+    }
+
+    @Benchmark
+    public void dependencyClassIndexCold(Blackhole blackhole) {
+        JarClassNamesCache.clear();
+        dependencyClassIndex(blackhole);
+    }
+
+    private void reflections(Blackhole blackhole, ScanMode scanMode) {
+        var scanSettings = new ScanSettings(scanMode, List.of(), false, 1, ChecksumBackend.REFLECTION, false,
+            TraversalPolicy.LEGACY, false, false, false, false);
+        try (var projectClassesManager = new ProjectClassesManager()) {
+            var classLoader = projectClassesManager.getProjectClassLoader(project);
+            blackhole.consume(projectClassesManager.getProjectReflections(classLoader, project, scanSettings));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package letunov.benchmark;
+
+import letunov.impl.ChecksumContext;
+import letunov.impl.ContractChecksumCache;
+import letunov.impl.JarClassNamesCache;
+import letunov.impl.MicroserviceContractsScanner;
+import letunov.impl.ProjectClassesManager;
+import letunov.impl.ReflectionContractModelBuilder;
+import letunov.impl.SharedTypeChecksums;
+import letunov.impl.data.ChecksumBackend;
+import letunov.impl.data.ScanMode;
+import letunov.impl.data.ScanSettings;
+import letunov.impl.data.TraversalPolicy;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MicroserviceContractsScanner} end to end, the way the mojos run it: class loader and Reflections setup,
+ * dependency index, providing and consuming contracts with their checksums. The cold variant also drops the jar entry
+ * names shared between the modules of a reactor build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScannerBenchmark {
+    @Param({"10", "100"})
+    public int contracts;
+
+    @Param({"10"})
+    public int methodsPerContract;
+
+    @Param({"3"})
+    public int dtoDepth;
+
+    @Param({"4"})
+    public int dtoWidth;
+
+    @Param({"1"})
+    public int genericNesting;
+
+    @Param({"10", "50"})
+    public int dependencyJars;
+
+    @Param({"200"})
+    public int classesPerJar;
+
+    private ContractCorpus corpus;
+    private MavenProject project;
+    private ExecutorService executor;
+    private final ScanSettings scanSettings = new ScanSettings(ScanMode.TARGETED, List.of(), false,
+        Runtime.getRuntime().availableProcessors(), ChecksumBackend.REFLECTION, false, TraversalPolicy.LEGACY, false, false, false,
+        false);
+
+    @Setup(Level.Trial)
+    public void generateCorpus() {
+        corpus = ContractCorpus.generate(new CorpusSettings(contracts, methodsPerContract, dtoDepth, dtoWidth,
+            genericNesting, dependencyJars, classesPerJar));
+        project = corpus.createProject();
+        executor = Executors.newFixedThreadPool(scanSettings.threads());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws IOException {
+        executor.shutdownNow();
+        corpus.close();
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) {
+        scan(blackhole, false);
+    }
+
+    // DTO checksums are taken from the JVM-scoped cache warmed by the previous invocations
+    @Benchmark
+    public void scanSharedChecksums(Blackhole blackhole) {
+        scan(blackhole, true);
+    }
+
+    @Benchmark
+    public void scanCold(Blackhole blackhole) {
+        JarClassNamesCache.clear();
+        SharedTypeChecksums.clear();
+        scan(blackhole, false);
+    }
+
+    private void scan(Blackhole blackhole, boolean sharedChecksums) {
+        try (var projectClassesManager = new ProjectClassesManager()) {
+            var classLoader = projectClassesManager.getProjectClassLoader(project);
+            var reflections = projectClassesManager.getProjectReflections(classLoader, project, scanSettings);
+            var contractChecksumCache = new ContractChecksumCache(null, classLoader,
+                new ChecksumContext(new ReflectionContractModelBuilder(classLoader), TraversalPolicy.LEGACY,
+                    sharedChecksums ? new SharedTypeChecksums(classLoader) : null));
+            var scanner = new MicroserviceContractsScanner(reflections, classLoader,
+                projectClassesManager.getDependencyClassIndex(project), contractChecksumCache, null, executor);
+
+            blackhole.consume(scanner.getProvidingContractsInfo());
+            blackhole.consume(scanner.getConsumingContractsInfo());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package letunov.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import letunov.impl.BinaryContractSnapshot;
+import letunov.impl.ChecksumUtil;
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a graph snapshot with {@link BinaryContractSnapshot} compared with the JSON the server
+ * client and the offline verification use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+    private static final TypeReference<List<MicroserviceContractsInfo>> SNAPSHOT_TYPE = new TypeReference<>() { };
+
+    @Param({"10", "200"})
+    public int microservices;
+
+    @Param({"20"})
+    public int contractsPerMicroservice;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<MicroserviceContractsInfo> snapshot;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void createSnapshot() throws IOException {
+        snapshot = new ArrayList<>(microservices);
+        for (int microservice = 0; microservice < microservices; microservice++) {
+            List<ProvidingContractInfo> providing = new ArrayList<>();
+            List<ConsumingContractInfo> consuming = new ArrayList<>();
+            for (int contract = 0; contract < contractsPerMicroservice; contract++) {
+                var dependency = new DependencyInfo("com.example", "service" + microservice + "-api", "1.0." + contract % 3);
+                providing.add(new ProvidingContractInfo("com.example.api.Contract" + microservice + "x" + contract,
+                    dependency, checksum(microservice, contract)));
+                var provider = (microservice + contract + 1) % microservices;
+                consuming.add(new ConsumingContractInfo("com.example.api.Contract" + provider + "x" + contract,
+                    "service" + provider, new DependencyInfo("com.example", "service" + provider + "-api", "1.0.0"),
+                    checksum(provider, contract)));
+            }
+            snapshot.add(new MicroserviceContractsInfo("service" + microservice, providing, consuming));
+        }
+        binary = BinaryContractSnapshot.encode(snapshot);
+        json = objectMapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return BinaryContractSnapshot.encode(snapshot);
+    }
+
+    @Benchmark
+    public List<MicroserviceContractsInfo> decodeBinary() {
+        return BinaryContractSnapshot.decode(ByteBuffer.wrap(binary));
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public List<MicroserviceContractsInfo> decodeJson() throws IOException {
+        return objectMapper.readValue(json, SNAPSHOT_TYPE);
+    }
+
+    private String checksum(int microservice, int contract) {
+        return ChecksumUtil.getBytesChecksum((microservice + ":" + contract).getBytes(StandardCharsets.UTF_8));
+    }
+}
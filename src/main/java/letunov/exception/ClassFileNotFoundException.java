@@ -0,0 +1,15 @@
+package letunov.exception;
+
+import java.io.IOException;
+
+public class ClassFileNotFoundException extends RuntimeException {
+    private static final String MESSAGE_TEMPLATE = "Not found a class file of the type %s";
+
+    public ClassFileNotFoundException(String typeName) {
+        super(MESSAGE_TEMPLATE.formatted(typeName));
+    }
+
+    public ClassFileNotFoundException(String typeName, IOException e) {
+        super(MESSAGE_TEMPLATE.formatted(typeName), e);
+    }
+}
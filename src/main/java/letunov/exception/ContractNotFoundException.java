@@ -6,4 +6,8 @@ public class ContractNotFoundException extends RuntimeException {
     public ContractNotFoundException(Class<?> providerOrConsumer) {
         super(MESSAGE_TEMPLATE.formatted(providerOrConsumer.getTypeName()));
     }
+
+    public ContractNotFoundException(String providerOrConsumerName) {
+        super(MESSAGE_TEMPLATE.formatted(providerOrConsumerName));
+    }
 }
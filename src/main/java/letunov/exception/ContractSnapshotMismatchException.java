@@ -0,0 +1,7 @@
+package letunov.exception;
+
+public class ContractSnapshotMismatchException extends UnableToMakeRequestException {
+    public ContractSnapshotMismatchException(String url, int code) {
+        super(url, code);
+    }
+}
@@ -0,0 +1,18 @@
+package letunov.exception;
+
+import letunov.impl.data.VerificationInfo;
+
+public class ContractVerificationFailedException extends RuntimeException {
+    private static final String MESSAGE_TEMPLATE = "Contract verification against %s failed:%n%s";
+
+    private final VerificationInfo verificationInfo;
+
+    public ContractVerificationFailedException(VerificationInfo verificationInfo) {
+        super(MESSAGE_TEMPLATE.formatted(verificationInfo.graphLink(), String.join(System.lineSeparator(), verificationInfo.messages())));
+        this.verificationInfo = verificationInfo;
+    }
+
+    public VerificationInfo getVerificationInfo() {
+        return verificationInfo;
+    }
+}
@@ -6,4 +6,8 @@ public class DependencyNotFoundException extends RuntimeException {
     public DependencyNotFoundException(Class<?> contractInterface) {
         super(MESSAGE_TEMPLATE.formatted(contractInterface.getTypeName()));
     }
+
+    public DependencyNotFoundException(String contractInterfaceName) {
+        super(MESSAGE_TEMPLATE.formatted(contractInterfaceName));
+    }
 }
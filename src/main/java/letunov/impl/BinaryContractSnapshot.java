@@ -0,0 +1,286 @@
+package letunov.impl;
+
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary form of contract snapshots, a list of {@link MicroserviceContractsInfo}.
+ * <pre>
+ * snapshot    := magic "CSNP" u1 version strings microservices
+ * strings     := varint count (varint length utf8)*
+ * microservices := varint count (ref name varint count providing* varint count consuming*)
+ * providing   := ref name dependency checksum
+ * consuming   := ref name ref serviceName dependency checksum
+ * dependency  := ref groupId ref artifactId ref version
+ * checksum    := u1 0 (32 bytes SHA-256) | u1 1 ref
+ * ref         := varint index into strings + 1, 0 stands for null
+ * </pre>
+ * Every distinct string is stored once, so repeated dependency coordinates and service names cost a varint each, and
+ * SHA-256 checksums take 32 raw bytes instead of 64 hex characters. Files are read through a memory mapping. Version 1
+ * keeps the checksums only, structural fingerprints of the contracts are not stored.
+ */
+public class BinaryContractSnapshot {
+    private static final byte[] MAGIC = "CSNP".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int RAW_CHECKSUM = 0;
+    private static final int STRING_CHECKSUM = 1;
+    private static final int CHECKSUM_LENGTH = 32;
+    private static final HexFormat HEX = HexFormat.of();
+
+    public static byte[] encode(List<MicroserviceContractsInfo> snapshot) {
+        return new Encoder(snapshot).encode();
+    }
+
+    public static List<MicroserviceContractsInfo> decode(ByteBuffer buffer) {
+        try {
+            return new Decoder(buffer).decode();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or corrupted contract snapshot", e);
+        }
+    }
+
+    public static void write(List<MicroserviceContractsInfo> snapshot, Path file) {
+        write(encode(snapshot), file);
+    }
+
+    public static void write(byte[] encodedSnapshot, Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, encodedSnapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the contract snapshot " + file, e);
+        }
+    }
+
+    public static List<MicroserviceContractsInfo> read(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the contract snapshot " + file, e);
+        }
+    }
+
+    public static boolean isBinarySnapshot(Path file) {
+        try (var inputStream = Files.newInputStream(file)) {
+            return Arrays.equals(inputStream.readNBytes(MAGIC.length), MAGIC);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the contract snapshot " + file, e);
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private static class Encoder {
+        private final List<MicroserviceContractsInfo> snapshot;
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private Encoder(List<MicroserviceContractsInfo> snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private byte[] encode() {
+            writeVarint(body, snapshot.size());
+            for (var microservice : snapshot) {
+                writeRef(microservice.microserviceName());
+                writeVarint(body, microservice.providing().size());
+                for (var contract : microservice.providing()) {
+                    writeRef(contract.name());
+                    writeDependency(contract.dependency());
+                    writeChecksum(contract.checksum());
+                }
+                writeVarint(body, microservice.consuming().size());
+                for (var contract : microservice.consuming()) {
+                    writeRef(contract.name());
+                    writeRef(contract.serviceName());
+                    writeDependency(contract.dependency());
+                    writeChecksum(contract.checksum());
+                }
+            }
+
+            var output = new ByteArrayOutputStream(body.size() + 64 * strings.size());
+            output.writeBytes(MAGIC);
+            output.write(VERSION);
+            writeVarint(output, strings.size());
+            for (var string : strings) {
+                writeVarint(output, string.length);
+                output.writeBytes(string);
+            }
+            output.writeBytes(body.toByteArray());
+            return output.toByteArray();
+        }
+
+        private void writeDependency(DependencyInfo dependency) {
+            writeRef(dependency == null ? null : dependency.groupId());
+            writeRef(dependency == null ? null : dependency.artifactId());
+            writeRef(dependency == null ? null : dependency.version());
+        }
+
+        // Anything but a lower-case hex SHA-256 is kept as a string, so decoding always restores the original value
+        private void writeChecksum(String checksum) {
+            if (checksum != null && checksum.length() == 2 * CHECKSUM_LENGTH && isLowerCaseHex(checksum)) {
+                body.write(RAW_CHECKSUM);
+                body.writeBytes(HEX.parseHex(checksum));
+            } else {
+                body.write(STRING_CHECKSUM);
+                writeRef(checksum);
+            }
+        }
+
+        private boolean isLowerCaseHex(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                var c = value.charAt(i);
+                if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void writeRef(String value) {
+            if (value == null) {
+                writeVarint(body, 0);
+                return;
+            }
+            var index = stringIndexes.computeIfAbsent(value, string -> {
+                strings.add(string.getBytes(StandardCharsets.UTF_8));
+                return strings.size() - 1;
+            });
+            writeVarint(body, index + 1);
+        }
+    }
+
+    private static class Decoder {
+        private final ByteBuffer buffer;
+        private String[] strings;
+
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private List<MicroserviceContractsInfo> decode() {
+            var magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IllegalArgumentException("Not a contract snapshot");
+            }
+            var version = buffer.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported contract snapshot version " + version);
+            }
+
+            strings = new String[readCount()];
+            for (int i = 0; i < strings.length; i++) {
+                var bytes = new byte[readCount()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            var microservicesCount = readCount();
+            List<MicroserviceContractsInfo> snapshot = new ArrayList<>(microservicesCount);
+            for (int i = 0; i < microservicesCount; i++) {
+                var name = readRef();
+                var providingCount = readCount();
+                List<ProvidingContractInfo> providing = new ArrayList<>(providingCount);
+                for (int j = 0; j < providingCount; j++) {
+                    providing.add(new ProvidingContractInfo(readRef(), readDependency(), readChecksum()));
+                }
+                var consumingCount = readCount();
+                List<ConsumingContractInfo> consuming = new ArrayList<>(consumingCount);
+                for (int j = 0; j < consumingCount; j++) {
+                    consuming.add(new ConsumingContractInfo(readRef(), readRef(), readDependency(), readChecksum()));
+                }
+                snapshot.add(new MicroserviceContractsInfo(name, providing, consuming));
+            }
+            return snapshot;
+        }
+
+        private DependencyInfo readDependency() {
+            var groupId = readRef();
+            var artifactId = readRef();
+            var version = readRef();
+            return groupId == null && artifactId == null && version == null
+                ? null
+                : new DependencyInfo(groupId, artifactId, version);
+        }
+
+        private String readChecksum() {
+            var kind = buffer.get() & 0xFF;
+            if (kind == RAW_CHECKSUM) {
+                var checksum = new byte[CHECKSUM_LENGTH];
+                buffer.get(checksum);
+                return HEX.formatHex(checksum);
+            }
+            if (kind == STRING_CHECKSUM) {
+                return readRef();
+            }
+            throw new IllegalArgumentException("Unknown checksum kind " + kind);
+        }
+
+        private String readRef() {
+            var index = readVarint();
+            if (index > strings.length) {
+                throw new IllegalArgumentException("String reference " + index + " out of the contract snapshot strings");
+            }
+            return index == 0 ? null : strings[index - 1];
+        }
+
+        // A count of entries or bytes, each taking at least a byte, so it can not exceed what is left of the buffer.
+        // Checked before anything is allocated for it, a corrupted count fails instead of exhausting the heap
+        private int readCount() {
+            var count = readVarint();
+            if (count > buffer.remaining()) {
+                throw new IllegalArgumentException("Count " + count + " exceeds the " + buffer.remaining()
+                    + " bytes left of the contract snapshot");
+            }
+            return count;
+        }
+
+        // A non-negative int in at most 5 bytes, the last of which carries the 4 remaining bits of the value
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 28; shift += 7) {
+                var b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            var b = buffer.get();
+            if ((b & 0xF8) != 0) {
+                throw new IllegalArgumentException("Malformed varint in the contract snapshot");
+            }
+            return value | b << 28;
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream output, int value) {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+}
@@ -0,0 +1,502 @@
+package letunov.impl;
+
+import letunov.impl.data.TraversalPolicy;
+import letunov.impl.model.AnnotationDescriptor;
+import letunov.impl.model.ClassRef;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.FieldDescriptor;
+import letunov.impl.model.MethodDescriptor;
+import letunov.impl.model.ParameterDescriptor;
+import letunov.impl.model.ParameterizedRef;
+import letunov.impl.model.TypeRef;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+import static letunov.impl.model.ContractAnnotations.DELETE_MAPPING;
+import static letunov.impl.model.ContractAnnotations.GET_MAPPING;
+import static letunov.impl.model.ContractAnnotations.PATCH_MAPPING;
+import static letunov.impl.model.ContractAnnotations.PATH_VARIABLE;
+import static letunov.impl.model.ContractAnnotations.POST_MAPPING;
+import static letunov.impl.model.ContractAnnotations.PUT_MAPPING;
+import static letunov.impl.model.ContractAnnotations.REQUEST_BODY;
+import static letunov.impl.model.ContractAnnotations.REQUEST_MAPPING;
+import static letunov.impl.model.ContractAnnotations.REQUEST_PARAM;
+import static letunov.impl.model.ContractAnnotations.getSimpleName;
+
+/**
+ * Computes contract checksums for one scan. Checksums of DTO classes and parameterized types are computed once and
+ * reused wherever the type is referenced again. A type that references itself, directly or through other types,
+ * contributes only its name at the point of the back reference, and results depending on such a truncation are not
+ * memoized. A memoized result records the types on cycles it went through and is not reused while any of them is being
+ * walked into, so a checksum never depends on the order in which contracts are processed.
+ * <p>
+ * The context is thread-safe: memoized results are immutable values shared through concurrent maps, while the
+ * traversal state of each contract lives in its own {@link Traversal}. Contracts and types are read through a
+ * {@link ContractModelBuilder}, so the same checksums are produced whether the model comes from reflection or from
+ * class files.
+ * <p>
+ * Types are walked into as the {@link TraversalPolicy} allows, and their fields are only read when they are. With a
+ * depth limit the checksum of a type depends on the depth it is reached at, so it is memoized per depth.
+ * <p>
+ * With {@link SharedTypeChecksums} the checksums of contracts and classes read from jars are also kept beyond the scan,
+ * and taken from there before being computed.
+ */
+public class ChecksumContext {
+    // Hashes of the constant strings added to every checksum, computed once
+    private static final int TRUE_HASH = Boolean.toString(true).hashCode();
+    private static final int FALSE_HASH = Boolean.toString(false).hashCode();
+    private static final int REQUEST_BODY_HASH = getSimpleName(REQUEST_BODY).hashCode();
+    private static final int PATH_VARIABLE_HASH = getSimpleName(PATH_VARIABLE).hashCode();
+    private static final int REQUEST_PARAM_HASH = getSimpleName(REQUEST_PARAM).hashCode();
+    private static final Map<String, Integer> MAPPING_NAME_HASHES = Stream.of(REQUEST_MAPPING, GET_MAPPING, POST_MAPPING,
+            DELETE_MAPPING, PUT_MAPPING, PATCH_MAPPING)
+        .collect(toUnmodifiableMap(identity(), type -> getSimpleName(type).hashCode()));
+    private static final Set<String> LEAF_TYPES = Set.of("java.lang.String", "java.lang.Void",
+        "boolean", "byte", "char", "short", "int", "long", "float", "double", "void",
+        "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short", "java.lang.Integer",
+        "java.lang.Long", "java.lang.Float", "java.lang.Double");
+    private static final int NO_BACK_REFERENCE = Integer.MAX_VALUE;
+
+    private final ContractModelBuilder modelBuilder;
+    private final TraversalPolicy traversalPolicy;
+    // Null unless checksums are shared beyond the scan
+    private final SharedTypeChecksums sharedTypeChecksums;
+    private final Map<TypeKey, Memo> typeChecksums = new ConcurrentHashMap<>();
+    private final Map<String, List<FieldDescriptor>> getterFields = new ConcurrentHashMap<>();
+    private final AtomicInteger computedTypesCount = new AtomicInteger();
+    private final AtomicInteger sharedTypesCount = new AtomicInteger();
+
+    public ChecksumContext(ContractModelBuilder modelBuilder) {
+        this(modelBuilder, TraversalPolicy.LEGACY);
+    }
+
+    public ChecksumContext(ContractModelBuilder modelBuilder, TraversalPolicy traversalPolicy) {
+        this(modelBuilder, traversalPolicy, null);
+    }
+
+    public ChecksumContext(ContractModelBuilder modelBuilder, TraversalPolicy traversalPolicy,
+        SharedTypeChecksums sharedTypeChecksums) {
+        this.modelBuilder = modelBuilder;
+        this.traversalPolicy = traversalPolicy;
+        this.sharedTypeChecksums = sharedTypeChecksums;
+    }
+
+    public String getContractChecksum(String contractName) {
+        if (sharedTypeChecksums == null || !sharedTypeChecksums.isShareable(contractName)) {
+            return getContractChecksum(modelBuilder.getContractDescriptor(contractName));
+        }
+        var shared = sharedTypeChecksums.getContractChecksum(contractName, traversalPolicy);
+        if (shared != null) {
+            return shared;
+        }
+        var checksum = getContractChecksum(modelBuilder.getContractDescriptor(contractName));
+        sharedTypeChecksums.putContractChecksum(contractName, traversalPolicy, checksum, getContractTypes(contractName));
+        return checksum;
+    }
+
+    public String getContractChecksum(ContractDescriptor contract) {
+        var traversal = new Traversal();
+        long checksumNumb = 0;
+        for (var method : contract.methods()) {
+            checksumNumb += getContractMethodChecksum(method, traversal);
+        }
+        return ChecksumUtil.getLongChecksum(checksumNumb);
+    }
+
+    public Set<String> getContractTypes(String contractName) {
+        var contract = modelBuilder.getContractDescriptor(contractName);
+        Map<String, Integer> types = new LinkedHashMap<>();
+        types.put(contract.name(), 0);
+        for (var method : contract.methods()) {
+            types.putIfAbsent(method.declaringType(), 0);
+            collectTypes(method.genericReturnType(), method.returnType(), 0, types);
+            for (var parameter : method.parameters()) {
+                collectTypes(parameter.genericType(), parameter.type(), 0, types);
+            }
+        }
+        return withSupertypes(types);
+    }
+
+    public ContractModelBuilder getModelBuilder() {
+        return modelBuilder;
+    }
+
+    public TraversalPolicy getTraversalPolicy() {
+        return traversalPolicy;
+    }
+
+    // Number of classes whose checksum was actually computed rather than taken from the memo
+    public int getComputedTypesCount() {
+        return computedTypesCount.get();
+    }
+
+    // Number of classes whose checksum was taken from the shared checksums
+    public int getSharedTypesCount() {
+        return sharedTypesCount.get();
+    }
+
+    // Types whose fields are never part of a contract
+    public static boolean isLeafType(String typeName) {
+        return LEAF_TYPES.contains(typeName);
+    }
+
+    static boolean isTraversable(TraversalPolicy traversalPolicy, String typeName, int depth) {
+        return !isLeafType(typeName) && traversalPolicy.isTraversable(typeName, depth);
+    }
+
+    // Only fields with a public getter "get" + field name are part of a contract, which needs an upper-case field name
+    static boolean hasGetter(ContractModelBuilder modelBuilder, String typeName, FieldDescriptor field) {
+        return isGetterFieldName(field.name())
+            && modelBuilder.getPublicMethodNames(typeName).contains("get" + field.name());
+    }
+
+    // ===================================================================================================================
+    // = Implementation
+    // ===================================================================================================================
+
+    private long getContractMethodChecksum(MethodDescriptor method, Traversal traversal) {
+        long methodChecksum = 0;
+        methodChecksum += traversal.getTypeChecksum(method.genericReturnType(), method.returnType(), 0);
+        methodChecksum += getMappingAnnotationsChecksum(method.annotations());
+        methodChecksum += getMethodParamsChecksum(method.parameters(), traversal);
+        methodChecksum += traversal.getTypeChecksum(method.genericReturnType(), method.returnType(), 0);
+        methodChecksum += method.modifiers();
+        methodChecksum += method.name().hashCode();
+        return methodChecksum;
+    }
+
+    private long getMethodParamsChecksum(List<ParameterDescriptor> parameters, Traversal traversal) {
+        long paramsChecksum = 0;
+        for (var parameter : parameters) {
+            paramsChecksum += getContractParamChecksum(parameter, traversal);
+        }
+        return paramsChecksum;
+    }
+
+    private long getContractParamChecksum(ParameterDescriptor parameter, Traversal traversal) {
+        long checksum = 0;
+        for (var annotation : parameter.annotations()) {
+            switch (annotation.type()) {
+                case REQUEST_BODY -> {
+                    checksum += getBooleanHash(annotation.getBoolean("required"));
+                    checksum += REQUEST_BODY_HASH;
+                }
+                case PATH_VARIABLE -> {
+                    checksum += annotation.getString("value").hashCode();
+                    checksum += getBooleanHash(annotation.getBoolean("required"));
+                    checksum += annotation.getString("name").hashCode();
+                    checksum += PATH_VARIABLE_HASH;
+                }
+                case REQUEST_PARAM -> {
+                    checksum += annotation.getString("value").hashCode();
+                    checksum += annotation.getString("name").hashCode();
+                    checksum += getBooleanHash(annotation.getBoolean("required"));
+                    checksum += annotation.getString("defaultValue").hashCode();
+                    checksum += REQUEST_PARAM_HASH;
+                }
+                default -> { }
+            }
+        }
+        checksum += traversal.getTypeChecksum(parameter.genericType(), parameter.type(), 0);
+        checksum += parameter.name().hashCode();
+        return checksum;
+    }
+
+    private long getMappingAnnotationsChecksum(List<AnnotationDescriptor> annotations) {
+        long checksum = 0;
+        for (var annotation : annotations) {
+            switch (annotation.type()) {
+                case REQUEST_MAPPING -> {
+                    checksum += annotation.getStrings("consumes").hashCode();
+                    checksum += annotation.getStrings("method").hashCode();
+                    checksum += annotation.getString("name").hashCode();
+                    checksum += annotation.getStrings("headers").hashCode();
+                    checksum += annotation.getStrings("value").hashCode();
+                    checksum += annotation.getStrings("path").hashCode();
+                    checksum += annotation.getStrings("params").hashCode();
+                    checksum += annotation.getStrings("produces").hashCode();
+                    checksum += MAPPING_NAME_HASHES.get(REQUEST_MAPPING);
+                }
+                case GET_MAPPING, POST_MAPPING, DELETE_MAPPING, PUT_MAPPING, PATCH_MAPPING -> {
+                    checksum += annotation.getStrings("value").hashCode();
+                    checksum += annotation.getStrings("path").hashCode();
+                    checksum += annotation.getStrings("params").hashCode();
+                    checksum += annotation.getStrings("headers").hashCode();
+                    checksum += annotation.getStrings("consumes").hashCode();
+                    checksum += annotation.getStrings("produces").hashCode();
+                    checksum += MAPPING_NAME_HASHES.get(annotation.type());
+                }
+                default -> { }
+            }
+        }
+        return checksum;
+    }
+
+    // Types are mapped to the lowest depth they were walked into at, a type reached again higher up is walked again
+    private void collectTypes(TypeRef genericType, ClassRef type, int depth, Map<String, Integer> types) {
+        if (genericType instanceof ParameterizedRef parameterizedType) {
+            collectParameterizedTypes(parameterizedType, depth, types);
+        }
+        collectTypes(type, depth, types);
+    }
+
+    private void collectTypes(ClassRef type, int depth, Map<String, Integer> types) {
+        var name = getComponentTypeName(type.name());
+        var walkedDepth = types.get(name);
+        if (walkedDepth != null && (walkedDepth <= depth || !traversalPolicy.limitsDepth())) {
+            return;
+        }
+        types.put(name, depth);
+        if (!isTraversable(name, depth)) {
+            return;
+        }
+        for (var field : getGetterFields(name)) {
+            collectTypes(field.genericType(), field.type(), depth + 1, types);
+        }
+    }
+
+    // The getters and fields of a type walked into may be inherited, so its supertypes are inputs of the checksum too.
+    // They are only added to the result, a supertype reached as a type of its own is still walked at its depth
+    private Set<String> withSupertypes(Map<String, Integer> types) {
+        Set<String> result = new LinkedHashSet<>(types.keySet());
+        types.forEach((name, depth) -> {
+            if (isTraversable(name, depth)) {
+                result.addAll(modelBuilder.getSupertypes(name));
+            }
+        });
+        return result;
+    }
+
+    private void collectParameterizedTypes(ParameterizedRef parameterizedType, int depth, Map<String, Integer> types) {
+        for (var type : parameterizedType.arguments()) {
+            if (type instanceof ParameterizedRef nestedParameterizedType) {
+                collectParameterizedTypes(nestedParameterizedType, depth, types);
+            } else if (type instanceof ClassRef classRef) {
+                collectTypes(classRef, depth, types);
+            }
+        }
+    }
+
+    private boolean isTraversable(String typeName, int depth) {
+        return isTraversable(traversalPolicy, typeName, depth);
+    }
+
+    // Read once per type, both the checksum and the reachable types of a type walk its fields
+    private List<FieldDescriptor> getGetterFields(String typeName) {
+        return getterFields.computeIfAbsent(typeName, name -> modelBuilder.getDeclaredFields(name).stream()
+            .filter(field -> hasGetter(modelBuilder, name, field))
+            .toList());
+    }
+
+    // Equivalent to ^[A-Z]\w*$ without a matcher per field
+    private static boolean isGetterFieldName(String name) {
+        if (name.isEmpty() || name.charAt(0) < 'A' || name.charAt(0) > 'Z') {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            var c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getBooleanHash(boolean value) {
+        return value ? TRUE_HASH : FALSE_HASH;
+    }
+
+    private static String getComponentTypeName(String typeName) {
+        var end = typeName.length();
+        while (typeName.startsWith("[]", end - 2)) {
+            end -= 2;
+        }
+        return end == typeName.length() ? typeName : typeName.substring(0, end);
+    }
+
+    private record TypeKey(TypeRef type, int depth) { }
+
+    // The checksum is valid only while none of the cycle types is in progress, it differs when one is a back reference
+    private record Memo(long checksum, Set<ClassRef> cycleTypes) { }
+
+    private class Traversal {
+        private final Map<ClassRef, Integer> typesInProgress = new HashMap<>();
+        private int lowestBackReference = NO_BACK_REFERENCE;
+        // Types on the cycles met by the type being computed, allocated on the first cycle met
+        private Set<ClassRef> cycleTypes = Set.of();
+
+        private long getTypeChecksum(TypeRef genericType, ClassRef type, int depth) {
+            long checksum = 0;
+            if (genericType instanceof ParameterizedRef parameterizedType) {
+                checksum += getParameterizedTypeChecksum(parameterizedType, depth);
+            }
+            checksum += getClassChecksum(type, depth);
+            return checksum;
+        }
+
+        private long getFieldChecksum(FieldDescriptor field, int depth) {
+            return getTypeChecksum(field.genericType(), field.type(), depth) + field.name().hashCode();
+        }
+
+        private long getClassChecksum(ClassRef type, int depth) {
+            var inProgressDepth = typesInProgress.get(type);
+            if (inProgressDepth != null) {
+                lowestBackReference = Math.min(lowestBackReference, inProgressDepth);
+                for (var inProgressType : typesInProgress.entrySet()) {
+                    if (inProgressType.getValue() >= inProgressDepth) {
+                        addCycleTypes(Set.of(inProgressType.getKey()));
+                    }
+                }
+                return type.name().hashCode();
+            }
+            var key = getTypeKey(type, depth);
+            var cached = getMemo(key);
+            if (cached != null) {
+                return cached.checksum();
+            }
+            var shared = getSharedChecksum(type, key);
+            if (shared != null) {
+                typeChecksums.put(key, new Memo(shared, Set.of()));
+                return shared;
+            }
+
+            var typeDepth = typesInProgress.size();
+            var outerLowestBackReference = lowestBackReference;
+            var outerCycleTypes = cycleTypes;
+            typesInProgress.put(type, typeDepth);
+            lowestBackReference = NO_BACK_REFERENCE;
+            cycleTypes = Set.of();
+            long checksum;
+            try {
+                checksum = computeClassChecksum(type, depth);
+            } finally {
+                typesInProgress.remove(type);
+            }
+
+            if (lowestBackReference >= typeDepth) {
+                typeChecksums.put(key, new Memo(checksum, Set.copyOf(cycleTypes)));
+                putSharedChecksum(type, key, checksum);
+                lowestBackReference = outerLowestBackReference;
+            } else {
+                lowestBackReference = Math.min(outerLowestBackReference, lowestBackReference);
+            }
+            restoreCycleTypes(outerCycleTypes);
+            return checksum;
+        }
+
+        private long computeClassChecksum(ClassRef type, int depth) {
+            computedTypesCount.incrementAndGet();
+            long checksum = 0;
+            checksum += type.name().hashCode();
+            if (isTraversable(type.name(), depth)) {
+                for (var field : getGetterFields(type.name())) {
+                    checksum += getFieldChecksum(field, depth + 1);
+                }
+            }
+            return checksum;
+        }
+
+        private long getParameterizedTypeChecksum(ParameterizedRef parameterizedType, int depth) {
+            var key = getTypeKey(parameterizedType, depth);
+            var cached = getMemo(key);
+            if (cached != null) {
+                return cached.checksum();
+            }
+
+            var outerLowestBackReference = lowestBackReference;
+            var outerCycleTypes = cycleTypes;
+            lowestBackReference = NO_BACK_REFERENCE;
+            cycleTypes = Set.of();
+            long checksum = 0;
+            for (var type : parameterizedType.arguments()) {
+                if (type instanceof ParameterizedRef nestedParameterizedType) {
+                    checksum += getParameterizedTypeChecksum(nestedParameterizedType, depth);
+                } else if (type instanceof ClassRef classRef) {
+                    checksum += getClassChecksum(classRef, depth);
+                } else {
+                    checksum += type.getTypeName().hashCode();
+                }
+            }
+
+            if (lowestBackReference == NO_BACK_REFERENCE) {
+                typeChecksums.put(key, new Memo(checksum, Set.copyOf(cycleTypes)));
+            }
+            lowestBackReference = Math.min(outerLowestBackReference, lowestBackReference);
+            restoreCycleTypes(outerCycleTypes);
+            return checksum;
+        }
+
+        // A memo going through a type in progress would miss the back reference to it
+        private Memo getMemo(TypeKey key) {
+            var memo = typeChecksums.get(key);
+            if (memo == null) {
+                return null;
+            }
+            for (var cycleType : memo.cycleTypes()) {
+                if (typesInProgress.containsKey(cycleType)) {
+                    return null;
+                }
+            }
+            addCycleTypes(memo.cycleTypes());
+            return memo;
+        }
+
+        private void addCycleTypes(Set<ClassRef> types) {
+            if (types.isEmpty()) {
+                return;
+            }
+            if (cycleTypes.isEmpty()) {
+                cycleTypes = new HashSet<>(types);
+            } else {
+                cycleTypes.addAll(types);
+            }
+        }
+
+        // Back to the cycle types of the outer type, which also met the cycles of the inner one
+        private void restoreCycleTypes(Set<ClassRef> outerCycleTypes) {
+            var innerCycleTypes = cycleTypes;
+            cycleTypes = outerCycleTypes;
+            addCycleTypes(innerCycleTypes);
+        }
+
+        private Long getSharedChecksum(ClassRef type, TypeKey key) {
+            if (sharedTypeChecksums == null) {
+                return null;
+            }
+            var checksum = sharedTypeChecksums.getChecksum(type.name(), traversalPolicy, key.depth());
+            if (checksum != null) {
+                sharedTypesCount.incrementAndGet();
+            }
+            return checksum;
+        }
+
+        // Only a checksum free of back references to other types is shared, with the types it was computed from
+        private void putSharedChecksum(ClassRef type, TypeKey key, long checksum) {
+            if (sharedTypeChecksums == null || !sharedTypeChecksums.isShareable(type.name())
+                || !Set.of(type).containsAll(cycleTypes)) {
+                return;
+            }
+            Map<String, Integer> reachableTypes = new LinkedHashMap<>();
+            collectTypes(type, key.depth(), reachableTypes);
+            sharedTypeChecksums.putChecksum(type.name(), traversalPolicy, key.depth(), checksum,
+                withSupertypes(reachableTypes));
+        }
+
+        // Without a depth limit the checksum of a type is the same at any depth
+        private TypeKey getTypeKey(TypeRef type, int depth) {
+            return new TypeKey(type, traversalPolicy.limitsDepth() ? depth : 0);
+        }
+    }
+}
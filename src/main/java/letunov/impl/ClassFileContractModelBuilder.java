@@ -0,0 +1,261 @@
+package letunov.impl;
+
+import letunov.exception.ClassFileNotFoundException;
+import letunov.impl.classfile.AnnotationInfo;
+import letunov.impl.classfile.ClassFile;
+import letunov.impl.classfile.ClassFileParser;
+import letunov.impl.classfile.EnumConstant;
+import letunov.impl.classfile.MemberInfo;
+import letunov.impl.classfile.SignatureParser;
+import letunov.impl.model.AnnotationDescriptor;
+import letunov.impl.model.ClassRef;
+import letunov.impl.model.ContractAnnotations;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.FieldDescriptor;
+import letunov.impl.model.MethodDescriptor;
+import letunov.impl.model.ParameterDescriptor;
+import letunov.impl.model.TypeRef;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Builds the contract model from class files read through {@link ClassLoader#getResourceAsStream}, so contracts, DTOs
+ * and annotation types are never loaded, linked or initialized. The result is the same model
+ * {@link ReflectionContractModelBuilder} produces, including annotation defaults and synthesized parameter names.
+ */
+public class ClassFileContractModelBuilder implements ContractModelBuilder {
+    // Access flags java.lang.reflect.Method#getModifiers reports, see JVM_RECOGNIZED_METHOD_MODIFIERS
+    private static final int RECOGNIZED_METHOD_MODIFIERS = Modifier.methodModifiers() | 0x0040 | 0x0080 | 0x1000;
+    private static final String STRING_DESCRIPTOR = "Ljava/lang/String;";
+
+    private final ClassLoader classLoader;
+    private final Map<String, Optional<ClassFile>> classFiles = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> publicMethodNames = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> supertypes = new ConcurrentHashMap<>();
+    private final Map<String, Optional<AnnotationType>> annotationTypes = new ConcurrentHashMap<>();
+
+    public ClassFileContractModelBuilder(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public ContractDescriptor getContractDescriptor(String contractName) {
+        var methods = getPublicMethods(contractName).stream()
+            .map(method -> getMethodDescriptor(method.owner(), method.member()))
+            .toList();
+        return new ContractDescriptor(contractName, methods);
+    }
+
+    @Override
+    public List<FieldDescriptor> getDeclaredFields(String typeName) {
+        if (typeName.endsWith("[]")) {
+            return List.of();
+        }
+        return getRequiredClassFile(typeName).fields().stream()
+            .map(field -> {
+                var type = (ClassRef) SignatureParser.parseFieldSignature(field.descriptor());
+                var genericType = field.signature() == null ? type : SignatureParser.parseFieldSignature(field.signature());
+                return new FieldDescriptor(field.name(), type, genericType);
+            })
+            .toList();
+    }
+
+    @Override
+    public Set<String> getPublicMethodNames(String typeName) {
+        return publicMethodNames.computeIfAbsent(typeName, name -> name.endsWith("[]")
+            ? getPublicMethodNames("java.lang.Object")
+            : getPublicMethods(name).stream()
+                .map(method -> method.member().name())
+                .collect(toSet()));
+    }
+
+    @Override
+    public Set<String> getSupertypes(String typeName) {
+        return supertypes.computeIfAbsent(typeName, name -> {
+            Set<String> result = new LinkedHashSet<>();
+            if (!name.endsWith("[]")) {
+                collectSupertypes(name, result);
+            }
+            return result;
+        });
+    }
+
+    public Optional<ClassFile> getClassFile(String typeName) {
+        return classFiles.computeIfAbsent(typeName, this::readClassFile);
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private record OwnedMethod(String owner, MemberInfo member) { }
+
+    private record AnnotationType(Map<String, String> elementDescriptors, Map<String, Object> defaults) { }
+
+    private ClassFile getRequiredClassFile(String typeName) {
+        return getClassFile(typeName).orElseThrow(() -> new ClassFileNotFoundException(typeName));
+    }
+
+    private Optional<ClassFile> readClassFile(String typeName) {
+        try (InputStream inputStream = classLoader.getResourceAsStream(typeName.replace('.', '/') + ".class")) {
+            if (inputStream == null) {
+                return Optional.empty();
+            }
+            return Optional.of(ClassFileParser.parse(inputStream.readAllBytes()));
+        } catch (IOException e) {
+            throw new ClassFileNotFoundException(typeName, e);
+        }
+    }
+
+    // Mirrors Class#getMethods: own public methods first, then inherited ones, skipping static interface methods
+    // of super interfaces and the methods of Object for interfaces
+    private List<OwnedMethod> getPublicMethods(String typeName) {
+        Map<String, OwnedMethod> methods = new LinkedHashMap<>();
+        collectPublicMethods(typeName, true, methods, new HashSet<>());
+        return new ArrayList<>(methods.values());
+    }
+
+    private void collectPublicMethods(String typeName, boolean declaringType, Map<String, OwnedMethod> methods,
+        Set<String> visited) {
+        if (!visited.add(typeName)) {
+            return;
+        }
+        var classFile = getRequiredClassFile(typeName);
+        for (var method : classFile.methods()) {
+            if (!method.isPublic() || method.name().startsWith("<")
+                || (method.isStatic() && classFile.isInterface() && !declaringType)) {
+                continue;
+            }
+            // The return type is part of the key, so covariant overrides and their bridge methods are both kept
+            methods.putIfAbsent(method.name() + method.descriptor(), new OwnedMethod(typeName, method));
+        }
+        if (classFile.superName() != null && !classFile.isInterface()) {
+            collectPublicMethods(classFile.superName(), false, methods, visited);
+        }
+        for (var superInterface : classFile.interfaces()) {
+            collectPublicMethods(superInterface, false, methods, visited);
+        }
+    }
+
+    // As Class#getSuperclass, interfaces have no superclass here although their class files name Object
+    private void collectSupertypes(String typeName, Set<String> result) {
+        var classFile = getRequiredClassFile(typeName);
+        if (classFile.superName() != null && !classFile.isInterface() && result.add(classFile.superName())) {
+            collectSupertypes(classFile.superName(), result);
+        }
+        for (var superInterface : classFile.interfaces()) {
+            if (result.add(superInterface)) {
+                collectSupertypes(superInterface, result);
+            }
+        }
+    }
+
+    private MethodDescriptor getMethodDescriptor(String owner, MemberInfo method) {
+        var descriptor = SignatureParser.parseMethodSignature(method.descriptor());
+        var signature = method.signature() == null ? descriptor : SignatureParser.parseMethodSignature(method.signature());
+
+        List<ParameterDescriptor> parameters = new ArrayList<>();
+        for (int i = 0; i < descriptor.parameterTypes().size(); i++) {
+            var type = (ClassRef) descriptor.parameterTypes().get(i);
+            TypeRef genericType = signature.parameterTypes().size() == descriptor.parameterTypes().size()
+                ? signature.parameterTypes().get(i)
+                : type;
+            var annotations = i < method.parameterAnnotations().size() ? method.parameterAnnotations().get(i) : List.<AnnotationInfo>of();
+            parameters.add(new ParameterDescriptor(getParameterName(method, i), getAnnotationDescriptors(annotations), type, genericType));
+        }
+
+        return new MethodDescriptor(owner, method.name(), method.accessFlags() & RECOGNIZED_METHOD_MODIFIERS,
+            getAnnotationDescriptors(method.annotations()), parameters,
+            (ClassRef) descriptor.returnType(), signature.returnType());
+    }
+
+    private String getParameterName(MemberInfo method, int index) {
+        var names = method.parameterNames();
+        if (names != null && index < names.size() && names.get(index) != null && !names.get(index).isEmpty()) {
+            return names.get(index);
+        }
+        return "arg" + index;
+    }
+
+    private List<AnnotationDescriptor> getAnnotationDescriptors(List<AnnotationInfo> annotations) {
+        List<AnnotationDescriptor> descriptors = new ArrayList<>();
+        for (var annotation : annotations) {
+            var type = getTypeName(annotation.descriptor());
+            if (!ContractAnnotations.ALL.contains(type)) {
+                continue;
+            }
+            getAnnotationType(type).ifPresent(annotationType -> {
+                Map<String, Object> values = new TreeMap<>(annotationType.defaults());
+                annotationType.elementDescriptors().forEach((element, descriptor) -> {
+                    var value = annotation.values().get(element);
+                    if (value != null) {
+                        values.put(element, getAnnotationValue(value, descriptor));
+                    }
+                });
+                descriptors.add(new AnnotationDescriptor(type, values));
+            });
+        }
+        return descriptors;
+    }
+
+    // Supported elements of an annotation type with their defaults. Like reflection, an annotation whose type is
+    // missing from the classpath is ignored.
+    private Optional<AnnotationType> getAnnotationType(String annotationType) {
+        return annotationTypes.computeIfAbsent(annotationType, type -> getClassFile(type).map(classFile -> {
+            Map<String, String> elementDescriptors = new TreeMap<>();
+            Map<String, Object> defaults = new TreeMap<>();
+            for (var element : classFile.methods()) {
+                var returnType = element.descriptor().substring(element.descriptor().indexOf(')') + 1);
+                if (isSupportedElementType(returnType)) {
+                    elementDescriptors.put(element.name(), returnType);
+                    defaults.put(element.name(), getAnnotationValue(element.annotationDefault(), returnType));
+                }
+            }
+            return new AnnotationType(elementDescriptors, defaults);
+        }));
+    }
+
+    private boolean isSupportedElementType(String descriptor) {
+        if (descriptor.equals("Z")) {
+            return true;
+        }
+        var componentDescriptor = descriptor.startsWith("[") ? descriptor.substring(1) : descriptor;
+        return componentDescriptor.equals(STRING_DESCRIPTOR)
+            || (componentDescriptor.startsWith("L") && getClassFile(getTypeName(componentDescriptor))
+                .map(ClassFile::isEnum)
+                .orElse(false));
+    }
+
+    private Object getAnnotationValue(Object value, String descriptor) {
+        if (value == null) {
+            return null;
+        }
+        if (descriptor.startsWith("[")) {
+            var values = value instanceof List<?> list ? list : List.of(value);
+            return values.stream().map(item -> (String) getAnnotationValue(item, descriptor.substring(1))).toList();
+        }
+        if (value instanceof EnumConstant enumConstant) {
+            return enumConstant.name();
+        }
+        return value;
+    }
+
+    private String getTypeName(String descriptor) {
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+}
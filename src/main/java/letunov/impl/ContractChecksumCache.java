@@ -0,0 +1,169 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import letunov.impl.data.CachedContractChecksum;
+import letunov.impl.data.ClassFileStamp;
+import letunov.impl.data.ContractChecksumCacheContent;
+import letunov.impl.data.TraversalPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ContractChecksumCache {
+    private static final int VERSION = 1;
+    private static final String JAVA_VERSION = System.getProperty("java.version");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CachedContractChecksum> contracts = new ConcurrentHashMap<>();
+    private final Path cacheFile;
+    private final ClassLoader classLoader;
+    private final ChecksumContext checksumContext;
+    // Null unless the module was compiled with ContractChecksumProcessor
+    private final ContractChecksumManifest manifest;
+    private final AtomicInteger precomputedCount = new AtomicInteger();
+    private volatile boolean modified;
+
+    // A null cache file disables caching, checksums are computed on every call then
+    public ContractChecksumCache(Path cacheFile, ClassLoader classLoader, ChecksumContext checksumContext) {
+        this(cacheFile, classLoader, checksumContext, null);
+    }
+
+    public ContractChecksumCache(Path cacheFile, ClassLoader classLoader, ChecksumContext checksumContext,
+        ContractChecksumManifest manifest) {
+        this.cacheFile = cacheFile;
+        this.classLoader = classLoader;
+        this.checksumContext = checksumContext;
+        this.manifest = manifest;
+        load();
+    }
+
+    public String getChecksum(Class<?> contract) {
+        return getChecksum(contract.getTypeName());
+    }
+
+    public String getChecksum(String contractName) {
+        var precomputed = getPrecomputedChecksum(contractName);
+        if (precomputed != null) {
+            return precomputed;
+        }
+        if (cacheFile == null) {
+            return checksumContext.getContractChecksum(contractName);
+        }
+
+        var cached = contracts.get(contractName);
+        if (cached != null && isUpToDate(cached)) {
+            log.debug("[ContractChecksumCache] The checksum of {} is up to date", contractName);
+            return cached.checksum();
+        }
+
+        log.debug("[ContractChecksumCache] Computing the checksum of {}", contractName);
+        var checksum = checksumContext.getContractChecksum(contractName);
+        Map<String, ClassFileStamp> inputs = new HashMap<>();
+        for (var type : checksumContext.getContractTypes(contractName)) {
+            var stamp = getClassFileStamp(type);
+            if (stamp != null) {
+                inputs.put(type, stamp);
+            }
+        }
+        contracts.put(contractName, new CachedContractChecksum(checksum, inputs));
+        modified = true;
+        return checksum;
+    }
+
+    // Number of checksums taken from the manifest written at compile time
+    public int getPrecomputedCount() {
+        return precomputedCount.get();
+    }
+
+    public void save() {
+        if (cacheFile == null || !modified) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            objectMapper.writeValue(cacheFile.toFile(), new ContractChecksumCacheContent(VERSION, JAVA_VERSION,
+                checksumContext.getTraversalPolicy(), contracts));
+            log.debug("[ContractChecksumCache] Cache saved to {}", cacheFile);
+        } catch (IOException e) {
+            log.warn("[ContractChecksumCache] Unable to save the checksum cache to {}", cacheFile, e);
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void load() {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        try {
+            var content = objectMapper.readValue(cacheFile.toFile(), ContractChecksumCacheContent.class);
+            if (content.version() != VERSION || !Objects.equals(content.javaVersion(), JAVA_VERSION)
+                || !Objects.equals(content.traversalPolicy(), checksumContext.getTraversalPolicy())) {
+                log.debug("[ContractChecksumCache] Cache {} was written by another version or traversal policy and is ignored", cacheFile);
+                return;
+            }
+            contracts.putAll(content.contracts());
+            log.debug("[ContractChecksumCache] {} cached contracts loaded from {}", contracts.size(), cacheFile);
+        } catch (IOException e) {
+            log.warn("[ContractChecksumCache] Unable to read the checksum cache {}, it will be rebuilt", cacheFile, e);
+        }
+    }
+
+    // The checksum computed at compile time, used while the class files it was computed from are unchanged
+    private String getPrecomputedChecksum(String contractName) {
+        if (manifest == null || !TraversalPolicy.LEGACY.equals(checksumContext.getTraversalPolicy())) {
+            return null;
+        }
+        var precomputed = manifest.getChecksum(contractName);
+        if (precomputed == null) {
+            return null;
+        }
+        for (var input : precomputed.classFileHashes().entrySet()) {
+            var stamp = getClassFileStamp(input.getKey());
+            if (stamp == null || !stamp.hash().equals(input.getValue())) {
+                log.debug("[ContractChecksumCache] {} changed since {} was compiled, its checksum is computed again",
+                    input.getKey(), contractName);
+                return null;
+            }
+        }
+        precomputedCount.incrementAndGet();
+        return precomputed.checksum();
+    }
+
+    private boolean isUpToDate(CachedContractChecksum cached) {
+        return cached.inputs().entrySet().stream()
+            .allMatch(input -> input.getValue().equals(getClassFileStamp(input.getKey())));
+    }
+
+    private ClassFileStamp getClassFileStamp(String typeName) {
+        var resource = classLoader.getResource(typeName.replace('.', '/') + ".class");
+        // Primitives have no class file and JDK classes only change together with the Java version
+        if (resource == null || resource.getProtocol().equals("jrt")) {
+            return null;
+        }
+        try (InputStream inputStream = resource.openStream()) {
+            return new ClassFileStamp(getSource(resource), ChecksumUtil.getBytesChecksum(inputStream.readAllBytes()));
+        } catch (IOException e) {
+            log.debug("[ContractChecksumCache] Unable to read the class file {}", resource, e);
+            return null;
+        }
+    }
+
+    private String getSource(URL resource) {
+        var location = resource.toString();
+        var separatorIndex = location.indexOf("!/");
+        return separatorIndex >= 0 ? location.substring(0, separatorIndex) : location;
+    }
+}
@@ -0,0 +1,168 @@
+package letunov.impl;
+
+import letunov.impl.data.PrecomputedContractChecksum;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Contracts of a module found at compile time by {@link letunov.processor.ContractChecksumProcessor}: its providers and
+ * consumers, and the checksums of the contracts they implement with the hashes of the class files each checksum was
+ * computed from. The manifest also records a digest of the names of the types compiled with it, and is only used while
+ * the output directory holds exactly these types, so a partial compilation never hides a provider or a consumer.
+ */
+@Slf4j
+public class ContractChecksumManifest {
+    public static final String LOCATION = "META-INF/contract-checksums.properties";
+
+    private static final String VERSION = "1";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String CHECKSUM_PREFIX = "checksum.";
+    private static final String INPUTS_PREFIX = "inputs.";
+
+    private final String compiledTypesDigest;
+    private final Set<String> providers;
+    private final Set<String> consumers;
+    private final Map<String, PrecomputedContractChecksum> checksums;
+
+    public ContractChecksumManifest(String compiledTypesDigest, Set<String> providers, Set<String> consumers,
+        Map<String, PrecomputedContractChecksum> checksums) {
+        this.compiledTypesDigest = compiledTypesDigest;
+        this.providers = Set.copyOf(providers);
+        this.consumers = Set.copyOf(consumers);
+        this.checksums = Map.copyOf(checksums);
+    }
+
+    // Empty if the output directory has no manifest or holds other types than the ones it was written with
+    public static Optional<ContractChecksumManifest> read(Path outputDirectory) {
+        var manifestFile = outputDirectory.resolve(LOCATION);
+        if (!Files.isRegularFile(manifestFile)) {
+            return Optional.empty();
+        }
+        try (var reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+            var manifest = read(reader);
+            if (manifest.isEmpty()) {
+                log.debug("[ContractChecksumManifest] {} was written by another version and is ignored", manifestFile);
+                return Optional.empty();
+            }
+            if (!manifest.get().compiledTypesDigest.equals(getCompiledTypesDigest(getCompiledTypes(outputDirectory)))) {
+                log.info("[ContractChecksumManifest] {} does not match the compiled classes and is ignored", manifestFile);
+                return Optional.empty();
+            }
+            return manifest;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("[ContractChecksumManifest] Unable to read {}, the output directory is scanned", manifestFile, e);
+            return Optional.empty();
+        }
+    }
+
+    public static Optional<ContractChecksumManifest> read(Reader reader) throws IOException {
+        var properties = new Properties();
+        properties.load(reader);
+        if (!VERSION.equals(properties.getProperty("version"))) {
+            return Optional.empty();
+        }
+        Map<String, PrecomputedContractChecksum> checksums = new TreeMap<>();
+        for (var key : properties.stringPropertyNames()) {
+            if (key.startsWith(CHECKSUM_PREFIX)) {
+                var contract = key.substring(CHECKSUM_PREFIX.length());
+                checksums.put(contract, new PrecomputedContractChecksum(properties.getProperty(key),
+                    parseHashes(properties.getProperty(INPUTS_PREFIX + contract, ""))));
+            }
+        }
+        return Optional.of(new ContractChecksumManifest(properties.getProperty("compiledTypes", ""),
+            splitNames(properties.getProperty("providers", "")), splitNames(properties.getProperty("consumers", "")),
+            checksums));
+    }
+
+    // Sorted lines, so the same compilation always writes the same manifest
+    public void write(Writer writer) throws IOException {
+        writer.write("# Contracts of the module, written by ContractChecksumProcessor\n");
+        writer.write("version=" + VERSION + "\n");
+        writer.write("compiledTypes=" + compiledTypesDigest + "\n");
+        writer.write("providers=" + String.join(",", new TreeSet<>(providers)) + "\n");
+        writer.write("consumers=" + String.join(",", new TreeSet<>(consumers)) + "\n");
+        for (var contract : new TreeSet<>(checksums.keySet())) {
+            var checksum = checksums.get(contract);
+            writer.write(CHECKSUM_PREFIX + contract + "=" + checksum.checksum() + "\n");
+            writer.write(INPUTS_PREFIX + contract + "=" + new TreeMap<>(checksum.classFileHashes()).entrySet().stream()
+                .map(input -> input.getKey() + ":" + input.getValue())
+                .collect(Collectors.joining(",")) + "\n");
+        }
+    }
+
+    // Top-level types only, nested and local classes are compiled with the type that declares them
+    public static String getCompiledTypesDigest(Collection<String> typeNames) {
+        var names = typeNames.stream()
+            .filter(name -> !name.contains("$"))
+            .sorted()
+            .collect(Collectors.joining("\n"));
+        return ChecksumUtil.getBytesChecksum(names.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Set<String> getProviders() {
+        return providers;
+    }
+
+    public Set<String> getConsumers() {
+        return consumers;
+    }
+
+    public PrecomputedContractChecksum getChecksum(String contractName) {
+        return checksums.get(contractName);
+    }
+
+    public int getChecksumsCount() {
+        return checksums.size();
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private static Set<String> getCompiledTypes(Path outputDirectory) {
+        try (var files = Files.walk(outputDirectory)) {
+            return files.filter(Files::isRegularFile)
+                .map(file -> outputDirectory.relativize(file).toString().replace('\\', '/'))
+                .filter(name -> name.endsWith(CLASS_SUFFIX) && !name.startsWith("META-INF/"))
+                .map(name -> name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'))
+                .filter(name -> !name.endsWith("package-info") && !name.endsWith("module-info"))
+                .collect(Collectors.toSet());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Set<String> splitNames(String names) {
+        return Arrays.stream(names.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    private static Map<String, String> parseHashes(String inputs) {
+        Map<String, String> hashes = new TreeMap<>();
+        for (var input : splitNames(inputs)) {
+            var separatorIndex = input.lastIndexOf(':');
+            if (separatorIndex > 0) {
+                hashes.put(input.substring(0, separatorIndex), input.substring(separatorIndex + 1));
+            }
+        }
+        return hashes;
+    }
+}
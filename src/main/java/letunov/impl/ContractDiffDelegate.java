@@ -0,0 +1,62 @@
+package letunov.impl;
+
+import letunov.impl.data.ContractDiffReport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Compares the contract shapes saved by the scan with a baseline and writes the classified changes to the diff file.
+ * Without a baseline the current shapes become one, so the first run of a branch records what later runs compare with.
+ * The baseline is never replaced afterwards: it is meant to be committed, or taken from the last release.
+ */
+@Slf4j
+public class ContractDiffDelegate {
+    private final Path shapesFile;
+    private final Path baselineFile;
+    private final Path diffFile;
+
+    public ContractDiffDelegate(Path shapesFile, Path baselineFile, Path diffFile) {
+        this.shapesFile = shapesFile;
+        this.baselineFile = baselineFile;
+        this.diffFile = diffFile;
+    }
+
+    // Empty when there was nothing to compare with, or the shapes could not be read
+    public Optional<ContractDiffReport> execute() {
+        try {
+            var shapes = ContractDiffEngine.readShapes(shapesFile);
+            if (!Files.isRegularFile(baselineFile)) {
+                ContractDiffEngine.writeShapes(shapes, baselineFile);
+                log.info("[ContractDiffDelegate] No contract baseline {}, the current contracts are recorded as one",
+                    baselineFile);
+                return Optional.empty();
+            }
+            var report = ContractDiffEngine.load(baselineFile).diff(shapes);
+            var lines = ContractDiffEngine.format(report);
+            lines.forEach(line -> log.info("[ContractDiffDelegate] {}", line));
+            saveReport(lines);
+            return Optional.of(report);
+        } catch (UncheckedIOException e) {
+            log.warn("[ContractDiffDelegate] Unable to compare the contracts with the baseline {}", baselineFile, e);
+            return Optional.empty();
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void saveReport(Iterable<String> lines) {
+        try {
+            Files.createDirectories(diffFile.toAbsolutePath().getParent());
+            Files.write(diffFile, lines);
+        } catch (IOException e) {
+            log.warn("[ContractDiffDelegate] Unable to save the contract diff {}", diffFile, e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import letunov.impl.data.ContractChange;
+import letunov.impl.data.ContractChangeKind;
+import letunov.impl.data.ContractDiffReport;
+import letunov.impl.data.ContractShape;
+import letunov.impl.data.ContractSide;
+import letunov.impl.data.EndpointShape;
+import letunov.impl.data.ParameterBinding;
+import letunov.impl.data.ParameterShape;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+
+/**
+ * Compares contract shapes with a baseline and classifies every difference, telling whether calls written against the
+ * baseline keep working. For a providing contract these are the calls of its consumers, so what the contract adds is
+ * compatible and what it removes is not. For a consuming contract they are the calls of the microservice itself to a
+ * provider still serving the baseline, so compatibility is reversed: calling an endpoint the provider may not have yet
+ * is not compatible, no longer calling one is. Endpoints are matched by method name where it is unique in both versions, so an added or
+ * removed parameter is reported as such rather than as a replaced endpoint, and by signature for overloads. Parameters
+ * are matched by name. DTO fields are compared for the types both versions walk into; a type only one of them reaches
+ * shows up as the change of the type referencing it.
+ */
+@Slf4j
+public class ContractDiffEngine {
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String baselineLink;
+    private final Map<String, ContractShape> baseline;
+
+    public ContractDiffEngine(String baselineLink, List<ContractShape> baseline) {
+        this.baselineLink = baselineLink;
+        this.baseline = index(baseline, ContractDiffEngine::getShapeKey);
+        log.debug("[ContractDiffEngine] Baseline {} indexed: {} contracts", baselineLink, this.baseline.size());
+    }
+
+    public static ContractDiffEngine load(Path baselineFile) {
+        return new ContractDiffEngine(baselineFile.toString(), readShapes(baselineFile));
+    }
+
+    public static List<ContractShape> readShapes(Path shapesFile) {
+        try {
+            return objectMapper.readValue(shapesFile.toFile(), new TypeReference<>() { });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the contract shapes " + shapesFile, e);
+        }
+    }
+
+    public static void writeShapes(List<ContractShape> shapes, Path shapesFile) {
+        try {
+            Files.createDirectories(shapesFile.toAbsolutePath().getParent());
+            objectMapper.writeValue(shapesFile.toFile(), shapes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the contract shapes " + shapesFile, e);
+        }
+    }
+
+    public ContractDiffReport diff(List<ContractShape> current) {
+        List<ContractChange> changes = new ArrayList<>();
+        var currentShapes = index(current, ContractDiffEngine::getShapeKey);
+        currentShapes.forEach((key, shape) -> {
+            var baselineShape = baseline.get(key);
+            if (baselineShape == null) {
+                changes.add(change(shape, shape.name(), ContractChangeKind.NEW_CONTRACT, null, null, true, false));
+            } else {
+                diffContract(baselineShape, shape, changes);
+            }
+        });
+        baseline.forEach((key, shape) -> {
+            if (!currentShapes.containsKey(key)) {
+                changes.add(change(shape, shape.name(), ContractChangeKind.REMOVED_CONTRACT, null, null, false, true));
+            }
+        });
+        return new ContractDiffReport(baselineLink, List.copyOf(changes));
+    }
+
+    // One line per change, incompatible ones marked with "!", compatible ones with "+", consumed contracts with "<"
+    public static List<String> format(ContractDiffReport report) {
+        var incompatible = report.changes().stream().filter(change -> !change.compatible()).count();
+        List<String> lines = new ArrayList<>();
+        lines.add("Contract changes against %s: %d, incompatible: %d".formatted(report.baseline(), report.changes().size(),
+            incompatible));
+        for (var change : report.changes()) {
+            var line = "%s%s %s %s %s".formatted(change.compatible() ? "+" : "!",
+                change.side() == ContractSide.CONSUMING ? "<" : "", change.kind(), change.contract(),
+                change.element().equals(change.contract()) ? "" : change.element());
+            if (change.before() != null || change.after() != null) {
+                line += ": %s -> %s".formatted(Objects.toString(change.before(), "none"), Objects.toString(change.after(), "none"));
+            }
+            lines.add(line.stripTrailing());
+        }
+        return lines;
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    // Every change comes with its compatibility for a providing and for a consuming contract, the second one being the
+    // compatibility of the opposite change for a provider
+    private void diffContract(ContractShape baselineShape, ContractShape shape, List<ContractChange> changes) {
+        var baselineEndpoints = indexEndpoints(baselineShape.endpoints());
+        var endpoints = indexEndpoints(shape.endpoints());
+        endpoints.forEach((key, endpoint) -> {
+            var baselineEndpoint = baselineEndpoints.get(key);
+            if (baselineEndpoint == null) {
+                changes.add(change(shape, endpoint.signature(), ContractChangeKind.NEW_ENDPOINT, null, describe(endpoint),
+                    true, false));
+            } else {
+                diffEndpoint(shape, baselineEndpoint, endpoint, changes);
+            }
+        });
+        baselineEndpoints.forEach((key, endpoint) -> {
+            if (!endpoints.containsKey(key)) {
+                changes.add(change(shape, endpoint.signature(), ContractChangeKind.REMOVED_ENDPOINT, describe(endpoint),
+                    null, false, true));
+            }
+        });
+        diffTypes(shape, baselineShape.types(), shape.types(), changes);
+    }
+
+    private void diffEndpoint(ContractShape shape, EndpointShape baselineEndpoint, EndpointShape endpoint,
+        List<ContractChange> changes) {
+        var element = endpoint.signature();
+        if (!baselineEndpoint.paths().equals(endpoint.paths())) {
+            changes.add(change(shape, element, ContractChangeKind.CHANGED_PATH, baselineEndpoint.paths().toString(),
+                endpoint.paths().toString(), false, false));
+        }
+        if (!baselineEndpoint.httpMethods().equals(endpoint.httpMethods())
+            || !baselineEndpoint.conditions().equals(endpoint.conditions())) {
+            changes.add(change(shape, element, ContractChangeKind.CHANGED_MAPPING, describeMapping(baselineEndpoint),
+                describeMapping(endpoint), false, false));
+        }
+        if (!baselineEndpoint.returnType().equals(endpoint.returnType())) {
+            changes.add(change(shape, element + " return", ContractChangeKind.CHANGED_TYPE, baselineEndpoint.returnType(),
+                endpoint.returnType(), false, false));
+        }
+
+        // Spring ignores request parameters it does not expect, the body and path of a call do not change with them
+        var baselineParameters = index(baselineEndpoint.parameters(), ParameterShape::name);
+        var parameters = index(endpoint.parameters(), ParameterShape::name);
+        parameters.forEach((name, parameter) -> {
+            var baselineParameter = baselineParameters.get(name);
+            if (baselineParameter == null) {
+                changes.add(change(shape, element + " " + name, ContractChangeKind.NEW_PARAMETER, null, describe(parameter),
+                    !parameter.required(), isIgnoredWhenUnexpected(parameter)));
+            } else {
+                diffParameter(shape, element + " " + name, baselineParameter, parameter, changes);
+            }
+        });
+        baselineParameters.forEach((name, parameter) -> {
+            if (!parameters.containsKey(name)) {
+                changes.add(change(shape, element + " " + name, ContractChangeKind.REMOVED_PARAMETER, describe(parameter),
+                    null, isIgnoredWhenUnexpected(parameter), !parameter.required()));
+            }
+        });
+    }
+
+    private void diffParameter(ContractShape shape, String element, ParameterShape baselineParameter,
+        ParameterShape parameter, List<ContractChange> changes) {
+        if (baselineParameter.binding() != parameter.binding()
+            || !Objects.equals(baselineParameter.bindingName(), parameter.bindingName())) {
+            changes.add(change(shape, element, ContractChangeKind.CHANGED_MAPPING, describe(baselineParameter),
+                describe(parameter), false, false));
+        }
+        // A provider accepts calls without a parameter becoming optional, a consumer keeps sending a parameter becoming
+        // required
+        if (baselineParameter.required() != parameter.required()) {
+            changes.add(change(shape, element, ContractChangeKind.CHANGED_REQUIRED,
+                String.valueOf(baselineParameter.required()), String.valueOf(parameter.required()), !parameter.required(),
+                parameter.required()));
+        }
+        if (!baselineParameter.type().equals(parameter.type())) {
+            changes.add(change(shape, element, ContractChangeKind.CHANGED_TYPE, baselineParameter.type(), parameter.type(),
+                false, false));
+        }
+    }
+
+    private void diffTypes(ContractShape shape, Map<String, Map<String, String>> baselineTypes,
+        Map<String, Map<String, String>> types, List<ContractChange> changes) {
+        new TreeMap<>(types).forEach((type, fields) -> {
+            var baselineFields = baselineTypes.get(type);
+            if (baselineFields == null) {
+                return;
+            }
+            new TreeMap<>(fields).forEach((field, fieldType) -> {
+                var baselineFieldType = baselineFields.get(field);
+                if (baselineFieldType == null) {
+                    changes.add(change(shape, type + "." + field, ContractChangeKind.NEW_OPTIONAL_FIELD, null, fieldType,
+                        true, false));
+                } else if (!baselineFieldType.equals(fieldType)) {
+                    changes.add(change(shape, type + "." + field, ContractChangeKind.CHANGED_TYPE, baselineFieldType,
+                        fieldType, false, false));
+                }
+            });
+            new TreeMap<>(baselineFields).forEach((field, fieldType) -> {
+                if (!fields.containsKey(field)) {
+                    changes.add(change(shape, type + "." + field, ContractChangeKind.REMOVED_FIELD, fieldType, null, false,
+                        true));
+                }
+            });
+        });
+    }
+
+    private static ContractChange change(ContractShape shape, String element, ContractChangeKind kind, String before,
+        String after, boolean providingCompatible, boolean consumingCompatible) {
+        return new ContractChange(shape.name(), shape.side(), element, kind, before, after,
+            shape.side() == ContractSide.CONSUMING ? consumingCompatible : providingCompatible);
+    }
+
+    private static boolean isIgnoredWhenUnexpected(ParameterShape parameter) {
+        return parameter.binding() == ParameterBinding.QUERY || parameter.binding() == ParameterBinding.NONE;
+    }
+
+    // A microservice may provide and consume the same contract, each side is compared with its own baseline
+    private static String getShapeKey(ContractShape shape) {
+        return shape.side() + " " + shape.name();
+    }
+
+    // Method name when it is unique in the version, signature for overloads
+    private Map<String, EndpointShape> indexEndpoints(List<EndpointShape> endpoints) {
+        var nameCounts = endpoints.stream().collect(groupingBy(EndpointShape::name, counting()));
+        return index(endpoints, endpoint -> nameCounts.get(endpoint.name()) == 1 ? endpoint.name() : endpoint.signature());
+    }
+
+    private static <T> Map<String, T> index(List<T> entries, Function<T, String> key) {
+        Map<String, T> index = new LinkedHashMap<>();
+        entries.forEach(entry -> index.put(key.apply(entry), entry));
+        return index;
+    }
+
+    private String describe(EndpointShape endpoint) {
+        return describeMapping(endpoint) + " " + endpoint.paths();
+    }
+
+    private String describeMapping(EndpointShape endpoint) {
+        var httpMethods = endpoint.httpMethods().isEmpty() ? "ANY" : String.join(",", endpoint.httpMethods());
+        return endpoint.conditions().isEmpty() ? httpMethods : httpMethods + " " + endpoint.conditions();
+    }
+
+    private String describe(ParameterShape parameter) {
+        var binding = parameter.bindingName() == null ? parameter.binding().name()
+            : parameter.binding() + "(" + parameter.bindingName() + ")";
+        return "%s %s%s".formatted(binding, parameter.required() ? "required " : "", parameter.type());
+    }
+}
@@ -0,0 +1,267 @@
+package letunov.impl;
+
+import letunov.impl.data.ContractFingerprint;
+import letunov.impl.data.MethodFingerprint;
+import letunov.impl.data.ParameterFingerprint;
+import letunov.impl.data.TraversalPolicy;
+import letunov.impl.model.AnnotationDescriptor;
+import letunov.impl.model.ClassRef;
+import letunov.impl.model.ContractAnnotations;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.GenericArrayRef;
+import letunov.impl.model.MethodDescriptor;
+import letunov.impl.model.ParameterDescriptor;
+import letunov.impl.model.ParameterizedRef;
+import letunov.impl.model.TypeRef;
+import letunov.impl.model.WildcardRef;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes structural contract fingerprints: a digest per contract, per method, per parameter and return type, and
+ * per DTO class. Digests are SHA-256 of a canonical length-prefixed encoding, and every node hashes the digests of its
+ * children, so two fingerprints can be compared top-down and equal subtrees skipped. The digest of a type covers the
+ * shallow digests of every type reachable from it through getter fields, the same fields
+ * {@link ChecksumContext} takes into account, so a change in a nested DTO changes the digests of exactly the methods
+ * that use it.
+ * <p>
+ * Types the {@link TraversalPolicy} does not walk into are encoded by their name only. The builder is thread-safe and
+ * memoizes shallow and type digests, so shared DTOs are encoded once per scan.
+ * Fingerprints complement the legacy checksum, they do not replace it.
+ */
+public class ContractFingerprintBuilder {
+    private final ContractModelBuilder modelBuilder;
+    private final TraversalPolicy traversalPolicy;
+    private final Map<String, String> shallowTypeDigests = new ConcurrentHashMap<>();
+    private final Map<String, String> opaqueTypeDigests = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> referencedTypes = new ConcurrentHashMap<>();
+    private final Map<TypeRef, String> typeDigests = new ConcurrentHashMap<>();
+
+    public ContractFingerprintBuilder(ContractModelBuilder modelBuilder) {
+        this(modelBuilder, TraversalPolicy.LEGACY);
+    }
+
+    public ContractFingerprintBuilder(ContractModelBuilder modelBuilder, TraversalPolicy traversalPolicy) {
+        this.modelBuilder = modelBuilder;
+        this.traversalPolicy = traversalPolicy;
+    }
+
+    public ContractFingerprint getContractFingerprint(String contractName) {
+        return getContractFingerprint(modelBuilder.getContractDescriptor(contractName));
+    }
+
+    public ContractFingerprint getContractFingerprint(ContractDescriptor contract) {
+        var methods = contract.methods().stream()
+            .map(this::getMethodFingerprint)
+            .sorted(Comparator.comparing(MethodFingerprint::signature))
+            .toList();
+
+        var encoder = new Encoder("contract").write(contract.name()).write(methods.size());
+        for (var method : methods) {
+            encoder.write(method.signature()).write(method.digest());
+        }
+
+        // A type walked into anywhere in the contract is listed with its fields
+        Map<String, Boolean> walkedTypes = new TreeMap<>();
+        for (var method : contract.methods()) {
+            getReachableTypes(method.genericReturnType()).forEach((type, walked) -> walkedTypes.merge(type, walked, Boolean::logicalOr));
+            for (var parameter : method.parameters()) {
+                getReachableTypes(parameter.genericType()).forEach((type, walked) -> walkedTypes.merge(type, walked, Boolean::logicalOr));
+            }
+        }
+        Map<String, String> types = new TreeMap<>();
+        walkedTypes.forEach((type, walked) -> types.put(type, getShallowTypeDigest(type, walked)));
+        return new ContractFingerprint(encoder.digest(), methods, Collections.unmodifiableMap(types));
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private MethodFingerprint getMethodFingerprint(MethodDescriptor method) {
+        var parameters = method.parameters().stream()
+            .map(this::getParameterFingerprint)
+            .toList();
+        var returnTypeDigest = getTypeDigest(method.genericReturnType());
+
+        var encoder = new Encoder("method")
+            .write(method.name())
+            .write(method.modifiers());
+        writeAnnotations(encoder, method.annotations());
+        encoder.write(returnTypeDigest).write(parameters.size());
+        for (var parameter : parameters) {
+            encoder.write(parameter.digest());
+        }
+        return new MethodFingerprint(getSignature(method), encoder.digest(), returnTypeDigest, parameters);
+    }
+
+    private ParameterFingerprint getParameterFingerprint(ParameterDescriptor parameter) {
+        var encoder = new Encoder("parameter").write(parameter.name());
+        writeAnnotations(encoder, parameter.annotations());
+        encoder.write(getTypeDigest(parameter.genericType()));
+        return new ParameterFingerprint(parameter.name(), encoder.digest());
+    }
+
+    // Overloads are told apart by their erased parameter types, like in the JVM
+    static String getSignature(MethodDescriptor method) {
+        var parameterTypes = method.parameters().stream()
+            .map(parameter -> parameter.type().name())
+            .toList();
+        return method.name() + "(" + String.join(",", parameterTypes) + ")";
+    }
+
+    private void writeAnnotations(Encoder encoder, List<AnnotationDescriptor> annotations) {
+        var contractAnnotations = annotations.stream()
+            .filter(annotation -> ContractAnnotations.ALL.contains(annotation.type()))
+            .sorted(Comparator.comparing(AnnotationDescriptor::type))
+            .toList();
+        encoder.write(contractAnnotations.size());
+        for (var annotation : contractAnnotations) {
+            encoder.write(annotation.type()).write(annotation.values().size());
+            new TreeMap<>(annotation.values()).forEach((element, value) -> {
+                encoder.write(element);
+                if (value instanceof List<?> values) {
+                    encoder.write(values.size());
+                    values.forEach(item -> encoder.write(String.valueOf(item)));
+                } else {
+                    encoder.write(String.valueOf(value));
+                }
+            });
+        }
+    }
+
+    // The declared type and the shallow digests of all types reachable from it, in name order
+    private String getTypeDigest(TypeRef type) {
+        var cached = typeDigests.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        var reachableTypes = getReachableTypes(type);
+        var encoder = new Encoder("type").write(type.getTypeName()).write(reachableTypes.size());
+        reachableTypes.forEach((reachableType, walked) ->
+            encoder.write(reachableType).write(getShallowTypeDigest(reachableType, walked)));
+        var digest = encoder.digest();
+        typeDigests.put(type, digest);
+        return digest;
+    }
+
+    // A closure over names rather than a recursive digest, so cyclic DTOs need no special handling. Types are visited
+    // breadth-first, so each one is seen first at its lowest depth, and mapped to whether it is walked into.
+    private SortedMap<String, Boolean> getReachableTypes(TypeRef type) {
+        SortedMap<String, Boolean> reachableTypes = new TreeMap<>();
+        var level = new ArrayDeque<String>();
+        collectTypeNames(type, level);
+        for (int depth = 0; !level.isEmpty(); depth++) {
+            var nextLevel = new ArrayDeque<String>();
+            for (var typeName : level) {
+                if (reachableTypes.containsKey(typeName)) {
+                    continue;
+                }
+                var walked = ChecksumContext.isTraversable(traversalPolicy, typeName, depth);
+                reachableTypes.put(typeName, walked);
+                if (walked) {
+                    nextLevel.addAll(getReferencedTypes(typeName));
+                }
+            }
+            level = nextLevel;
+        }
+        return reachableTypes;
+    }
+
+    private Set<String> getReferencedTypes(String typeName) {
+        return referencedTypes.computeIfAbsent(typeName, name -> {
+            var names = new ArrayDeque<String>();
+            for (var field : modelBuilder.getDeclaredFields(name)) {
+                if (ChecksumContext.hasGetter(modelBuilder, name, field)) {
+                    collectTypeNames(field.genericType(), names);
+                }
+            }
+            return Set.copyOf(names);
+        });
+    }
+
+    // Name of the type and getter fields with their declared types, in name order. Fields of types not walked into are
+    // never read.
+    private String getShallowTypeDigest(String typeName, boolean walked) {
+        if (!walked) {
+            return opaqueTypeDigests.computeIfAbsent(typeName, name -> new Encoder("class").write(name).write(0).digest());
+        }
+        return shallowTypeDigests.computeIfAbsent(typeName, name -> {
+            List<String[]> fields = new ArrayList<>();
+            for (var field : modelBuilder.getDeclaredFields(name)) {
+                if (ChecksumContext.hasGetter(modelBuilder, name, field)) {
+                    fields.add(new String[] {field.name(), field.genericType().getTypeName()});
+                }
+            }
+            fields.sort(Comparator.comparing(field -> field[0]));
+            var encoder = new Encoder("class").write(name).write(fields.size());
+            for (var field : fields) {
+                encoder.write(field[0]).write(field[1]);
+            }
+            return encoder.digest();
+        });
+    }
+
+    static void collectTypeNames(TypeRef type, Collection<String> names) {
+        if (type instanceof ClassRef classRef) {
+            var name = classRef.name();
+            while (name.endsWith("[]")) {
+                name = name.substring(0, name.length() - 2);
+            }
+            names.add(name);
+        } else if (type instanceof ParameterizedRef parameterizedType) {
+            collectTypeNames(new ClassRef(parameterizedType.rawName()), names);
+            parameterizedType.arguments().forEach(argument -> collectTypeNames(argument, names));
+        } else if (type instanceof WildcardRef wildcardType) {
+            if (wildcardType.upperBound() != null) {
+                collectTypeNames(wildcardType.upperBound(), names);
+            }
+            if (wildcardType.lowerBound() != null) {
+                collectTypeNames(wildcardType.lowerBound(), names);
+            }
+        } else if (type instanceof GenericArrayRef genericArrayType) {
+            collectTypeNames(genericArrayType.componentType(), names);
+        }
+    }
+
+    // Canonical encoding: a node kind followed by length-prefixed UTF-8 strings and fixed-width integers
+    private static class Encoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+
+        private Encoder(String kind) {
+            write(kind);
+        }
+
+        private Encoder write(String value) {
+            var utf8 = value.getBytes(StandardCharsets.UTF_8);
+            write(utf8.length);
+            bytes.writeBytes(utf8);
+            return this;
+        }
+
+        private Encoder write(int value) {
+            bytes.write(value >>> 24);
+            bytes.write(value >>> 16);
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        private String digest() {
+            return ChecksumUtil.getBytesChecksum(bytes.toByteArray());
+        }
+    }
+}
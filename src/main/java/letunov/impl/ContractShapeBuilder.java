@@ -0,0 +1,203 @@
+package letunov.impl;
+
+import letunov.impl.data.ContractShape;
+import letunov.impl.data.ContractSide;
+import letunov.impl.data.EndpointShape;
+import letunov.impl.data.ParameterBinding;
+import letunov.impl.data.ParameterShape;
+import letunov.impl.data.TraversalPolicy;
+import letunov.impl.model.AnnotationDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.MethodDescriptor;
+import letunov.impl.model.ParameterDescriptor;
+import letunov.impl.model.TypeRef;
+import org.springframework.web.bind.annotation.ValueConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static letunov.impl.model.ContractAnnotations.DELETE_MAPPING;
+import static letunov.impl.model.ContractAnnotations.GET_MAPPING;
+import static letunov.impl.model.ContractAnnotations.PATCH_MAPPING;
+import static letunov.impl.model.ContractAnnotations.PATH_VARIABLE;
+import static letunov.impl.model.ContractAnnotations.POST_MAPPING;
+import static letunov.impl.model.ContractAnnotations.PUT_MAPPING;
+import static letunov.impl.model.ContractAnnotations.REQUEST_BODY;
+import static letunov.impl.model.ContractAnnotations.REQUEST_MAPPING;
+import static letunov.impl.model.ContractAnnotations.REQUEST_PARAM;
+import static letunov.impl.model.ContractAnnotations.getSimpleName;
+
+/**
+ * Builds the readable shape of a contract, the baseline {@link ContractDiffEngine} compares contracts with: the mapping
+ * and parameter bindings of every endpoint, and the fields of every DTO walked into. A field is part of the payload
+ * when it has a JavaBean getter, as Jackson serializes it, which is wider than the legacy getter rule of
+ * {@link ChecksumContext}, so the diff also sees the fields the checksums miss. Unlike checksums and fingerprints,
+ * shapes keep names and values, so a change can be told apart from another. The builder is thread-safe and reads the
+ * fields of a DTO once per scan.
+ */
+public class ContractShapeBuilder {
+    private static final List<String> MAPPING_CONDITIONS = List.of("params", "headers", "consumes", "produces");
+
+    private final ContractModelBuilder modelBuilder;
+    private final TraversalPolicy traversalPolicy;
+    private final Map<String, TypeFields> typeFields = new ConcurrentHashMap<>();
+
+    public ContractShapeBuilder(ContractModelBuilder modelBuilder, TraversalPolicy traversalPolicy) {
+        this.modelBuilder = modelBuilder;
+        this.traversalPolicy = traversalPolicy;
+    }
+
+    public ContractShape getContractShape(String contractName, ContractSide side) {
+        var contract = modelBuilder.getContractDescriptor(contractName);
+        var endpoints = contract.methods().stream()
+            .map(this::getEndpointShape)
+            .sorted(Comparator.comparing(EndpointShape::signature))
+            .toList();
+        List<TypeRef> declaredTypes = new ArrayList<>();
+        for (var method : contract.methods()) {
+            declaredTypes.add(method.genericReturnType());
+            method.parameters().forEach(parameter -> declaredTypes.add(parameter.genericType()));
+        }
+        return new ContractShape(contract.name(), side, endpoints, getWalkedTypes(declaredTypes));
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private EndpointShape getEndpointShape(MethodDescriptor method) {
+        List<String> httpMethods = List.of();
+        List<String> paths = List.of();
+        Map<String, List<String>> conditions = new TreeMap<>();
+        for (var annotation : method.annotations()) {
+            var annotationHttpMethods = getHttpMethods(annotation);
+            if (annotationHttpMethods == null) {
+                continue;
+            }
+            httpMethods = annotationHttpMethods;
+            paths = sorted(annotation.getStrings("value"), annotation.getStrings("path"));
+            for (var condition : MAPPING_CONDITIONS) {
+                var values = sorted(annotation.getStrings(condition));
+                if (!values.isEmpty()) {
+                    conditions.put(condition, values);
+                }
+            }
+        }
+        var parameters = method.parameters().stream()
+            .map(this::getParameterShape)
+            .toList();
+        return new EndpointShape(ContractFingerprintBuilder.getSignature(method), method.name(), httpMethods, paths,
+            Collections.unmodifiableMap(conditions), method.genericReturnType().getTypeName(), parameters);
+    }
+
+    // Null for annotations other than mappings, empty for a @RequestMapping matching any method
+    private List<String> getHttpMethods(AnnotationDescriptor annotation) {
+        return switch (annotation.type()) {
+            case REQUEST_MAPPING -> sorted(annotation.getStrings("method"));
+            case GET_MAPPING, POST_MAPPING, DELETE_MAPPING, PUT_MAPPING, PATCH_MAPPING ->
+                List.of(getSimpleName(annotation.type()).replace("Mapping", "").toUpperCase());
+            default -> null;
+        };
+    }
+
+    // A request parameter with a default value is optional whatever its required flag says, as in Spring
+    private ParameterShape getParameterShape(ParameterDescriptor parameter) {
+        for (var annotation : parameter.annotations()) {
+            switch (annotation.type()) {
+                case REQUEST_BODY -> {
+                    return new ParameterShape(parameter.name(), ParameterBinding.BODY, null, annotation.getBoolean("required"),
+                        parameter.genericType().getTypeName());
+                }
+                case PATH_VARIABLE -> {
+                    return new ParameterShape(parameter.name(), ParameterBinding.PATH, getBindingName(annotation, parameter),
+                        annotation.getBoolean("required"), parameter.genericType().getTypeName());
+                }
+                case REQUEST_PARAM -> {
+                    var required = annotation.getBoolean("required")
+                        && ValueConstants.DEFAULT_NONE.equals(annotation.getString("defaultValue"));
+                    return new ParameterShape(parameter.name(), ParameterBinding.QUERY, getBindingName(annotation, parameter),
+                        required, parameter.genericType().getTypeName());
+                }
+                default -> { }
+            }
+        }
+        return new ParameterShape(parameter.name(), ParameterBinding.NONE, null, false, parameter.genericType().getTypeName());
+    }
+
+    // "value" and "name" are aliases, without either the parameter name is bound
+    private String getBindingName(AnnotationDescriptor annotation, ParameterDescriptor parameter) {
+        if (!annotation.getString("value").isEmpty()) {
+            return annotation.getString("value");
+        }
+        if (!annotation.getString("name").isEmpty()) {
+            return annotation.getString("name");
+        }
+        return parameter.name();
+    }
+
+    // Types are visited breadth-first, so each one is seen first at its lowest depth, as in ContractFingerprintBuilder
+    private Map<String, Map<String, String>> getWalkedTypes(List<TypeRef> declaredTypes) {
+        Map<String, Map<String, String>> walkedTypes = new TreeMap<>();
+        var visited = new TreeSet<String>();
+        List<String> level = new ArrayList<>();
+        for (var type : declaredTypes) {
+            ContractFingerprintBuilder.collectTypeNames(type, level);
+        }
+        for (int depth = 0; !level.isEmpty(); depth++) {
+            List<String> nextLevel = new ArrayList<>();
+            for (var typeName : level) {
+                if (!visited.add(typeName) || !ChecksumContext.isTraversable(traversalPolicy, typeName, depth)) {
+                    continue;
+                }
+                var fields = getTypeFields(typeName);
+                walkedTypes.put(typeName, fields.fields());
+                nextLevel.addAll(fields.referencedTypes());
+            }
+            level = nextLevel;
+        }
+        return Collections.unmodifiableMap(walkedTypes);
+    }
+
+    private record TypeFields(Map<String, String> fields, List<String> referencedTypes) { }
+
+    private TypeFields getTypeFields(String typeName) {
+        return typeFields.computeIfAbsent(typeName, name -> {
+            Map<String, String> fields = new TreeMap<>();
+            List<String> referencedTypes = new ArrayList<>();
+            var publicMethodNames = modelBuilder.getPublicMethodNames(name);
+            for (var field : modelBuilder.getDeclaredFields(name)) {
+                if (hasBeanGetter(publicMethodNames, field.name())) {
+                    fields.put(field.name(), field.genericType().getTypeName());
+                    ContractFingerprintBuilder.collectTypeNames(field.genericType(), referencedTypes);
+                }
+            }
+            return new TypeFields(Collections.unmodifiableMap(fields), List.copyOf(referencedTypes));
+        });
+    }
+
+    private static boolean hasBeanGetter(Set<String> publicMethodNames, String fieldName) {
+        if (fieldName.isEmpty()) {
+            return false;
+        }
+        var property = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        return publicMethodNames.contains("get" + property) || publicMethodNames.contains("is" + property);
+    }
+
+    @SafeVarargs
+    private static List<String> sorted(List<String>... values) {
+        var sorted = new TreeSet<String>();
+        for (var value : values) {
+            if (value != null) {
+                sorted.addAll(value);
+            }
+        }
+        return List.copyOf(sorted);
+    }
+}
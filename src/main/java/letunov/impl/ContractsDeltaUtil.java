@@ -0,0 +1,106 @@
+package letunov.impl;
+
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.ContractsDelta;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Comparator.comparing;
+
+public class ContractsDeltaUtil {
+    private static final Comparator<ProvidingContractInfo> PROVIDING_ORDER = comparing(ProvidingContractInfo::name);
+    private static final Comparator<ConsumingContractInfo> CONSUMING_ORDER = comparing(ConsumingContractInfo::serviceName)
+        .thenComparing(ConsumingContractInfo::name);
+
+    /**
+     * Hash of the contracts independent of their order, the server computes the same value for the acknowledged state.
+     * Only the name, the dependency and the checksum of a contract are hashed, in the canonical form
+     * <pre>
+     * microserviceName
+     * P name groupId:artifactId:version checksum   (for each providing contract, sorted by name)
+     * C serviceName name groupId:artifactId:version checksum   (for each consuming contract, sorted by service and name)
+     * </pre>
+     * with the fields separated by a tab, each line ended by a line feed, an absent dependency written as an empty field
+     * and the text encoded in UTF-8. Fingerprints and anything else added to the records later do not change the version.
+     */
+    public static String getVersion(MicroserviceContractsInfo contractsInfo) {
+        var canonical = new StringBuilder(contractsInfo.microserviceName()).append('\n');
+        contractsInfo.providing().stream().sorted(PROVIDING_ORDER)
+            .forEach(contract -> canonical.append("P\t").append(toCanonical(contract)).append('\n'));
+        contractsInfo.consuming().stream().sorted(CONSUMING_ORDER)
+            .forEach(contract -> canonical.append("C\t").append(toCanonical(contract)).append('\n'));
+        return ChecksumUtil.getBytesChecksum(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContractsDelta getDelta(MicroserviceContractsInfo base, MicroserviceContractsInfo current) {
+        var providing = new EntriesDelta<>(base.providing(), current.providing(), ProvidingContractInfo::name,
+            ContractsDeltaUtil::toCanonical, PROVIDING_ORDER);
+        var consuming = new EntriesDelta<>(base.consuming(), current.consuming(),
+            contract -> contract.serviceName() + "/" + contract.name(), ContractsDeltaUtil::toCanonical, CONSUMING_ORDER);
+        return new ContractsDelta(current.microserviceName(), getVersion(base), getVersion(current),
+            providing.added, providing.changed, providing.removed,
+            consuming.added, consuming.changed, consuming.removed);
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private static String toCanonical(ProvidingContractInfo contract) {
+        return contract.name() + "\t" + toCanonical(contract.dependency()) + "\t" + contract.checksum();
+    }
+
+    private static String toCanonical(ConsumingContractInfo contract) {
+        return contract.serviceName() + "\t" + contract.name() + "\t" + toCanonical(contract.dependency()) + "\t"
+            + contract.checksum();
+    }
+
+    private static String toCanonical(DependencyInfo dependency) {
+        return dependency == null ? ""
+            : dependency.groupId() + ":" + dependency.artifactId() + ":" + dependency.version();
+    }
+
+    // An entry counts as changed when its canonical form does, the same fields the version is computed from
+    private static class EntriesDelta<T> {
+        private final List<T> added = new ArrayList<>();
+        private final List<T> changed = new ArrayList<>();
+        private final List<T> removed = new ArrayList<>();
+
+        private EntriesDelta(List<T> base, List<T> current, Function<T, String> key, Function<T, String> canonical,
+                             Comparator<T> order) {
+            var baseEntries = index(base, key);
+            var currentEntries = index(current, key);
+            currentEntries.forEach((entryKey, entry) -> {
+                var baseEntry = baseEntries.get(entryKey);
+                if (baseEntry == null) {
+                    added.add(entry);
+                } else if (!canonical.apply(baseEntry).equals(canonical.apply(entry))) {
+                    changed.add(entry);
+                }
+            });
+            baseEntries.forEach((entryKey, entry) -> {
+                if (!currentEntries.containsKey(entryKey)) {
+                    removed.add(entry);
+                }
+            });
+            added.sort(order);
+            changed.sort(order);
+            removed.sort(order);
+        }
+
+        private Map<String, T> index(List<T> entries, Function<T, String> key) {
+            Map<String, T> index = new LinkedHashMap<>();
+            entries.forEach(entry -> index.put(key.apply(entry), entry));
+            return index;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package letunov.impl;
+
+import letunov.impl.data.DependencyInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maps class names to the dependency that contains them. The index is built in one pass over the dependencies in
+ * their declared order, reading only the entry names of the jar central directories, so no class is loaded. Entry
+ * names are shared between the modules of a reactor build through {@link JarClassNamesCache}. When a class is present
+ * in several dependencies, the first declared one owns it, like on the project classpath, and the conflict is reported.
+ */
+@Slf4j
+public class DependencyClassIndex {
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String VERSIONED_PREFIX = "META-INF/versions/";
+
+    private final Map<String, DependencyInfo> owners = new HashMap<>();
+    private final Map<String, List<DependencyInfo>> conflicts = new LinkedHashMap<>();
+    private int indexedJarsCount;
+
+    public DependencyClassIndex(Map<DependencyInfo, Path> dependencies) {
+        dependencies.forEach(this::index);
+        reportConflicts();
+    }
+
+    public Optional<DependencyInfo> getDependencyInfo(String className) {
+        return Optional.ofNullable(owners.get(className));
+    }
+
+    // Classes present in several dependencies, with all of them in the declared order
+    public Map<String, List<DependencyInfo>> getConflicts() {
+        return Collections.unmodifiableMap(conflicts);
+    }
+
+    public int getIndexedJarsCount() {
+        return indexedJarsCount;
+    }
+
+    public int getIndexedClassesCount() {
+        return owners.size();
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void index(DependencyInfo dependency, Path path) {
+        if (!Files.exists(path)) {
+            log.warn("[DependencyClassIndex] The file {} of the dependency {} does not exist", path, dependency);
+            return;
+        }
+        log.debug("[DependencyClassIndex] Indexing {}", path);
+        try {
+            if (Files.isDirectory(path)) {
+                indexDirectory(dependency, path);
+            } else {
+                indexJar(dependency, path);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("[DependencyClassIndex] Unable to index {} of the dependency {}", path, dependency, e);
+        }
+    }
+
+    private void indexJar(DependencyInfo dependency, Path path) throws IOException {
+        indexedJarsCount++;
+        for (var entryName : JarClassNamesCache.getClassEntryNames(path)) {
+            addEntry(dependency, entryName);
+        }
+    }
+
+    private void indexDirectory(DependencyInfo dependency, Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.filter(Files::isRegularFile)
+                .map(file -> directory.relativize(file).toString().replace('\\', '/'))
+                .forEach(entryName -> addEntry(dependency, entryName));
+        }
+    }
+
+    // Conflicts are grouped by the dependencies involved, a shaded jar would otherwise produce a line per class
+    private void reportConflicts() {
+        Map<List<DependencyInfo>, List<String>> classesByDependencies = new LinkedHashMap<>();
+        conflicts.forEach((className, dependencies) ->
+            classesByDependencies.computeIfAbsent(dependencies, key -> new ArrayList<>()).add(className));
+        classesByDependencies.forEach((dependencies, classNames) ->
+            log.warn("[DependencyClassIndex] {} classes are present in each of {}, the first one is used. For example {}",
+                classNames.size(), dependencies, classNames.get(0)));
+    }
+
+    private void addEntry(DependencyInfo dependency, String entryName) {
+        if (!entryName.endsWith(CLASS_SUFFIX)) {
+            return;
+        }
+        if (entryName.startsWith(VERSIONED_PREFIX)) {
+            var separatorIndex = entryName.indexOf('/', VERSIONED_PREFIX.length());
+            if (separatorIndex < 0) {
+                return;
+            }
+            entryName = entryName.substring(separatorIndex + 1);
+        }
+        var className = entryName.substring(0, entryName.length() - CLASS_SUFFIX.length()).replace('/', '.');
+        if (className.endsWith("module-info") || className.endsWith("package-info")) {
+            return;
+        }
+
+        var owner = owners.putIfAbsent(className, dependency);
+        if (owner != null && !owner.equals(dependency)) {
+            var dependencies = conflicts.computeIfAbsent(className, name -> new ArrayList<>(List.of(owner)));
+            if (!dependencies.contains(dependency)) {
+                dependencies.add(dependency);
+            }
+        }
+    }
+}
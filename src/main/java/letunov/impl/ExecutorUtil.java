@@ -0,0 +1,44 @@
+package letunov.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+public class ExecutorUtil {
+    // Executors.newVirtualThreadPerTaskExecutor, null before Java 21 as the plugin is built for Java 17
+    private static final MethodHandle VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+    // Stages mostly wait for one another, so they run on virtual threads where available and on cached threads otherwise
+    public static ExecutorService newStageExecutor() {
+        if (VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invokeExact();
+            } catch (Throwable e) {
+                log.debug("[ExecutorUtil] Unable to create a virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    public static boolean isVirtualThreadsAvailable() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private static MethodHandle findVirtualThreadExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package letunov.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+/**
+ * JVM-scoped cache of the class entry names of dependency jars. A reactor build runs the goals of every module in the
+ * same JVM, and modules mostly share their dependencies, so each jar is opened once per build rather than once per
+ * module, and a daemon JVM running many builds reuses them across builds. An entry is reused only while the size and
+ * the modification time of the jar are unchanged. The cache is bounded by the total number of class names it holds.
+ */
+@Slf4j
+public class JarClassNamesCache {
+    public static final long DEFAULT_MAX_CLASSES = 2_000_000;
+
+    private static final LruCache<Path, CachedJar> jars = new LruCache<>(DEFAULT_MAX_CLASSES,
+        jar -> jar.classEntryNames().size());
+
+    private JarClassNamesCache() { }
+
+    public static List<String> getClassEntryNames(Path jar) throws IOException {
+        var path = jar.toAbsolutePath().normalize();
+        var size = Files.size(path);
+        var lastModified = Files.getLastModifiedTime(path).toMillis();
+        var cached = jars.get(path);
+        if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+            log.debug("[JarClassNamesCache] Entries of {} are taken from the cache", path);
+            return cached.classEntryNames();
+        }
+
+        var classEntryNames = readClassEntryNames(path);
+        jars.put(path, new CachedJar(size, lastModified, classEntryNames));
+        return classEntryNames;
+    }
+
+    public static void clear() {
+        jars.clear();
+    }
+
+    public static void setMaxClasses(long maxClasses) {
+        jars.setMaxWeight(maxClasses);
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private record CachedJar(long size, long lastModified, List<String> classEntryNames) { }
+
+    private static List<String> readClassEntryNames(Path jar) throws IOException {
+        List<String> classEntryNames = new ArrayList<>();
+        try (var zipFile = new ZipFile(jar.toFile())) {
+            var entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                var name = entries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    classEntryNames.add(name);
+                }
+            }
+        }
+        return List.copyOf(classEntryNames);
+    }
+}
@@ -0,0 +1,79 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Sink;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serializes the value straight to the connection instead of building the whole JSON document in memory first.
+ * The body is written from the value on every call, so a retried request sends it again. Bytes handed to the
+ * connection, compressed ones when gzip is on, are counted over all calls.
+ */
+public class JsonRequestBody extends RequestBody {
+    private static final MediaType APPLICATION_JSON = MediaType.parse("application/json");
+
+    private final ObjectMapper objectMapper;
+    private final Object value;
+    private final boolean gzip;
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    // The object mapper must not close the target, the sink is owned by OkHttp
+    public JsonRequestBody(ObjectMapper objectMapper, Object value, boolean gzip) {
+        this.objectMapper = objectMapper;
+        this.value = value;
+        this.gzip = gzip;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return APPLICATION_JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        var countingSink = new CountingSink(sink);
+        if (!gzip) {
+            var bufferedSink = Okio.buffer(countingSink);
+            objectMapper.writeValue(bufferedSink.outputStream(), value);
+            bufferedSink.flush();
+            return;
+        }
+        try (var gzipSink = Okio.buffer(new GzipSink(countingSink))) {
+            objectMapper.writeValue(gzipSink.outputStream(), value);
+        }
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private class CountingSink extends ForwardingSink {
+        private CountingSink(Sink delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            bytesWritten.addAndGet(byteCount);
+        }
+    }
+}
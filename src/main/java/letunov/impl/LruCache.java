@@ -0,0 +1,90 @@
+package letunov.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Thread-safe cache bounded by the total weight of its values, evicting the least recently used entries first. The
+ * weight of a value estimates its memory, for instance the number of class names it holds, so caches living as long
+ * as the JVM stay bounded under a daemon running many builds.
+ */
+public class LruCache<K, V> {
+    private final Map<K, Weighted<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ToIntFunction<V> weigher;
+    private long maxWeight;
+    private long weight;
+
+    public LruCache(long maxWeight, ToIntFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        var entry = entries.get(key);
+        return entry == null ? null : entry.value();
+    }
+
+    // A value heavier than the whole cache is not kept
+    public synchronized void put(K key, V value) {
+        var valueWeight = Math.max(1, weigher.applyAsInt(value));
+        remove(key);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        entries.put(key, new Weighted<>(value, valueWeight));
+        weight += valueWeight;
+        evict();
+    }
+
+    public synchronized void remove(K key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    public synchronized void removeIf(BiPredicate<K, V> predicate) {
+        var iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                weight -= entry.getValue().weight();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private record Weighted<V>(V value, int weight) { }
+
+    private void evict() {
+        var iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().weight();
+            iterator.remove();
+        }
+    }
+}
@@ -3,124 +3,186 @@ package letunov.impl;
 import letunov.contract.Contract;
 import letunov.contract.ContractConsumer;
 import letunov.contract.ContractProvider;
+import letunov.exception.ClassFileNotFoundException;
 import letunov.exception.ContractNotFoundException;
 import letunov.exception.DependencyNotFoundException;
 import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.ContractFingerprint;
 import letunov.impl.data.DependencyInfo;
+import letunov.impl.classfile.ClassFile;
+import letunov.impl.classfile.ClassFileParser;
 import letunov.impl.data.ProvidingContractInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.reflections.Reflections;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
-import static java.util.Arrays.stream;
-import static java.util.stream.Collectors.toSet;
+import static java.util.Comparator.comparing;
 import static org.reflections.scanners.Scanners.TypesAnnotated;
 
+/**
+ * Finds the contracts of the project without loading its classes. Providers and consumers are taken by name from the
+ * Reflections index, and the interfaces they implement, as well as the {@link Contract} super interface of those, are
+ * read from the interface table of their class files. Every candidate is resolved in its own task, and the checksum of
+ * a contract starts as soon as the first candidate implementing it is resolved, so checksums overlap with the scan and
+ * no set of loaded candidate classes is kept. The dependency index may still be in progress, contract tasks only wait
+ * for it once their checksum is computed.
+ */
 @RequiredArgsConstructor
 @Slf4j
 public class MicroserviceContractsScanner {
+    private static final String CONTRACT_CONSUMER_DESCRIPTOR = "L" + ContractConsumer.class.getTypeName().replace('.', '/') + ";";
+
     private final Reflections reflections;
     private final ClassLoader projectClassLoader;
-    private final Map<DependencyInfo, ClassLoader> dependencies;
+    private final CompletableFuture<DependencyClassIndex> dependencyClassIndex;
+    private final ContractChecksumCache contractChecksumCache;
+    // Null unless structural fingerprints are requested
+    private final ContractFingerprintBuilder contractFingerprintBuilder;
+    private final Executor executor;
+    // Whether an interface extends Contract, interfaces are shared by many candidates
+    private final Map<String, Boolean> contractInterfaces = new ConcurrentHashMap<>();
+
+    public MicroserviceContractsScanner(Reflections reflections, ClassLoader projectClassLoader,
+        DependencyClassIndex dependencyClassIndex, ContractChecksumCache contractChecksumCache,
+        ContractFingerprintBuilder contractFingerprintBuilder, Executor executor) {
+        this(reflections, projectClassLoader, CompletableFuture.completedFuture(dependencyClassIndex), contractChecksumCache,
+            contractFingerprintBuilder, executor);
+    }
 
     public List<ProvidingContractInfo> getProvidingContractsInfo() {
-        var contracts = getProvidingContracts();
-        log.info("[MicroserviceProvidingContractsScanner] Providing contracts found: {}", contracts);
+        var controllers = reflections.get(TypesAnnotated.with(ContractProvider.class.getTypeName()));
+        log.info("[MicroserviceProvidingContractsScanner] Controllers providing contracts found: {}", controllers);
 
-        return contracts.stream()
-            .map(contract -> new ProvidingContractInfo(contract.getTypeName(),
-                getDependencyInfoOfContract(contract),
-                ChecksumUtil.getContractChecksum(contract)))
-                .toList();
+        return scanCandidates(controllers,
+            controller -> getContractInterfaces(readClassFile(controller)),
+            Comparator.<String>naturalOrder(),
+            contract -> {
+                var checksum = contractChecksumCache.getChecksum(contract);
+                var fingerprint = getContractFingerprint(contract);
+                return new ProvidingContractInfo(contract, getDependencyInfoOfContract(contract), checksum, fingerprint);
+            });
     }
 
     public List<ConsumingContractInfo> getConsumingContractsInfo() {
-        var contracts = getConsumingContracts();
-        log.info("[MicroserviceProvidingContractsScanner] Consuming contract interfaces found: {}", contracts);
-
-        return contracts.entrySet().stream()
-            .flatMap(entry -> entry.getValue().stream()
-                .map(contract -> new ConsumingContractInfo(contract.getTypeName(), entry.getKey(),
-                    getDependencyInfoOfContract(contract),
-                    ChecksumUtil.getContractChecksum(contract))))
-            .toList();
+        var consumers = reflections.get(TypesAnnotated.with(ContractConsumer.class.getTypeName()));
+        log.info("[MicroserviceProvidingContractsScanner] Consumers found: {}", consumers);
+
+        return scanCandidates(consumers,
+            this::getConsumedContracts,
+            comparing(ConsumedContract::serviceName).thenComparing(ConsumedContract::contractName),
+            consumed -> {
+                var checksum = contractChecksumCache.getChecksum(consumed.contractName());
+                var fingerprint = getContractFingerprint(consumed.contractName());
+                return new ConsumingContractInfo(consumed.contractName(), consumed.serviceName(),
+                    getDependencyInfoOfContract(consumed.contractName()), checksum, fingerprint);
+            });
     }
 
     //    =========================================================================
     //    Implementation
     //    =========================================================================
 
-    private Set<Class<?>> getProvidingContracts() {
-        var controllers = reflections.get(TypesAnnotated.with(ContractProvider.class.getTypeName()).asClass(projectClassLoader));
-        log.info("[MicroserviceProvidingContractsScanner] Controllers providing contracts found: {}", controllers);
-
-        Set<Class<?>> contracts = new HashSet<>();
-        controllers.forEach(controller -> {
-            var interfaces = controller.getInterfaces();
-            log.debug("[MicroserviceProvidingContractsScanner] Found interfaces implemented by {} controller: {}", controller.getTypeName(), interfaces);
+    private record ConsumedContract(String serviceName, String contractName) { }
 
-            var contractsOfController = stream(interfaces)
-                .filter(this::hasContractSuperInterface)
+    // Contract infos are computed once per contract however many candidates implement it, and returned in key order
+    private <K, R> List<R> scanCandidates(Set<String> candidates, Function<String, List<K>> contractsOfCandidate,
+        Comparator<K> order, Function<K, R> contractInfo) {
+        Map<K, CompletableFuture<R>> contracts = new ConcurrentHashMap<>();
+        var candidateFutures = candidates.stream()
+            .map(candidate -> CompletableFuture.runAsync(() -> contractsOfCandidate.apply(candidate).forEach(contract ->
+                contracts.computeIfAbsent(contract, key -> CompletableFuture.supplyAsync(() -> contractInfo.apply(key), executor))),
+                executor))
+            .toList();
+        try {
+            joinAll(candidateFutures);
+            var sortedContracts = contracts.keySet().stream()
+                .sorted(order)
                 .toList();
+            log.info("[MicroserviceProvidingContractsScanner] Contracts found: {}", sortedContracts);
+            return joinAll(sortedContracts.stream()
+                .map(contracts::get)
+                .toList());
+        } catch (RuntimeException e) {
+            contracts.values().forEach(future -> future.cancel(false));
+            throw e;
+        }
+    }
 
-            if (contractsOfController.isEmpty()) {
-                throw new ContractNotFoundException(controller);
+    private <T> List<T> joinAll(List<? extends CompletableFuture<T>> futures) {
+        try {
+            return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
+        }
+    }
 
-            contracts.addAll(contractsOfController);
-        });
-        return contracts;
+    private List<ConsumedContract> getConsumedContracts(String consumer) {
+        var classFile = readClassFile(consumer);
+        var serviceName = classFile.annotations().stream()
+            .filter(annotation -> annotation.descriptor().equals(CONTRACT_CONSUMER_DESCRIPTOR))
+            .map(annotation -> (String) annotation.values().get("serviceName"))
+            .findFirst()
+            .orElseThrow(() -> new ContractNotFoundException(consumer));
+        log.debug("[MicroserviceProvidingContractsScanner] The consumer {} consuming a contract provided by {}", consumer, serviceName);
+        return getContractInterfaces(classFile).stream()
+            .map(contract -> new ConsumedContract(serviceName, contract))
+            .toList();
     }
 
-    private Map<String, Set<Class<?>>> getConsumingContracts() {
-        var consumers = reflections.get(TypesAnnotated.with(ContractConsumer.class.getTypeName()).asClass(projectClassLoader));
-        log.info("[MicroserviceProvidingContractsScanner] Consumers found: {}", consumers);
+    private List<String> getContractInterfaces(ClassFile providerOrConsumer) {
+        log.debug("[MicroserviceProvidingContractsScanner] Found interfaces implemented by {}: {}", providerOrConsumer.name(),
+            providerOrConsumer.interfaces());
+        var contracts = providerOrConsumer.interfaces().stream()
+            .filter(this::hasContractSuperInterface)
+            .toList();
+        if (contracts.isEmpty()) {
+            throw new ContractNotFoundException(providerOrConsumer.name());
+        }
+        return contracts;
+    }
 
-        Map<String, Set<Class<?>>> contractsWithServiceNames = new HashMap<>();
-        consumers.forEach(consumer -> {
-            var serviceName = consumer.getAnnotation(ContractConsumer.class).serviceName();
-            log.debug("[MicroserviceProvidingContractsScanner] The consumer {} consuming a contract provided by {}", consumer.getTypeName(), serviceName);
-            var interfaces = consumer.getInterfaces();
-            log.debug("[MicroserviceProvidingContractsScanner] Found interfaces implemented by {} consumer: {}", consumer.getTypeName(), interfaces);
+    private boolean hasContractSuperInterface(String interfaceName) {
+        return contractInterfaces.computeIfAbsent(interfaceName, name -> findClassFile(name)
+            .map(classFile -> classFile.interfaces().contains(Contract.class.getTypeName()))
+            .orElse(false));
+    }
 
-            var contractsOfConsumer = stream(interfaces)
-                .filter(this::hasContractSuperInterface)
-                .collect(toSet());
+    private ClassFile readClassFile(String typeName) {
+        return findClassFile(typeName).orElseThrow(() -> new ClassFileNotFoundException(typeName));
+    }
 
-            if (contractsOfConsumer.isEmpty()) {
-                throw new ContractNotFoundException(consumer);
+    private Optional<ClassFile> findClassFile(String typeName) {
+        try (InputStream inputStream = projectClassLoader.getResourceAsStream(typeName.replace('.', '/') + ".class")) {
+            if (inputStream == null) {
+                return Optional.empty();
             }
-
-            contractsWithServiceNames.merge(serviceName, contractsOfConsumer, (v1, v2) -> {
-                v1.addAll(v2);
-                return v1;
-            });
-        });
-        return contractsWithServiceNames;
+            return Optional.of(ClassFileParser.parse(inputStream.readAllBytes()));
+        } catch (IOException e) {
+            throw new ClassFileNotFoundException(typeName, e);
+        }
     }
 
-    private DependencyInfo getDependencyInfoOfContract(Class<?> contractInterface) {
-        return dependencies.entrySet().stream()
-            .filter(entry -> {
-                try {
-                    entry.getValue().loadClass(contractInterface.getTypeName());
-                    return true;
-                } catch (ClassNotFoundException e) {
-                    return false;
-                }
-            })
-            .findFirst()
-            .map(Entry::getKey)
-            .orElseThrow(() -> new DependencyNotFoundException(contractInterface));
+    private ContractFingerprint getContractFingerprint(String contractName) {
+        return contractFingerprintBuilder == null ? null : contractFingerprintBuilder.getContractFingerprint(contractName);
     }
 
-    private boolean hasContractSuperInterface(Class<?> _interface) {
-
-        return stream(_interface.getInterfaces())
-            .anyMatch(superInterface ->
-                superInterface.getTypeName().equals(Contract.class.getTypeName()));
+    private DependencyInfo getDependencyInfoOfContract(String contractName) {
+        return dependencyClassIndex.join().getDependencyInfo(contractName)
+            .orElseThrow(() -> new DependencyNotFoundException(contractName));
     }
 }
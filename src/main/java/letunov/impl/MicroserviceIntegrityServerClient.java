@@ -1,74 +1,192 @@
 package letunov.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import letunov.exception.ContractSnapshotMismatchException;
 import letunov.exception.UnableToMakeRequestException;
+import letunov.impl.data.ContractsDelta;
 import letunov.impl.data.MicroserviceContractsInfo;
-import letunov.impl.data.VerificationInfo;
+import letunov.impl.data.ServerClientSettings;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.MediaType;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Client of the microservice integrity server. All instances share one connection pool and dispatcher, so the modules
+ * of a reactor build reuse connections. Bodies are streamed as JSON, optionally gzip-compressed, and requests failing
+ * with an I/O error or a 5xx response are retried with an exponential backoff. Every request is reported to the
+ * {@link ScanMetrics} as a phase named after the operation, with its wall time up to the final response, the number of
+ * attempts and the bytes sent.
+ */
 @Slf4j
 public class MicroserviceIntegrityServerClient {
-    private static final MediaType APPLICATION_JSON =  MediaType.parse("application/json");
     private static final String UPDATE_MICROSERVICE_GRAPH_URL = "/graph/microservice";
+    private static final String UPDATE_MICROSERVICES_GRAPH_URL = "/graph/microservices";
     private static final String VERIFY_MICROSERVICE_URL = "/change-graph";
+    private static final OkHttpClient sharedClient = new OkHttpClient();
+    private static final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "integrity-server-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final OkHttpClient client = new OkHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    private final OkHttpClient client;
+    private final ServerClientSettings settings;
+    private final ScanMetrics scanMetrics;
     private final String baseURL;
 
     public MicroserviceIntegrityServerClient(String baseURL) {
+        this(baseURL, ServerClientSettings.defaults());
+    }
+
+    public MicroserviceIntegrityServerClient(String baseURL, ServerClientSettings settings) {
+        this(baseURL, settings, new ScanMetrics());
+    }
+
+    public MicroserviceIntegrityServerClient(String baseURL, ServerClientSettings settings, ScanMetrics scanMetrics) {
         this.baseURL = baseURL;
+        this.settings = settings;
+        this.scanMetrics = scanMetrics;
+        this.client = sharedClient.newBuilder()
+            .connectTimeout(settings.connectTimeout())
+            .readTimeout(settings.readTimeout())
+            .writeTimeout(settings.writeTimeout())
+            .build();
     }
 
     public void updateMicroserviceGraph(MicroserviceContractsInfo microserviceContractsInfo) {
+        join(updateMicroserviceGraphAsync(microserviceContractsInfo));
+    }
+
+    public void verifyMicroservice(MicroserviceContractsInfo microserviceContractsInfo, String graphId) {
+        join(verifyMicroserviceAsync(microserviceContractsInfo, graphId));
+    }
+
+    public CompletableFuture<Void> updateMicroserviceGraphAsync(MicroserviceContractsInfo microserviceContractsInfo) {
         var url = baseURL + UPDATE_MICROSERVICE_GRAPH_URL;
-        var requestBody = RequestBody.create(getJson(microserviceContractsInfo), APPLICATION_JSON);
-        var request = new Request.Builder()
-            .url(url)
-            .post(requestBody)
+        var request = newRequestBuilder(url)
+            .post(new JsonRequestBody(objectMapper, microserviceContractsInfo, settings.gzip()))
             .build();
-        sendRequest(request, url);
+        return sendRequest(request, url, "updateMicroserviceGraph");
     }
 
-    public void verifyMicroservice(MicroserviceContractsInfo microserviceContractsInfo, String graphId) {
+    // Sends the contracts of several microservices in one request, the graph changes for all of them at once
+    public CompletableFuture<Void> updateMicroserviceGraphsAsync(List<MicroserviceContractsInfo> microservicesContractsInfo) {
+        var url = baseURL + UPDATE_MICROSERVICES_GRAPH_URL;
+        var request = newRequestBuilder(url)
+            .post(new JsonRequestBody(objectMapper, microservicesContractsInfo, settings.gzip()))
+            .build();
+        return sendRequest(request, url, "updateMicroserviceGraphs");
+    }
+
+    public CompletableFuture<Void> verifyMicroserviceAsync(MicroserviceContractsInfo microserviceContractsInfo, String graphId) {
+        var url = baseURL + VERIFY_MICROSERVICE_URL + "/" + graphId;
+        var request = newRequestBuilder(url)
+            .put(new JsonRequestBody(objectMapper, microserviceContractsInfo, settings.gzip()))
+            .build();
+        return sendRequest(request, url, "verifyMicroservice");
+    }
+
+    // Answered with 409 or 412 when the server state is not the one the delta is based on
+    public CompletableFuture<Void> verifyMicroserviceDeltaAsync(ContractsDelta contractsDelta, String graphId) {
         var url = baseURL + VERIFY_MICROSERVICE_URL + "/" + graphId;
-        var requestBody = RequestBody.create(getJson(microserviceContractsInfo), APPLICATION_JSON);
-        var request = new Request.Builder()
-            .url(url)
-            .put(requestBody)
+        var request = newRequestBuilder(url)
+            .patch(new JsonRequestBody(objectMapper, contractsDelta, settings.gzip()))
             .build();
-        sendRequest(request, url);
+        return sendRequest(request, url, "verifyMicroserviceDelta", true);
     }
 
     //    =========================================================================
     //    Implementation
     //    =========================================================================
 
-    private void sendRequest(Request request, String url) {
+    private Request.Builder newRequestBuilder(String url) {
+        var builder = new Request.Builder().url(url);
+        if (settings.gzip()) {
+            builder.header("Content-Encoding", "gzip");
+        }
+        return builder;
+    }
+
+    private CompletableFuture<Void> sendRequest(Request request, String url, String operation) {
+        return sendRequest(request, url, operation, false);
+    }
+
+    // Only a delta is based on a snapshot, other requests answered with 409 or 412 fail as any other request
+    private CompletableFuture<Void> sendRequest(Request request, String url, String operation, boolean delta) {
         log.info("Sending request to microservice integrity server...");
-        var call = client.newCall(request);
-        try (var response = call.execute()) {
-            if (response.code() != 200 && response.code() != 201) {
-                throw new UnableToMakeRequestException(url, response.code());
+        var result = new CompletableFuture<Void>();
+        var start = System.nanoTime();
+        sendRequest(request, url, operation, delta, 0, result);
+        // Recorded before the caller sees the outcome, so metrics written right after a request are complete
+        return result.whenComplete((ignored, e) -> {
+            scanMetrics.addWallTime(operation, System.nanoTime() - start);
+            if (request.body() instanceof JsonRequestBody body) {
+                scanMetrics.count(operation, "bytesSent", body.getBytesWritten());
             }
-            log.debug("Request was sent successfully");
-        } catch (IOException e) {
-            throw new UnableToMakeRequestException(url, e);
-        }
+        });
     }
 
-    private String getJson(Object object) {
+    private void sendRequest(Request request, String url, String operation, boolean delta, int attempt,
+        CompletableFuture<Void> result) {
+        scanMetrics.count(operation, "attempts", 1);
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    if (response.code() == 200 || response.code() == 201) {
+                        log.debug("Request was sent successfully");
+                        result.complete(null);
+                    } else if (delta && (response.code() == 409 || response.code() == 412)) {
+                        result.completeExceptionally(new ContractSnapshotMismatchException(url, response.code()));
+                    } else if (response.code() >= 500 && attempt < settings.retries()) {
+                        retry(request, url, operation, delta, attempt, result, "code " + response.code());
+                    } else {
+                        result.completeExceptionally(new UnableToMakeRequestException(url, response.code()));
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                if (attempt < settings.retries()) {
+                    retry(request, url, operation, delta, attempt, result, e.toString());
+                } else {
+                    result.completeExceptionally(new UnableToMakeRequestException(url, e));
+                }
+            }
+        });
+    }
+
+    private void retry(Request request, String url, String operation, boolean delta, int attempt,
+        CompletableFuture<Void> result, String reason) {
+        var delay = settings.retryBackoff().toMillis() << attempt;
+        log.warn("[MicroserviceIntegrityServerClient] Request to {} failed ({}), retrying in {} ms", url, reason, delay);
+        retryScheduler.schedule(() -> sendRequest(request, url, operation, delta, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void join(CompletableFuture<Void> future) {
         try {
-            return objectMapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 }
@@ -0,0 +1,107 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import letunov.impl.data.VerificationInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Verifies the contracts of a microservice against a snapshot of the microservice graph without the integrity server.
+ * Providers and consumers of the snapshot are indexed by service and contract name once, so every check is a map
+ * lookup. The verified microservice replaces its own entry of the snapshot.
+ */
+@Slf4j
+public class OfflineVerificationEngine {
+    private final String graphLink;
+    private final Map<String, Map<String, ProvidingContractInfo>> providersByService = new HashMap<>();
+    // Service name of the provider -> contract name -> consumers of the contract
+    private final Map<String, Map<String, List<ConsumerEntry>>> consumersByProvider = new HashMap<>();
+
+    public OfflineVerificationEngine(String graphLink, List<MicroserviceContractsInfo> graph) {
+        this.graphLink = graphLink;
+        for (var microservice : graph) {
+            var providers = providersByService.computeIfAbsent(microservice.microserviceName(), name -> new HashMap<>());
+            microservice.providing().forEach(contract -> providers.put(contract.name(), contract));
+            microservice.consuming().forEach(contract -> consumersByProvider
+                .computeIfAbsent(contract.serviceName(), name -> new LinkedHashMap<>())
+                .computeIfAbsent(contract.name(), name -> new ArrayList<>())
+                .add(new ConsumerEntry(microservice.microserviceName(), contract)));
+        }
+        log.debug("[OfflineVerificationEngine] Graph {} indexed: {} microservices", graphLink, providersByService.size());
+    }
+
+    // Reads a graph snapshot either in the binary format or as a JSON array
+    public static OfflineVerificationEngine load(Path graphSnapshot) {
+        if (BinaryContractSnapshot.isBinarySnapshot(graphSnapshot)) {
+            return new OfflineVerificationEngine(graphSnapshot.toString(), BinaryContractSnapshot.read(graphSnapshot));
+        }
+        try {
+            List<MicroserviceContractsInfo> graph = new ObjectMapper().readValue(graphSnapshot.toFile(), new TypeReference<>() { });
+            return new OfflineVerificationEngine(graphSnapshot.toString(), graph);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the graph snapshot " + graphSnapshot, e);
+        }
+    }
+
+    public VerificationInfo verify(MicroserviceContractsInfo microservice) {
+        List<String> messages = new ArrayList<>();
+        for (var contract : microservice.consuming()) {
+            verifyConsumingContract(contract, messages);
+        }
+        verifyProvidingContracts(microservice, messages);
+        return new VerificationInfo(graphLink, messages);
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private record ConsumerEntry(String microserviceName, ConsumingContractInfo contract) { }
+
+    private void verifyConsumingContract(ConsumingContractInfo contract, List<String> messages) {
+        var providers = providersByService.get(contract.serviceName());
+        if (providers == null) {
+            messages.add("The microservice %s providing %s is not in the graph".formatted(contract.serviceName(), contract.name()));
+            return;
+        }
+        var provider = providers.get(contract.name());
+        if (provider == null) {
+            messages.add("The microservice %s doesn't provide %s".formatted(contract.serviceName(), contract.name()));
+        } else if (!Objects.equals(provider.checksum(), contract.checksum())) {
+            messages.add("The consumed contract %s differs from the one provided by %s".formatted(contract.name(), contract.serviceName()));
+        }
+    }
+
+    // Consumers of the graph must still match the contracts this microservice provides now
+    private void verifyProvidingContracts(MicroserviceContractsInfo microservice, List<String> messages) {
+        var consumers = consumersByProvider.getOrDefault(microservice.microserviceName(), Map.of());
+        Map<String, ProvidingContractInfo> providing = new HashMap<>();
+        microservice.providing().forEach(contract -> providing.put(contract.name(), contract));
+        consumers.forEach((contractName, contractConsumers) -> {
+            var provider = providing.get(contractName);
+            for (var consumer : contractConsumers) {
+                if (consumer.microserviceName().equals(microservice.microserviceName())) {
+                    continue;
+                }
+                if (provider == null) {
+                    messages.add("The contract %s consumed by %s is no longer provided".formatted(contractName, consumer.microserviceName()));
+                } else if (!Objects.equals(provider.checksum(), consumer.contract().checksum())) {
+                    messages.add("The provided contract %s differs from the one consumed by %s".formatted(contractName, consumer.microserviceName()));
+                }
+            }
+        });
+    }
+}
@@ -1,35 +1,52 @@
 package letunov.impl;
 
+import letunov.contract.ContractConsumer;
+import letunov.contract.ContractProvider;
 import letunov.exception.UnableToGetProjectURLException;
 import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.ScanMode;
+import letunov.impl.data.ScanSettings;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.maven.model.Dependency;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.project.MavenProject;
 import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import static java.util.stream.Collectors.toCollection;
-import static java.util.stream.Collectors.toMap;
 
+/**
+ * Owns the single class loader of a scan: the project output directory and all dependency jars are opened by one
+ * {@link URLClassLoader}, which is closed with the manager. Contracts are attributed to dependencies through a
+ * {@link DependencyClassIndex} rather than through separate class loaders.
+ */
 @Slf4j
-public class ProjectClassesManager {
-    private final String m2Repo;
+public class ProjectClassesManager implements AutoCloseable {
+    private URLClassLoader projectClassLoader;
 
-    public ProjectClassesManager(String m2Repo) {
-        this.m2Repo = m2Repo;
-    }
-
-    public ClassLoader getProjectClassLoader(MavenProject project) {
+    public synchronized ClassLoader getProjectClassLoader(MavenProject project) {
+        if (projectClassLoader != null) {
+            return projectClassLoader;
+        }
         log.debug("Build output directory: {}", project.getBuild().getOutputDirectory());
         var outputDirectory = new File(project.getBuild().getOutputDirectory());
         var projectUrl = getUrl(outputDirectory.toPath());
@@ -37,7 +54,8 @@ public class ProjectClassesManager {
         var urls = getDependenciesURLs(project);
         urls.add(projectUrl);
 
-        return URLClassLoader.newInstance(urls.toArray(URL[]::new), this.getClass().getClassLoader());
+        projectClassLoader = URLClassLoader.newInstance(urls.toArray(URL[]::new), this.getClass().getClassLoader());
+        return projectClassLoader;
     }
 
     public Reflections getProjectReflections(ClassLoader classLoader) {
@@ -45,11 +63,77 @@ public class ProjectClassesManager {
             .forPackage("", classLoader));
     }
 
-    public Map<DependencyInfo, ClassLoader> getDependenciesInfoWithClassloaders(MavenProject project) {
-        return ((List<Dependency>)project.getDependencies()).stream()
-            .collect(toMap(this::createDependencyInfo,
-                dependency -> URLClassLoader.newInstance(new URL[]{getDependencyUrl(dependency)},
-                    this.getClass().getClassLoader())));
+    public Reflections getProjectReflections(ClassLoader classLoader, MavenProject project, ScanSettings scanSettings) {
+        return getProjectReflections(classLoader, project, scanSettings, null);
+    }
+
+    // With a manifest written at compile time the providers and consumers of the output directory are taken from it
+    public Reflections getProjectReflections(ClassLoader classLoader, MavenProject project, ScanSettings scanSettings,
+        ContractChecksumManifest manifest) {
+        if (scanSettings.scanMode() == ScanMode.FULL_CLASSPATH) {
+            log.debug("[ProjectClassesManager] Scanning the whole project classpath");
+            return getProjectReflections(classLoader);
+        }
+
+        var outputDirectory = Paths.get(project.getBuild().getOutputDirectory());
+        log.debug("[ProjectClassesManager] Scanning the output directory {} and includes {}", outputDirectory, scanSettings.includes());
+        var reflections = manifest != null
+            ? getManifestReflections(manifest)
+            : new Reflections(getTargetedConfiguration(classLoader).addUrls(getUrl(outputDirectory)));
+
+        for (var include : scanSettings.includes()) {
+            var configuration = isArtifactInclude(include)
+                ? getTargetedConfiguration(classLoader).addUrls(getIncludedArtifactUrl(project, include))
+                : getTargetedConfiguration(classLoader)
+                    .addUrls(ClasspathHelper.forPackage(include, classLoader))
+                    .filterInputsBy(new FilterBuilder().includePackage(include));
+            reflections.merge(new Reflections(configuration));
+        }
+        return reflections;
+    }
+
+    public DependencyClassIndex getDependencyClassIndex(MavenProject project) {
+        return getDependencyClassIndex(getArtifacts(project));
+    }
+
+    DependencyClassIndex getDependencyClassIndex(Set<Artifact> artifacts) {
+        Map<DependencyInfo, Path> dependencies = new LinkedHashMap<>();
+        getResolvedArtifacts(artifacts)
+            .forEach(artifact -> dependencies.putIfAbsent(createDependencyInfo(artifact), artifact.getFile().toPath()));
+        return new DependencyClassIndex(dependencies);
+    }
+
+    // The store a TypesAnnotated scan of the output directory would have built
+    Reflections getManifestReflections(ContractChecksumManifest manifest) {
+        Map<String, Set<String>> typesAnnotated = new HashMap<>();
+        if (!manifest.getProviders().isEmpty()) {
+            typesAnnotated.put(ContractProvider.class.getTypeName(), new HashSet<>(manifest.getProviders()));
+        }
+        if (!manifest.getConsumers().isEmpty()) {
+            typesAnnotated.put(ContractConsumer.class.getTypeName(), new HashSet<>(manifest.getConsumers()));
+        }
+        var store = new Store();
+        store.put(Scanners.TypesAnnotated.index(), typesAnnotated);
+        return new Reflections(store);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (projectClassLoader == null) {
+            return;
+        }
+        try {
+            projectClassLoader.close();
+        } catch (IOException e) {
+            log.warn("[ProjectClassesManager] Unable to close the project class loader", e);
+        }
+        projectClassLoader = null;
+    }
+
+    // maven-project declares the artifacts as a raw Set, the one place they are cast
+    @SuppressWarnings("unchecked")
+    static Set<Artifact> getArtifacts(MavenProject project) {
+        return (Set<Artifact>) project.getArtifacts();
     }
 
     //    =========================================================================
@@ -57,18 +141,48 @@ public class ProjectClassesManager {
     //    =========================================================================
 
     private List<URL> getDependenciesURLs(MavenProject project) {
-        return ((List<Dependency>)project.getDependencies()).stream()
-            .peek(dep -> log.debug("[ProjectClassesManager] The dependency of the project found: {}", dep.toString()))
-            .map(this::getDependencyUrl)
+        return getResolvedArtifacts(project).stream()
+            .peek(artifact -> log.debug("[ProjectClassesManager] The dependency of the project found: {}", artifact))
+            .map(artifact -> getUrl(artifact.getFile().toPath()))
             .collect(toCollection(ArrayList::new));
     }
 
-    private URL getDependencyUrl(Dependency dependency) {
-        var path = Paths.get(m2Repo, dependency.getGroupId().replace(".", "/"),
-            dependency.getArtifactId(), dependency.getVersion(),
-            dependency.getArtifactId() + "-" + dependency.getVersion() + ".jar");
-        log.debug("Dependency path created: {}", path);
-        return getUrl(path);
+    // Artifacts resolved by Maven for the mojo, transitive ones included. A reactor sibling that is not installed
+    // resolves to its output directory.
+    private List<Artifact> getResolvedArtifacts(MavenProject project) {
+        return getResolvedArtifacts(getArtifacts(project));
+    }
+
+    private List<Artifact> getResolvedArtifacts(Set<Artifact> artifacts) {
+        return artifacts.stream()
+            .filter(artifact -> {
+                if (artifact.getFile() == null) {
+                    log.warn("[ProjectClassesManager] The dependency {} is not resolved and is skipped", artifact);
+                    return false;
+                }
+                return true;
+            })
+            .toList();
+    }
+
+    private ConfigurationBuilder getTargetedConfiguration(ClassLoader classLoader) {
+        return new ConfigurationBuilder()
+            .setScanners(Scanners.TypesAnnotated)
+            .setExpandSuperTypes(false)
+            .addClassLoaders(classLoader);
+    }
+    private boolean isArtifactInclude(String include) {
+        return include.contains(":");
+    }
+
+    private URL getIncludedArtifactUrl(MavenProject project, String include) {
+        var coordinates = include.split(":");
+        return getResolvedArtifacts(project).stream()
+            .filter(artifact -> Objects.equals(artifact.getGroupId(), coordinates[0])
+                && Objects.equals(artifact.getArtifactId(), coordinates[1]))
+            .findFirst()
+            .map(artifact -> getUrl(artifact.getFile().toPath()))
+            .orElseThrow(() -> new IllegalArgumentException("The included artifact %s is not a dependency of the project".formatted(include)));
     }
 
     private URL getUrl(Path path) {
@@ -79,7 +193,8 @@ public class ProjectClassesManager {
         }
     }
 
-    private DependencyInfo createDependencyInfo(Dependency dependency) {
-        return new DependencyInfo(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+    // The base version keeps SNAPSHOT dependencies stable instead of reporting a timestamped version
+    private DependencyInfo createDependencyInfo(Artifact artifact) {
+        return new DependencyInfo(artifact.getGroupId(), artifact.getArtifactId(), artifact.getBaseVersion());
     }
 }
@@ -0,0 +1,109 @@
+package letunov.impl;
+
+import letunov.impl.data.MicroserviceContractsInfo;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Progress of one goal across the modules of a reactor build: which modules run it, which have finished it, the
+ * requests still running in the background and the contracts collected for a batch. The state belongs to a build
+ * session, so a second build in the same JVM, as with a Maven daemon, starts afresh; it is dropped once the last module
+ * has finished the goal.
+ * <p>
+ * A module failing the goal fails the progress for the rest of the session: the modules depending on it are skipped,
+ * so no module is the last one any more, the work left to the reactor is abandoned and every module awaits the requests
+ * pending when it finishes.
+ */
+public class ReactorGoalProgress {
+    private static final Map<Object, Map<String, ReactorGoalProgress>> sessions = new WeakHashMap<>();
+
+    // The goals of the session, not the session itself, which would then never be released
+    private final Map<String, ReactorGoalProgress> sessionGoals;
+    private final String goal;
+    private final Set<String> goalProjects;
+    private final Set<String> finishedProjects = new HashSet<>();
+    private final List<CompletableFuture<Void>> pendingRequests = new CopyOnWriteArrayList<>();
+    private final Map<String, MicroserviceContractsInfo> collectedContractsInfo = new ConcurrentHashMap<>();
+    private boolean completed;
+    private boolean failed;
+
+    private ReactorGoalProgress(Map<String, ReactorGoalProgress> sessionGoals, String goal, Set<String> goalProjects) {
+        this.sessionGoals = sessionGoals;
+        this.goal = goal;
+        this.goalProjects = Set.copyOf(goalProjects);
+    }
+
+    // The projects running the goal are computed by the first module of the session to start it
+    public static ReactorGoalProgress get(Object session, String goal, Supplier<Set<String>> goalProjects) {
+        synchronized (sessions) {
+            var sessionGoals = sessions.computeIfAbsent(session, key -> new HashMap<>());
+            return sessionGoals.computeIfAbsent(goal, key -> new ReactorGoalProgress(sessionGoals, goal, goalProjects.get()));
+        }
+    }
+
+    // Whether the module was the last one running the goal to finish it, true for one module only and never after a
+    // failure
+    public synchronized boolean finish(String projectId) {
+        finishedProjects.add(projectId);
+        if (completed || !finishedProjects.containsAll(goalProjects)) {
+            return false;
+        }
+        completed = true;
+        synchronized (sessions) {
+            sessionGoals.remove(goal, this);
+        }
+        return true;
+    }
+
+    // Kept for the session, so the modules finishing the goal after the failure know nobody completes the reactor
+    public synchronized void fail(String projectId) {
+        finishedProjects.add(projectId);
+        failed = true;
+        completed = true;
+    }
+
+    public synchronized boolean isFailed() {
+        return failed;
+    }
+
+    // Requests added by other modules while these are awaited stay pending for the next call. The first failure is
+    // thrown with the others suppressed
+    public void awaitPendingRequests() {
+        var awaitedRequests = List.copyOf(pendingRequests);
+        RuntimeException failure = null;
+        for (var request : awaitedRequests) {
+            try {
+                request.join();
+            } catch (CompletionException e) {
+                var cause = e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        pendingRequests.removeAll(awaitedRequests);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public List<CompletableFuture<Void>> getPendingRequests() {
+        return pendingRequests;
+    }
+
+    public Map<String, MicroserviceContractsInfo> getCollectedContractsInfo() {
+        return collectedContractsInfo;
+    }
+}
@@ -0,0 +1,181 @@
+package letunov.impl;
+
+import letunov.impl.model.AnnotationDescriptor;
+import letunov.impl.model.ClassRef;
+import letunov.impl.model.ContractAnnotations;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.FieldDescriptor;
+import letunov.impl.model.GenericArrayRef;
+import letunov.impl.model.MethodDescriptor;
+import letunov.impl.model.ParameterDescriptor;
+import letunov.impl.model.ParameterizedRef;
+import letunov.impl.model.TypeRef;
+import letunov.impl.model.TypeVariableRef;
+import letunov.impl.model.WildcardRef;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toSet;
+
+public class ReflectionContractModelBuilder implements ContractModelBuilder {
+    private final ClassLoader classLoader;
+    private final Map<String, Class<?>> types = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> publicMethodNames = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> supertypes = new ConcurrentHashMap<>();
+
+    public ReflectionContractModelBuilder(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public ContractDescriptor getContractDescriptor(String contractName) {
+        var contract = getType(contractName);
+        return new ContractDescriptor(contract.getTypeName(), stream(contract.getMethods())
+            .map(this::getMethodDescriptor)
+            .toList());
+    }
+
+    @Override
+    public List<FieldDescriptor> getDeclaredFields(String typeName) {
+        return stream(getType(typeName).getDeclaredFields())
+            .map(field -> new FieldDescriptor(field.getName(), getClassRef(field.getType()), getTypeRef(field.getGenericType())))
+            .toList();
+    }
+
+    @Override
+    public Set<String> getPublicMethodNames(String typeName) {
+        return publicMethodNames.computeIfAbsent(typeName, name -> stream(getType(name).getMethods())
+            .map(Method::getName)
+            .collect(toSet()));
+    }
+
+    @Override
+    public Set<String> getSupertypes(String typeName) {
+        return supertypes.computeIfAbsent(typeName, name -> {
+            Set<String> result = new LinkedHashSet<>();
+            collectSupertypes(getType(name), result);
+            return result;
+        });
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private Class<?> getType(String typeName) {
+        var type = types.get(typeName);
+        if (type != null) {
+            return type;
+        }
+        try {
+            type = Class.forName(typeName, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unable to load the type " + typeName, e);
+        }
+        types.putIfAbsent(typeName, type);
+        return type;
+    }
+
+    private void collectSupertypes(Class<?> type, Set<String> result) {
+        if (type.getSuperclass() != null && result.add(type.getSuperclass().getTypeName())) {
+            collectSupertypes(type.getSuperclass(), result);
+        }
+        for (var superInterface : type.getInterfaces()) {
+            if (result.add(superInterface.getTypeName())) {
+                collectSupertypes(superInterface, result);
+            }
+        }
+    }
+
+    private MethodDescriptor getMethodDescriptor(Method method) {
+        return new MethodDescriptor(method.getDeclaringClass().getTypeName(), method.getName(), method.getModifiers(),
+            getAnnotationDescriptors(method.getAnnotations()),
+            stream(method.getParameters()).map(this::getParameterDescriptor).toList(),
+            getClassRef(method.getReturnType()), getTypeRef(method.getGenericReturnType()));
+    }
+
+    private ParameterDescriptor getParameterDescriptor(Parameter parameter) {
+        return new ParameterDescriptor(parameter.getName(), getAnnotationDescriptors(parameter.getAnnotations()),
+            getClassRef(parameter.getType()), getTypeRef(parameter.getParameterizedType()));
+    }
+
+    private List<AnnotationDescriptor> getAnnotationDescriptors(Annotation[] annotations) {
+        return stream(annotations)
+            .filter(annotation -> ContractAnnotations.ALL.contains(annotation.annotationType().getName()))
+            .map(this::getAnnotationDescriptor)
+            .toList();
+    }
+
+    private AnnotationDescriptor getAnnotationDescriptor(Annotation annotation) {
+        Map<String, Object> values = new TreeMap<>();
+        for (var element : annotation.annotationType().getDeclaredMethods()) {
+            var elementType = element.getReturnType();
+            var componentType = elementType.isArray() ? elementType.getComponentType() : elementType;
+            if (componentType.equals(String.class) || componentType.isEnum()
+                || (!elementType.isArray() && componentType.equals(boolean.class))) {
+                values.put(element.getName(), getAnnotationValue(getElementValue(annotation, element)));
+            }
+        }
+        return new AnnotationDescriptor(annotation.annotationType().getName(), values);
+    }
+
+    private Object getElementValue(Annotation annotation, Method element) {
+        try {
+            return element.invoke(annotation);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to read the annotation element " + element, e);
+        }
+    }
+
+    private Object getAnnotationValue(Object value) {
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        if (value instanceof Object[] array) {
+            return stream(array).map(item -> (String) getAnnotationValue(item)).toList();
+        }
+        return value;
+    }
+
+    private ClassRef getClassRef(Class<?> type) {
+        types.putIfAbsent(type.getTypeName(), type);
+        return new ClassRef(type.getTypeName());
+    }
+
+    private TypeRef getTypeRef(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return getClassRef(clazz);
+        }
+        if (type instanceof ParameterizedType parameterizedType) {
+            return new ParameterizedRef(((Class<?>) parameterizedType.getRawType()).getTypeName(),
+                stream(parameterizedType.getActualTypeArguments()).map(this::getTypeRef).toList());
+        }
+        if (type instanceof WildcardType wildcardType) {
+            if (wildcardType.getLowerBounds().length > 0) {
+                return new WildcardRef(null, getTypeRef(wildcardType.getLowerBounds()[0]));
+            }
+            var upperBound = wildcardType.getUpperBounds()[0];
+            return new WildcardRef(Object.class.equals(upperBound) ? null : getTypeRef(upperBound), null);
+        }
+        if (type instanceof GenericArrayType genericArrayType) {
+            return new GenericArrayRef(getTypeRef(genericArrayType.getGenericComponentType()));
+        }
+        return new TypeVariableRef(((TypeVariable<?>) type).getName());
+    }
+}
@@ -1,18 +1,243 @@
 package letunov.impl;
 
+import letunov.impl.data.ContractShape;
+import letunov.impl.data.ContractSide;
 import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ScanSettings;
+import letunov.impl.model.ContractModelBuilder;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.maven.project.MavenProject;
+import org.reflections.Reflections;
 
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
 public class RetrieveMicroserviceContractsInfoDelegate {
-    public MicroserviceContractsInfo execute(String m2Repo, MavenProject project) {
-        var classLoadingHelper = new ProjectClassesManager(m2Repo);
-        var projectClassloader = classLoadingHelper.getProjectClassLoader(project);
-        var reflections = classLoadingHelper.getProjectReflections(projectClassloader);
-        var microserviceProvidingContractsScanner = new MicroserviceContractsScanner(reflections, projectClassloader, classLoadingHelper.getDependenciesInfoWithClassloaders(project));
+    public MicroserviceContractsInfo execute(MavenProject project, ScanSettings scanSettings) {
+        return execute(project, scanSettings, new ScanMetrics());
+    }
+
+    public MicroserviceContractsInfo execute(MavenProject project, ScanSettings scanSettings, ScanMetrics scanMetrics) {
+        var executor = Executors.newFixedThreadPool(scanSettings.threads());
+        try {
+            return execute(project, scanSettings, scanMetrics, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // The executor only runs tasks that never wait for one another, so it can be shared by modules scanned in parallel
+    public MicroserviceContractsInfo execute(MavenProject project, ScanSettings scanSettings, ScanMetrics scanMetrics,
+        Executor executor) {
+        // Closed in reverse order, so no stage is running any more when the project classes are released
+        try (var classLoadingHelper = new ProjectClassesManager();
+             var stages = new Stages(scanSettings.pipelined() ? ExecutorUtil.newStageExecutor() : null)) {
+            var projectClassloader = scanMetrics.measure("classLoader", () -> classLoadingHelper.getProjectClassLoader(project));
+            scanMetrics.count("classLoader", "classpathEntries", project.getArtifacts().size() + 1);
+            var manifest = scanSettings.checksumManifest() ? readChecksumManifest(project) : null;
+            var reflections = stages.run(() -> {
+                var projectReflections = scanMetrics.measure("reflections",
+                    () -> classLoadingHelper.getProjectReflections(projectClassloader, project, scanSettings, manifest));
+                scanMetrics.count("reflections", "indexedTypes", getIndexedTypesCount(projectReflections));
+                return projectReflections;
+            });
+            var dependencyClassIndex = stages.run(() -> {
+                var index = scanMetrics.measure("dependencyIndex", () -> classLoadingHelper.getDependencyClassIndex(project));
+                scanMetrics.count("dependencyIndex", "jars", index.getIndexedJarsCount());
+                scanMetrics.count("dependencyIndex", "classes", index.getIndexedClassesCount());
+                return index;
+            });
+
+            var modelBuilder = getContractModelBuilder(projectClassloader, scanSettings);
+            var sharedTypeChecksums = scanSettings.jvmCache() ? new SharedTypeChecksums(projectClassloader) : null;
+            var checksumContext = new ChecksumContext(modelBuilder, scanSettings.traversalPolicy(), sharedTypeChecksums);
+            var checksumCacheFile = scanSettings.checksumCache() ? WorkDirectoryUtil.getChecksumCacheFile(project) : null;
+            var contractChecksumCache = new ContractChecksumCache(checksumCacheFile, projectClassloader, checksumContext,
+                manifest);
+            var contractFingerprintBuilder = scanSettings.contractFingerprints()
+                ? new ContractFingerprintBuilder(modelBuilder, scanSettings.traversalPolicy())
+                : null;
+            var microserviceProvidingContractsScanner = stages.then(reflections,
+                projectReflections -> new MicroserviceContractsScanner(projectReflections, projectClassloader, dependencyClassIndex,
+                    contractChecksumCache, contractFingerprintBuilder, executor));
+
+            var providingContractsInfo = stages.then(microserviceProvidingContractsScanner, scanner -> {
+                var contractsInfo = scanMetrics.measure("providingContracts", scanner::getProvidingContractsInfo);
+                scanMetrics.count("providingContracts", "contracts", contractsInfo.size());
+                return contractsInfo;
+            });
+            var consumingContractsInfo = stages.then(microserviceProvidingContractsScanner, scanner -> {
+                var contractsInfo = scanMetrics.measure("consumingContracts", scanner::getConsumingContractsInfo);
+                scanMetrics.count("consumingContracts", "contracts", contractsInfo.size());
+                return contractsInfo;
+            });
+            stages.awaitAll();
+            scanMetrics.count("consumingContracts", "typesComputed", checksumContext.getComputedTypesCount());
+            scanMetrics.count("consumingContracts", "typesShared", checksumContext.getSharedTypesCount());
+            scanMetrics.count("consumingContracts", "checksumsPrecomputed", contractChecksumCache.getPrecomputedCount());
+            scanMetrics.measure("checksumCache", contractChecksumCache::save);
 
-        var providingContractsInfo = microserviceProvidingContractsScanner.getProvidingContractsInfo();
-        var consumingContractsInfo = microserviceProvidingContractsScanner.getConsumingContractsInfo();
+            var microserviceContractsInfo = new MicroserviceContractsInfo(project.getName(), providingContractsInfo.join(),
+                consumingContractsInfo.join());
+            scanMetrics.measure("snapshot", () -> saveContractsSnapshot(project, microserviceContractsInfo, scanMetrics));
+            if (scanSettings.contractShapes()) {
+                scanMetrics.measure("contractShapes", () -> saveContractShapes(project, microserviceContractsInfo,
+                    new ContractShapeBuilder(modelBuilder, scanSettings.traversalPolicy()), scanMetrics));
+            }
+            return microserviceContractsInfo;
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    // Written by ContractChecksumProcessor, null when the module was not compiled with it or was compiled again without it
+    private ContractChecksumManifest readChecksumManifest(MavenProject project) {
+        var manifest = ContractChecksumManifest.read(Paths.get(project.getBuild().getOutputDirectory()));
+        manifest.ifPresent(found -> log.info("[RetrieveMicroserviceContractsInfoDelegate] Using {} of {}: {} providers, {} "
+            + "consumers, {} precomputed checksums", ContractChecksumManifest.LOCATION, project.getName(),
+            found.getProviders().size(), found.getConsumers().size(), found.getChecksumsCount()));
+        return manifest.orElse(null);
+    }
+
+    // The scan result is kept next to the build output, so it can be published or merged into a graph snapshot
+    private void saveContractsSnapshot(MavenProject project, MicroserviceContractsInfo microserviceContractsInfo,
+        ScanMetrics scanMetrics) {
+        var snapshotFile = WorkDirectoryUtil.getContractsSnapshotFile(project);
+        try {
+            var snapshot = BinaryContractSnapshot.encode(List.of(microserviceContractsInfo));
+            BinaryContractSnapshot.write(snapshot, snapshotFile);
+            scanMetrics.count("snapshot", "bytesWritten", snapshot.length);
+        } catch (UncheckedIOException e) {
+            log.warn("[RetrieveMicroserviceContractsInfoDelegate] Unable to save the contracts snapshot {}", snapshotFile, e);
+        }
+    }
+
+    // Shapes of the provided and consumed contracts, which ContractDiffDelegate compares with the baseline
+    private void saveContractShapes(MavenProject project, MicroserviceContractsInfo microserviceContractsInfo,
+        ContractShapeBuilder contractShapeBuilder, ScanMetrics scanMetrics) {
+        var providingNames = new TreeSet<String>();
+        microserviceContractsInfo.providing().forEach(contract -> providingNames.add(contract.name()));
+        var consumingNames = new TreeSet<String>();
+        microserviceContractsInfo.consuming().forEach(contract -> consumingNames.add(contract.name()));
+        var shapesFile = WorkDirectoryUtil.getContractShapesFile(project);
+        try {
+            List<ContractShape> shapes = new ArrayList<>();
+            providingNames.forEach(name -> shapes.add(contractShapeBuilder.getContractShape(name, ContractSide.PROVIDING)));
+            consumingNames.forEach(name -> shapes.add(contractShapeBuilder.getContractShape(name, ContractSide.CONSUMING)));
+            ContractDiffEngine.writeShapes(shapes, shapesFile);
+            scanMetrics.count("contractShapes", "contracts", shapes.size());
+        } catch (UncheckedIOException e) {
+            log.warn("[RetrieveMicroserviceContractsInfoDelegate] Unable to save the contract shapes {}", shapesFile, e);
+        }
+    }
+
+    // Types found by the Reflections scanners, a class annotated several times is counted once
+    private long getIndexedTypesCount(Reflections reflections) {
+        return reflections.getStore().values().stream()
+            .flatMap(index -> index.values().stream())
+            .flatMap(Set::stream)
+            .distinct()
+            .count();
+    }
+
+    /**
+     * Stages of a scan. Without a stage executor they run one after another on the calling thread. With one, a stage
+     * starts as soon as the stages it takes its input from are done, so the dependency index is built while the project
+     * is scanned and contracts are hashed, and providers are scanned along with consumers. The first failing stage
+     * cancels the stages not started yet, and its exception is the one thrown. Closing interrupts the stages still
+     * running after a failure and waits for them to finish, so none of them outlives the resources of the scan.
+     */
+    private static class Stages implements AutoCloseable {
+        private final ExecutorService stageExecutor;
+        private final List<CompletableFuture<?>> futures = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Stages(ExecutorService stageExecutor) {
+            this.stageExecutor = stageExecutor;
+        }
+
+        private <T> CompletableFuture<T> run(Supplier<T> stage) {
+            if (stageExecutor == null) {
+                return CompletableFuture.completedFuture(stage.get());
+            }
+            return track(CompletableFuture.supplyAsync(stage, stageExecutor));
+        }
+
+        private <T, R> CompletableFuture<R> then(CompletableFuture<T> input, Function<T, R> stage) {
+            if (stageExecutor == null) {
+                return CompletableFuture.completedFuture(stage.apply(input.join()));
+            }
+            return track(input.thenApplyAsync(stage, stageExecutor));
+        }
+
+        private void awaitAll() {
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException | CancellationException e) {
+                var cause = failure.get() instanceof CompletionException completionException
+                    ? completionException.getCause() : failure.get();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (stageExecutor == null) {
+                return;
+            }
+            if (failure.get() == null && futures.stream().allMatch(CompletableFuture::isDone)) {
+                stageExecutor.shutdown();
+            } else {
+                stageExecutor.shutdownNow();
+            }
+            try {
+                while (!stageExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.warn("[RetrieveMicroserviceContractsInfoDelegate] Waiting for the running scan stages to finish");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+            futures.add(future);
+            future.whenComplete((result, e) -> {
+                if (e != null && !(e instanceof CancellationException) && failure.compareAndSet(null, e)) {
+                    futures.forEach(stage -> stage.cancel(false));
+                }
+            });
+            return future;
+        }
+    }
 
-        return new MicroserviceContractsInfo(project.getName(), providingContractsInfo, consumingContractsInfo);
+    private ContractModelBuilder getContractModelBuilder(ClassLoader classLoader, ScanSettings scanSettings) {
+        return switch (scanSettings.checksumBackend()) {
+            case REFLECTION -> new ReflectionContractModelBuilder(classLoader);
+            case CLASS_FILE -> new ClassFileContractModelBuilder(classLoader);
+        };
     }
 }
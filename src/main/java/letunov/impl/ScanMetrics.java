@@ -0,0 +1,104 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import letunov.impl.data.PhaseMetrics;
+import letunov.impl.data.ScanMetricsReport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Wall time and counters of the phases of one mojo run: class loader creation, Reflections scanning, dependency
+ * indexing, contract scanning with checksums, snapshot writing and the requests to the integrity server. Phases are
+ * reported in the order they first ran. Recording is thread-safe, so requests completing on OkHttp threads and
+ * checksums computed in parallel report to the same instance.
+ */
+@Slf4j
+public class ScanMetrics {
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final long startedAtNanos = System.nanoTime();
+
+    public <T> T measure(String phase, Supplier<T> action) {
+        var start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            addWallTime(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void measure(String phase, Runnable action) {
+        measure(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public synchronized void addWallTime(String phase, long nanos) {
+        var metrics = getPhase(phase);
+        metrics.runs++;
+        metrics.wallTimeNanos += nanos;
+    }
+
+    public synchronized void count(String phase, String counter, long value) {
+        getPhase(phase).counters.merge(counter, value, Long::sum);
+    }
+
+    public synchronized ScanMetricsReport getReport(String project, String goal) {
+        List<PhaseMetrics> phasesMetrics = new ArrayList<>(phases.size());
+        phases.forEach((name, phase) ->
+            phasesMetrics.add(new PhaseMetrics(name, phase.runs, phase.wallTimeNanos, new TreeMap<>(phase.counters))));
+        return new ScanMetricsReport(project, goal, startedAtMillis, System.nanoTime() - startedAtNanos, phasesMetrics);
+    }
+
+    // Metrics never fail the build, an unwritable file is only reported
+    public void write(Path file, String project, String goal) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            objectMapper.writeValue(file.toFile(), getReport(project, goal));
+            log.debug("[ScanMetrics] Metrics saved to {}", file);
+        } catch (IOException e) {
+            log.warn("[ScanMetrics] Unable to save the metrics to {}", file, e);
+        }
+    }
+
+    public void logSummary(String project, String goal) {
+        var report = getReport(project, goal);
+        log.info("[ScanMetrics] {} of {} took {} ms", goal, project, toMillis(report.wallTimeNanos()));
+        for (var phase : report.phases()) {
+            log.info("[ScanMetrics]   {}: {} ms{}{}", phase.name(), toMillis(phase.wallTimeNanos()),
+                phase.runs() > 1 ? " in " + phase.runs() + " runs" : "",
+                phase.counters().isEmpty() ? "" : " " + phase.counters());
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private static class Phase {
+        private int runs;
+        private long wallTimeNanos;
+        private final Map<String, Long> counters = new LinkedHashMap<>();
+    }
+
+    private Phase getPhase(String phase) {
+        return phases.computeIfAbsent(phase, name -> new Phase());
+    }
+
+    private String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,111 @@
+package letunov.impl;
+
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ScanSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.project.MavenProject;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Scans all modules of a reactor in one pass. Modules are scanned in parallel, their contract tasks share one executor,
+ * and the JVM-scoped {@link JarClassNamesCache} and {@link SharedTypeChecksums} make a contract jar used by several
+ * modules indexed and hashed once. The result of every module is stored in its up-to-date markers of the given goals,
+ * which then take it from there instead of scanning the module again, and in its contracts snapshot.
+ */
+@Slf4j
+public class ScanReactorContractsDelegate {
+    private final RetrieveMicroserviceContractsInfoDelegate delegate = new RetrieveMicroserviceContractsInfoDelegate();
+    private final List<String> goals;
+
+    // Goals whose up-to-date markers receive the result of each module
+    public ScanReactorContractsDelegate(List<String> goals) {
+        this.goals = goals;
+    }
+
+    public List<MicroserviceContractsInfo> execute(List<MavenProject> projects, ScanSettings scanSettings,
+        ScanMetrics scanMetrics) {
+        var modules = projects.stream()
+            .filter(project -> !"pom".equals(project.getPackaging()))
+            .toList();
+        log.info("[ScanReactorContractsDelegate] Scanning {} modules", modules.size());
+        // Module tasks wait for contract tasks, so the two never share a pool
+        var moduleExecutor = Executors.newFixedThreadPool(Math.max(1, Math.min(scanSettings.threads(), modules.size())));
+        var contractExecutor = Executors.newFixedThreadPool(scanSettings.threads());
+        try {
+            var futures = modules.stream()
+                .map(module -> CompletableFuture.supplyAsync(
+                    () -> scanModule(module, scanSettings, scanMetrics, contractExecutor), moduleExecutor))
+                .toList();
+            return joinAll(futures);
+        } finally {
+            moduleExecutor.shutdownNow();
+            contractExecutor.shutdownNow();
+        }
+    }
+
+    // The contracts of all modules, in reactor order, so the reactor can be verified offline as a whole
+    public void saveReactorSnapshot(List<MicroserviceContractsInfo> contractsInfo, Path snapshotFile) {
+        try {
+            BinaryContractSnapshot.write(contractsInfo, snapshotFile);
+            log.info("[ScanReactorContractsDelegate] Contracts of the reactor saved to {}", snapshotFile);
+        } catch (UncheckedIOException e) {
+            log.warn("[ScanReactorContractsDelegate] Unable to save the reactor snapshot {}", snapshotFile, e);
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private MicroserviceContractsInfo scanModule(MavenProject project, ScanSettings scanSettings, ScanMetrics scanMetrics,
+        Executor contractExecutor) {
+        List<UpToDateCheck> checks = new ArrayList<>();
+        for (var goal : goals) {
+            var check = new UpToDateCheck(WorkDirectoryUtil.getUpToDateMarkerFile(project, goal));
+            if (checks.isEmpty()) {
+                scanMetrics.measure("inputFingerprint", () -> check.computeFingerprint(project, scanSettings));
+            } else {
+                check.adoptFingerprint(checks.get(0));
+            }
+            checks.add(check);
+        }
+
+        var upToDateContractsInfo = checks.stream()
+            .map(UpToDateCheck::getUpToDateContractsInfo)
+            .filter(Objects::nonNull)
+            .findFirst();
+        var contractsInfo = upToDateContractsInfo.orElseGet(() -> delegate.execute(project, scanSettings, scanMetrics, contractExecutor));
+        if (upToDateContractsInfo.isPresent()) {
+            log.info("[ScanReactorContractsDelegate] Inputs of {} are unchanged since the last run, the scan is skipped",
+                project.getName());
+        }
+        // A marker already up to date keeps the request it records
+        checks.stream()
+            .filter(check -> check.getUpToDateContractsInfo() == null)
+            .forEach(check -> check.save(contractsInfo, null));
+        return contractsInfo;
+    }
+
+    private <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        try {
+            return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
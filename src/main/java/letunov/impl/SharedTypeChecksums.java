@@ -0,0 +1,167 @@
+package letunov.impl;
+
+import letunov.impl.data.TraversalPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM-scoped cache of DTO class checksums, so a daemon JVM running many builds computes the checksums of DTOs from
+ * third-party jars once. A checksum is kept only when the type and every type reachable from it come from dependency
+ * jars or the JDK, and it records for each of those types the jar it was read from with its size and modification
+ * time. It is reused only while every reachable type still resolves to the same unchanged jar, so types of the
+ * project output directories are always computed again. Contract checksums are kept the same way, so the modules
+ * of a reactor sharing a contract jar compute its checksums once. The caches are bounded by the total number of
+ * recorded types.
+ * <p>
+ * An instance is the view of one scan: it resolves types through the project class loader and stats every jar once.
+ */
+@Slf4j
+public class SharedTypeChecksums {
+    public static final long DEFAULT_MAX_TYPES = 1_000_000;
+
+    // Source of the JDK types and of the types without a class file, primitives and arrays
+    private static final String JDK_SOURCE = "jrt";
+    private static final String NO_SOURCE = "";
+    private static final LruCache<Key, Entry> checksums = new LruCache<>(DEFAULT_MAX_TYPES, entry -> entry.sources().size());
+    private static final LruCache<ContractKey, ContractEntry> contractChecksums = new LruCache<>(DEFAULT_MAX_TYPES,
+        entry -> entry.sources().size());
+
+    private final ClassLoader classLoader;
+    private final Map<String, Optional<String>> typeSources = new ConcurrentHashMap<>();
+    private final Map<String, Optional<String>> jarStamps = new ConcurrentHashMap<>();
+
+    public SharedTypeChecksums(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public Long getChecksum(String typeName, TraversalPolicy traversalPolicy, int depth) {
+        var key = new Key(typeName, traversalPolicy, depth);
+        var entry = checksums.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!isUpToDate(typeName, entry.sources())) {
+            checksums.remove(key);
+            return null;
+        }
+        return entry.checksum();
+    }
+
+    public String getContractChecksum(String contractName, TraversalPolicy traversalPolicy) {
+        var key = new ContractKey(contractName, traversalPolicy);
+        var entry = contractChecksums.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!isUpToDate(contractName, entry.sources())) {
+            contractChecksums.remove(key);
+            return null;
+        }
+        return entry.checksum();
+    }
+
+    // Whether the type comes from a jar or the JDK, so its checksum may be kept
+    public boolean isShareable(String typeName) {
+        return getTypeSource(typeName).isPresent();
+    }
+
+    public void putChecksum(String typeName, TraversalPolicy traversalPolicy, int depth, long checksum,
+        Set<String> reachableTypes) {
+        getSources(reachableTypes).ifPresent(sources ->
+            checksums.put(new Key(typeName, traversalPolicy, depth), new Entry(checksum, sources)));
+    }
+
+    public void putContractChecksum(String contractName, TraversalPolicy traversalPolicy, String checksum,
+        Set<String> contractTypes) {
+        getSources(contractTypes).ifPresent(sources ->
+            contractChecksums.put(new ContractKey(contractName, traversalPolicy), new ContractEntry(checksum, sources)));
+    }
+
+    public static void clear() {
+        checksums.clear();
+        contractChecksums.clear();
+    }
+
+    public static void setMaxTypes(long maxTypes) {
+        checksums.setMaxWeight(maxTypes);
+        contractChecksums.setMaxWeight(maxTypes);
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private record Key(String typeName, TraversalPolicy traversalPolicy, int depth) { }
+
+    private record Entry(long checksum, Map<String, String> sources) { }
+
+    private record ContractKey(String contractName, TraversalPolicy traversalPolicy) { }
+
+    private record ContractEntry(String checksum, Map<String, String> sources) { }
+
+    private boolean isUpToDate(String cachedName, Map<String, String> sources) {
+        for (var source : sources.entrySet()) {
+            if (!getTypeSource(source.getKey()).map(source.getValue()::equals).orElse(false)) {
+                log.debug("[SharedTypeChecksums] {} changed since the checksum of {} was cached", source.getKey(), cachedName);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Empty if any of the types is not shareable
+    private Optional<Map<String, String>> getSources(Set<String> types) {
+        Map<String, String> sources = new HashMap<>();
+        for (var type : types) {
+            var source = getTypeSource(type);
+            if (source.isEmpty()) {
+                return Optional.empty();
+            }
+            sources.put(type, source.get());
+        }
+        return Optional.of(Map.copyOf(sources));
+    }
+
+    // The jar with its size and modification time, empty for a class of a directory, which is never shared
+    private Optional<String> getTypeSource(String typeName) {
+        return typeSources.computeIfAbsent(typeName, name -> {
+            var resource = classLoader.getResource(name.replace('.', '/') + ".class");
+            if (resource == null) {
+                return Optional.of(NO_SOURCE);
+            }
+            return switch (resource.getProtocol()) {
+                case "jrt" -> Optional.of(JDK_SOURCE);
+                case "jar" -> getJarStamp(resource);
+                default -> Optional.empty();
+            };
+        });
+    }
+
+    private Optional<String> getJarStamp(URL resource) {
+        var location = resource.getPath();
+        var separatorIndex = location.indexOf("!/");
+        var jar = separatorIndex >= 0 ? location.substring(0, separatorIndex) : location;
+        return jarStamps.computeIfAbsent(jar, this::readJarStamp);
+    }
+
+    private Optional<String> readJarStamp(String jarLocation) {
+        try {
+            Path jar = Paths.get(new URL(jarLocation).toURI());
+            return Optional.of(jar + "|" + Files.size(jar) + "|" + Files.getLastModifiedTime(jar).toMillis());
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            log.debug("[SharedTypeChecksums] Unable to stat {}, its types are not cached", jarLocation, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import letunov.impl.data.FileStamp;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ScanSettings;
+import letunov.impl.data.UpToDateMarker;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.project.MavenProject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Skips the scan when the inputs of a goal are the same as in its last successful run. The input fingerprint covers
+ * the files of the project output directory, the coordinates and contents of the dependencies, the scan settings and
+ * the Java version. A dependency resolved to the output directory of a reactor sibling contributes the files of that
+ * directory. Contents are hashed, so a rebuild producing identical class files keeps the fingerprint, but a file whose
+ * size and modification time match the previous run reuses its previous hash instead of being read.
+ */
+@Slf4j
+public class UpToDateCheck {
+    private static final int VERSION = 1;
+    private static final String JAVA_VERSION = System.getProperty("java.version");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path markerFile;
+    private final UpToDateMarker previousMarker;
+    private String fingerprint;
+    private Map<String, FileStamp> files = Map.of();
+
+    public UpToDateCheck(Path markerFile) {
+        this.markerFile = markerFile;
+        this.previousMarker = load();
+    }
+
+    public String computeFingerprint(MavenProject project, ScanSettings scanSettings) {
+        return computeFingerprint(project.getName(), Paths.get(project.getBuild().getOutputDirectory()),
+            ProjectClassesManager.getArtifacts(project), scanSettings);
+    }
+
+    public String computeFingerprint(String projectName, Path outputDirectory, Collection<Artifact> dependencies,
+        ScanSettings scanSettings) {
+        Map<String, FileStamp> stamps = new HashMap<>();
+        var input = new StringBuilder()
+            .append("version=").append(VERSION).append('\n')
+            .append("java=").append(JAVA_VERSION).append('\n')
+            .append("project=").append(projectName).append('\n')
+            .append("settings=").append(scanSettings).append('\n');
+
+        appendDirectoryFiles(input, stamps, "class=", outputDirectory);
+        var artifacts = dependencies.stream()
+            .sorted(Comparator.comparing(Artifact::getId))
+            .toList();
+        for (var artifact : artifacts) {
+            input.append("dependency=").append(artifact.getId());
+            var file = artifact.getFile() == null ? null : artifact.getFile().toPath();
+            if (file != null && Files.isRegularFile(file)) {
+                var stamp = getFileStamp(file);
+                stamps.put(file.toString(), stamp);
+                input.append(' ').append(stamp.size()).append(' ').append(stamp.hash());
+            }
+            input.append('\n');
+            // A reactor sibling resolved to its output directory instead of a jar
+            if (file != null && Files.isDirectory(file)) {
+                appendDirectoryFiles(input, stamps, "dependency-class=", file);
+            }
+        }
+
+        fingerprint = ChecksumUtil.getBytesChecksum(input.toString().getBytes(StandardCharsets.UTF_8));
+        files = stamps;
+        return fingerprint;
+    }
+
+    // The same inputs checked against another marker, without reading them again
+    public void adoptFingerprint(UpToDateCheck computed) {
+        fingerprint = computed.fingerprint;
+        files = computed.files;
+    }
+
+    // Contracts of the last successful run if its inputs are the same, null otherwise
+    public MicroserviceContractsInfo getUpToDateContractsInfo() {
+        return isUpToDate() ? previousMarker.contractsInfo() : null;
+    }
+
+    public boolean isRequestUpToDate(String requestKey) {
+        return isUpToDate() && Objects.equals(previousMarker.requestKey(), requestKey);
+    }
+
+    public void save(MicroserviceContractsInfo contractsInfo, String requestKey) {
+        if (fingerprint == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(markerFile.getParent());
+            objectMapper.writeValue(markerFile.toFile(), new UpToDateMarker(VERSION, fingerprint, files, contractsInfo, requestKey));
+            log.debug("[UpToDateCheck] Marker saved to {}", markerFile);
+        } catch (IOException e) {
+            log.warn("[UpToDateCheck] Unable to save the up-to-date marker {}", markerFile, e);
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private boolean isUpToDate() {
+        return previousMarker != null && fingerprint != null && fingerprint.equals(previousMarker.fingerprint());
+    }
+
+    private UpToDateMarker load() {
+        if (!Files.isRegularFile(markerFile)) {
+            return null;
+        }
+        try {
+            var marker = objectMapper.readValue(markerFile.toFile(), UpToDateMarker.class);
+            return marker.version() == VERSION ? marker : null;
+        } catch (IOException e) {
+            log.warn("[UpToDateCheck] Unable to read the up-to-date marker {}, the goal runs in full", markerFile, e);
+            return null;
+        }
+    }
+
+    private void appendDirectoryFiles(StringBuilder input, Map<String, FileStamp> stamps, String prefix, Path directory) {
+        for (var file : getOutputFiles(directory)) {
+            var stamp = getFileStamp(file);
+            stamps.put(file.toString(), stamp);
+            input.append(prefix).append(directory.relativize(file).toString().replace('\\', '/'))
+                .append(' ').append(stamp.size()).append(' ').append(stamp.hash()).append('\n');
+        }
+    }
+
+    private List<Path> getOutputFiles(Path outputDirectory) {
+        if (!Files.isDirectory(outputDirectory)) {
+            return List.of();
+        }
+        try (var walk = Files.walk(outputDirectory)) {
+            return walk.filter(Files::isRegularFile).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileStamp getFileStamp(Path file) {
+        try {
+            var size = Files.size(file);
+            var lastModified = Files.getLastModifiedTime(file).toMillis();
+            var previous = previousMarker == null ? null : previousMarker.files().get(file.toString());
+            if (previous != null && previous.size() == size && previous.lastModified() == lastModified) {
+                return previous;
+            }
+            return new FileStamp(size, lastModified, ChecksumUtil.getBytesChecksum(Files.readAllBytes(file)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
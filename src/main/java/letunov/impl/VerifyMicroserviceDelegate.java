@@ -0,0 +1,83 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import letunov.exception.ContractSnapshotMismatchException;
+import letunov.impl.data.ContractsSnapshot;
+import letunov.impl.data.MicroserviceContractsInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends only the difference between the contracts and the last snapshot acknowledged by the server for the same
+ * change graph. The delta carries the hash of the snapshot it is based on; when the server rejects it because its
+ * state differs, the full contracts are sent instead. The snapshot is replaced after every acknowledged request.
+ */
+@Slf4j
+public class VerifyMicroserviceDelegate {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MicroserviceIntegrityServerClient client;
+    private final Path snapshotFile;
+
+    public VerifyMicroserviceDelegate(MicroserviceIntegrityServerClient client, Path snapshotFile) {
+        this.client = client;
+        this.snapshotFile = snapshotFile;
+    }
+
+    public CompletableFuture<Void> execute(MicroserviceContractsInfo contractsInfo, String graphId) {
+        var request = loadSnapshot(graphId)
+            .map(snapshot -> sendDelta(snapshot, contractsInfo, graphId))
+            .orElseGet(() -> {
+                log.debug("[VerifyMicroserviceDelegate] No snapshot for the change graph {}, sending all contracts", graphId);
+                return client.verifyMicroserviceAsync(contractsInfo, graphId);
+            });
+        return request.thenRun(() -> saveSnapshot(contractsInfo, graphId));
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private CompletableFuture<Void> sendDelta(ContractsSnapshot snapshot, MicroserviceContractsInfo contractsInfo, String graphId) {
+        var delta = ContractsDeltaUtil.getDelta(snapshot.contractsInfo(), contractsInfo);
+        log.debug("[VerifyMicroserviceDelegate] Sending the delta to the snapshot {}: {}", snapshot.version(), delta);
+        return client.verifyMicroserviceDeltaAsync(delta, graphId)
+            .exceptionallyCompose(e -> {
+                var cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof ContractSnapshotMismatchException) {
+                    log.info("[VerifyMicroserviceDelegate] The server state differs from the snapshot {}, sending all contracts",
+                        snapshot.version());
+                    return client.verifyMicroserviceAsync(contractsInfo, graphId);
+                }
+                return CompletableFuture.failedFuture(cause);
+            });
+    }
+
+    private Optional<ContractsSnapshot> loadSnapshot(String graphId) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return Optional.empty();
+        }
+        try {
+            var snapshot = objectMapper.readValue(snapshotFile.toFile(), ContractsSnapshot.class);
+            return Optional.of(snapshot).filter(loaded -> loaded.graphId().equals(graphId));
+        } catch (IOException e) {
+            log.warn("[VerifyMicroserviceDelegate] Unable to read the snapshot {}, all contracts are sent", snapshotFile, e);
+            return Optional.empty();
+        }
+    }
+
+    private void saveSnapshot(MicroserviceContractsInfo contractsInfo, String graphId) {
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            objectMapper.writeValue(snapshotFile.toFile(),
+                new ContractsSnapshot(graphId, ContractsDeltaUtil.getVersion(contractsInfo), contractsInfo));
+        } catch (IOException e) {
+            log.warn("[VerifyMicroserviceDelegate] Unable to save the snapshot {}", snapshotFile, e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package letunov.impl;
+
+import org.apache.maven.project.MavenProject;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class WorkDirectoryUtil {
+    private static final String WORK_DIRECTORY = "contract-scanner";
+    private static final String CHECKSUM_CACHE_FILE = "checksum-cache.json";
+    private static final String VERIFY_SNAPSHOT_FILE = "verify-snapshot.json";
+    private static final String CONTRACTS_SNAPSHOT_FILE = "contracts.snapshot";
+    private static final String REACTOR_SNAPSHOT_FILE = "reactor.snapshot";
+    private static final String METRICS_FILE = "metrics.json";
+    private static final String UP_TO_DATE_MARKER_FILE = "%s.up-to-date.json";
+    private static final String CONTRACT_SHAPES_FILE = "contract-shapes.json";
+    private static final String CONTRACT_DIFF_FILE = "contract-diff.txt";
+
+    public static Path getWorkDirectory(MavenProject project) {
+        return Paths.get(project.getBuild().getDirectory(), WORK_DIRECTORY);
+    }
+
+    public static Path getChecksumCacheFile(MavenProject project) {
+        return getWorkDirectory(project).resolve(CHECKSUM_CACHE_FILE);
+    }
+
+    public static Path getVerifySnapshotFile(MavenProject project) {
+        return getWorkDirectory(project).resolve(VERIFY_SNAPSHOT_FILE);
+    }
+
+    public static Path getContractsSnapshotFile(MavenProject project) {
+        return getWorkDirectory(project).resolve(CONTRACTS_SNAPSHOT_FILE);
+    }
+
+    public static Path getReactorSnapshotFile(MavenProject project) {
+        return getWorkDirectory(project).resolve(REACTOR_SNAPSHOT_FILE);
+    }
+
+    public static Path getMetricsFile(MavenProject project) {
+        return getWorkDirectory(project).resolve(METRICS_FILE);
+    }
+
+    public static Path getUpToDateMarkerFile(MavenProject project, String goal) {
+        return getWorkDirectory(project).resolve(UP_TO_DATE_MARKER_FILE.formatted(goal));
+    }
+
+    public static Path getContractShapesFile(MavenProject project) {
+        return getWorkDirectory(project).resolve(CONTRACT_SHAPES_FILE);
+    }
+
+    public static Path getContractDiffFile(MavenProject project) {
+        return getWorkDirectory(project).resolve(CONTRACT_DIFF_FILE);
+    }
+}
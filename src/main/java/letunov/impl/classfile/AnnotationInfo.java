@@ -0,0 +1,5 @@
+package letunov.impl.classfile;
+
+import java.util.Map;
+
+public record AnnotationInfo(String descriptor, Map<String, Object> values) { }
@@ -0,0 +1,3 @@
+package letunov.impl.classfile;
+
+public record ClassConstant(String descriptor) { }
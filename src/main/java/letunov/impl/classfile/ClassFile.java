@@ -0,0 +1,26 @@
+package letunov.impl.classfile;
+
+import java.util.List;
+
+public record ClassFile(
+    int accessFlags,
+    String name,
+    String superName,
+    List<String> interfaces,
+    List<AnnotationInfo> annotations,
+    List<MemberInfo> fields,
+    List<MemberInfo> methods
+) {
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_INTERFACE = 0x0200;
+    public static final int ACC_ENUM = 0x4000;
+
+    public boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isEnum() {
+        return (accessFlags & ACC_ENUM) != 0;
+    }
+}
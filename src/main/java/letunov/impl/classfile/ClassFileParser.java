@@ -0,0 +1,270 @@
+package letunov.impl.classfile;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal class-file reader. It keeps only what the contract model needs: names, super types, member descriptors and
+ * the Signature, RuntimeVisibleAnnotations, RuntimeVisibleParameterAnnotations, MethodParameters and AnnotationDefault
+ * attributes. Constant-pool strings are decoded lazily and every other attribute is skipped by its length.
+ */
+public class ClassFileParser {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final ByteBuffer buffer;
+    private int[] offsets;
+    private String[] strings;
+
+    private ClassFileParser(byte[] bytes) {
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    public static ClassFile parse(byte[] bytes) {
+        return new ClassFileParser(bytes).parse();
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private ClassFile parse() {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+        buffer.getShort();
+        buffer.getShort();
+        readConstantPool();
+
+        var accessFlags = u2();
+        var name = getClassName(u2());
+        var superIndex = u2();
+        var superName = superIndex == 0 ? null : getClassName(superIndex);
+        var interfacesCount = u2();
+        List<String> interfaces = new ArrayList<>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaces.add(getClassName(u2()));
+        }
+        var fields = readMembers();
+        var methods = readMembers();
+
+        List<AnnotationInfo> annotations = List.of();
+        var attributesCount = u2();
+        for (int i = 0; i < attributesCount; i++) {
+            var attributeName = getUtf8(u2());
+            var length = buffer.getInt();
+            var end = buffer.position() + length;
+            if (attributeName.equals("RuntimeVisibleAnnotations")) {
+                annotations = readAnnotations();
+            }
+            buffer.position(end);
+        }
+        return new ClassFile(accessFlags, name, superName, interfaces, annotations, fields, methods);
+    }
+
+    private void readConstantPool() {
+        var count = u2();
+        offsets = new int[count];
+        strings = new String[count];
+        for (int i = 1; i < count; i++) {
+            var tag = u1();
+            offsets[i] = buffer.position();
+            switch (tag) {
+                case CONSTANT_UTF8 -> skip(u2());
+                case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> skip(2);
+                case CONSTANT_METHOD_HANDLE -> skip(3);
+                case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+                    skip(8);
+                    i++;
+                }
+                case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELD_REF, CONSTANT_METHOD_REF, CONSTANT_INTERFACE_METHOD_REF,
+                    CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> skip(4);
+                default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private List<MemberInfo> readMembers() {
+        var count = u2();
+        List<MemberInfo> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var accessFlags = u2();
+            var name = getUtf8(u2());
+            var descriptor = getUtf8(u2());
+            String signature = null;
+            List<AnnotationInfo> annotations = List.of();
+            List<List<AnnotationInfo>> parameterAnnotations = List.of();
+            List<String> parameterNames = null;
+            Object annotationDefault = null;
+
+            var attributesCount = u2();
+            for (int j = 0; j < attributesCount; j++) {
+                var attributeName = getUtf8(u2());
+                var length = buffer.getInt();
+                var end = buffer.position() + length;
+                switch (attributeName) {
+                    case "Signature" -> signature = getUtf8(u2());
+                    case "RuntimeVisibleAnnotations" -> annotations = readAnnotations();
+                    case "RuntimeVisibleParameterAnnotations" -> parameterAnnotations = readParameterAnnotations();
+                    case "MethodParameters" -> parameterNames = readParameterNames();
+                    case "AnnotationDefault" -> annotationDefault = readElementValue();
+                    default -> { }
+                }
+                buffer.position(end);
+            }
+            members.add(new MemberInfo(accessFlags, name, descriptor, signature, annotations, parameterAnnotations,
+                parameterNames, annotationDefault));
+        }
+        return members;
+    }
+
+    private List<List<AnnotationInfo>> readParameterAnnotations() {
+        var count = u1();
+        List<List<AnnotationInfo>> parameterAnnotations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            parameterAnnotations.add(readAnnotations());
+        }
+        return parameterAnnotations;
+    }
+
+    private List<String> readParameterNames() {
+        var count = u1();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var nameIndex = u2();
+            u2();
+            names.add(nameIndex == 0 ? null : getUtf8(nameIndex));
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    private List<AnnotationInfo> readAnnotations() {
+        var count = u2();
+        List<AnnotationInfo> annotations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            annotations.add(readAnnotation());
+        }
+        return annotations;
+    }
+
+    private AnnotationInfo readAnnotation() {
+        var descriptor = getUtf8(u2());
+        var count = u2();
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            var name = getUtf8(u2());
+            values.put(name, readElementValue());
+        }
+        return new AnnotationInfo(descriptor, values);
+    }
+
+    private Object readElementValue() {
+        var tag = (char) u1();
+        return switch (tag) {
+            case 's' -> getUtf8(u2());
+            case 'Z' -> getInt(u2()) != 0;
+            case 'B' -> (byte) getInt(u2());
+            case 'C' -> (char) getInt(u2());
+            case 'S' -> (short) getInt(u2());
+            case 'I' -> getInt(u2());
+            case 'J' -> buffer.getLong(offsets[u2()]);
+            case 'F' -> Float.intBitsToFloat(getInt(u2()));
+            case 'D' -> Double.longBitsToDouble(buffer.getLong(offsets[u2()]));
+            case 'e' -> new EnumConstant(getUtf8(u2()), getUtf8(u2()));
+            case 'c' -> new ClassConstant(getUtf8(u2()));
+            case '@' -> readAnnotation();
+            case '[' -> {
+                var count = u2();
+                List<Object> values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    values.add(readElementValue());
+                }
+                yield values;
+            }
+            default -> throw new IllegalArgumentException("Unknown element value tag " + tag);
+        };
+    }
+
+    private String getClassName(int index) {
+        return getUtf8(buffer.getShort(offsets[index]) & 0xFFFF).replace('/', '.');
+    }
+
+    private int getInt(int index) {
+        return buffer.getInt(offsets[index]);
+    }
+
+    private String getUtf8(int index) {
+        var string = strings[index];
+        if (string == null) {
+            string = decodeUtf8(offsets[index]);
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    // Constant-pool strings use modified UTF-8, which only differs from UTF-8 for U+0000 and supplementary characters
+    private String decodeUtf8(int offset) {
+        var length = buffer.getShort(offset) & 0xFFFF;
+        var start = offset + 2;
+        var array = buffer.array();
+        var ascii = true;
+        for (int i = start; i < start + length; i++) {
+            if (array[i] < 0) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return new String(array, start, length, StandardCharsets.ISO_8859_1);
+        }
+
+        var chars = new char[length];
+        var count = 0;
+        var position = start;
+        while (position < start + length) {
+            int b = array[position++] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (array[position++] & 0x3F));
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((array[position++] & 0x3F) << 6) | (array[position++] & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private int u1() {
+        return buffer.get() & 0xFF;
+    }
+
+    private int u2() {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private void skip(int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+}
@@ -0,0 +1,3 @@
+package letunov.impl.classfile;
+
+public record EnumConstant(String typeDescriptor, String name) { }
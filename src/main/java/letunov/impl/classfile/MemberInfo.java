@@ -0,0 +1,22 @@
+package letunov.impl.classfile;
+
+import java.util.List;
+
+public record MemberInfo(
+    int accessFlags,
+    String name,
+    String descriptor,
+    String signature,
+    List<AnnotationInfo> annotations,
+    List<List<AnnotationInfo>> parameterAnnotations,
+    List<String> parameterNames,
+    Object annotationDefault
+) {
+    public boolean isPublic() {
+        return (accessFlags & ClassFile.ACC_PUBLIC) != 0;
+    }
+
+    public boolean isStatic() {
+        return (accessFlags & ClassFile.ACC_STATIC) != 0;
+    }
+}
@@ -0,0 +1,7 @@
+package letunov.impl.classfile;
+
+import letunov.impl.model.TypeRef;
+
+import java.util.List;
+
+public record MethodSignature(List<TypeRef> parameterTypes, TypeRef returnType) { }
@@ -0,0 +1,159 @@
+package letunov.impl.classfile;
+
+import letunov.impl.model.ClassRef;
+import letunov.impl.model.GenericArrayRef;
+import letunov.impl.model.ParameterizedRef;
+import letunov.impl.model.TypeRef;
+import letunov.impl.model.TypeVariableRef;
+import letunov.impl.model.WildcardRef;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses field and method descriptors and generic signatures (JVMS 4.7.9.1) into {@link TypeRef}s shaped the way
+ * {@code java.lang.reflect} reifies them: arrays of non-generic components are plain classes, a class type becomes
+ * parameterized as soon as one of its segments has type arguments, and {@code ? extends Object} is unbounded.
+ */
+public class SignatureParser {
+    private static final ClassRef OBJECT = new ClassRef("java.lang.Object");
+
+    private final String signature;
+    private int position;
+
+    private SignatureParser(String signature) {
+        this.signature = signature;
+    }
+
+    public static TypeRef parseFieldSignature(String signature) {
+        return new SignatureParser(signature).parseType();
+    }
+
+    public static MethodSignature parseMethodSignature(String signature) {
+        var parser = new SignatureParser(signature);
+        parser.skipTypeParameters();
+        parser.expect('(');
+        List<TypeRef> parameterTypes = new ArrayList<>();
+        while (parser.peek() != ')') {
+            parameterTypes.add(parser.parseType());
+        }
+        parser.expect(')');
+        return new MethodSignature(parameterTypes, parser.parseType());
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private TypeRef parseType() {
+        var tag = signature.charAt(position++);
+        return switch (tag) {
+            case 'Z' -> new ClassRef("boolean");
+            case 'B' -> new ClassRef("byte");
+            case 'C' -> new ClassRef("char");
+            case 'S' -> new ClassRef("short");
+            case 'I' -> new ClassRef("int");
+            case 'J' -> new ClassRef("long");
+            case 'F' -> new ClassRef("float");
+            case 'D' -> new ClassRef("double");
+            case 'V' -> new ClassRef("void");
+            case 'L' -> parseClassType();
+            case 'T' -> new TypeVariableRef(readUntil(';'));
+            case '[' -> {
+                var componentType = parseType();
+                yield componentType instanceof ClassRef classRef
+                    ? new ClassRef(classRef.name() + "[]")
+                    : new GenericArrayRef(componentType);
+            }
+            default -> throw new IllegalArgumentException("Malformed signature " + signature);
+        };
+    }
+
+    private TypeRef parseClassType() {
+        var name = new StringBuilder();
+        List<TypeRef> arguments = List.of();
+        var parameterized = false;
+        while (true) {
+            var start = position;
+            while (";<.".indexOf(signature.charAt(position)) < 0) {
+                position++;
+            }
+            name.append(signature, start, position);
+            arguments = List.of();
+            if (signature.charAt(position) == '<') {
+                arguments = parseTypeArguments();
+                parameterized = true;
+            }
+            if (signature.charAt(position) == '.') {
+                position++;
+                name.append('$');
+                continue;
+            }
+            expect(';');
+            break;
+        }
+        var rawName = name.toString().replace('/', '.');
+        return parameterized ? new ParameterizedRef(rawName, arguments) : new ClassRef(rawName);
+    }
+
+    private List<TypeRef> parseTypeArguments() {
+        expect('<');
+        List<TypeRef> arguments = new ArrayList<>();
+        while (peek() != '>') {
+            var wildcard = peek();
+            switch (wildcard) {
+                case '*' -> {
+                    position++;
+                    arguments.add(new WildcardRef(null, null));
+                }
+                case '+' -> {
+                    position++;
+                    var upperBound = parseType();
+                    arguments.add(new WildcardRef(OBJECT.equals(upperBound) ? null : upperBound, null));
+                }
+                case '-' -> {
+                    position++;
+                    arguments.add(new WildcardRef(null, parseType()));
+                }
+                default -> arguments.add(parseType());
+            }
+        }
+        expect('>');
+        return arguments;
+    }
+
+    private void skipTypeParameters() {
+        if (peek() != '<') {
+            return;
+        }
+        position++;
+        while (peek() != '>') {
+            readUntil(':');
+            position--;
+            while (peek() == ':') {
+                position++;
+                if (peek() != ':') {
+                    parseType();
+                }
+            }
+        }
+        position++;
+    }
+
+    private String readUntil(char terminator) {
+        var end = signature.indexOf(terminator, position);
+        var value = signature.substring(position, end);
+        position = end + 1;
+        return value;
+    }
+
+    private char peek() {
+        return signature.charAt(position);
+    }
+
+    private void expect(char expected) {
+        if (signature.charAt(position++) != expected) {
+            throw new IllegalArgumentException("Malformed signature " + signature);
+        }
+    }
+}
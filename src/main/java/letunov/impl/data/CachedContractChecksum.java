@@ -0,0 +1,8 @@
+package letunov.impl.data;
+
+import java.util.Map;
+
+public record CachedContractChecksum(
+    String checksum,
+    Map<String, ClassFileStamp> inputs
+) { }
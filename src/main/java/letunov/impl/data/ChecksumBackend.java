@@ -0,0 +1,6 @@
+package letunov.impl.data;
+
+public enum ChecksumBackend {
+    REFLECTION,
+    CLASS_FILE
+}
@@ -0,0 +1,3 @@
+package letunov.impl.data;
+
+public record ClassFileStamp(String source, String hash) { }
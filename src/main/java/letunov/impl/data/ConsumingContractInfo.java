@@ -1,8 +1,16 @@
 package letunov.impl.data;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record ConsumingContractInfo(
     String name,
     String serviceName,
     DependencyInfo dependency,
-    String checksum
-) { }
+    String checksum,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    ContractFingerprint fingerprint
+) {
+    public ConsumingContractInfo(String name, String serviceName, DependencyInfo dependency, String checksum) {
+        this(name, serviceName, dependency, checksum, null);
+    }
+}
@@ -0,0 +1,14 @@
+package letunov.impl.data;
+
+public record ContractChange(
+    String contract,
+    ContractSide side,
+    // Method signature, "signature parameter" or "type.field" the change is about
+    String element,
+    ContractChangeKind kind,
+    String before,
+    String after,
+    // Whether calls written against the baseline keep working: of the consumers for a providing contract, of the
+    // microservice itself against the provider for a consuming one
+    boolean compatible
+) { }
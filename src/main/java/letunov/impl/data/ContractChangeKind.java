@@ -0,0 +1,28 @@
+package letunov.impl.data;
+
+public enum ContractChangeKind {
+    // A contract not in the baseline
+    NEW_CONTRACT,
+    // A contract of the baseline no longer provided or consumed
+    REMOVED_CONTRACT,
+    NEW_ENDPOINT,
+    REMOVED_ENDPOINT,
+    // Paths of the mapping
+    CHANGED_PATH,
+    // HTTP methods, params, headers, consumes or produces of the mapping, or how a parameter is bound
+    CHANGED_MAPPING,
+    NEW_PARAMETER,
+    REMOVED_PARAMETER,
+    // Required flag of a @RequestParam, @PathVariable or @RequestBody
+    CHANGED_REQUIRED,
+    // Return, parameter or field type
+    CHANGED_TYPE,
+    // A getter field added to a DTO, absent from the payloads of older clients
+    NEW_OPTIONAL_FIELD,
+    REMOVED_FIELD;
+
+    // Adds to the contract without changing or removing anything of the baseline
+    public boolean isAdditive() {
+        return this == NEW_CONTRACT || this == NEW_ENDPOINT || this == NEW_PARAMETER || this == NEW_OPTIONAL_FIELD;
+    }
+}
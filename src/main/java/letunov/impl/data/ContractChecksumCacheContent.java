@@ -0,0 +1,10 @@
+package letunov.impl.data;
+
+import java.util.Map;
+
+public record ContractChecksumCacheContent(
+    int version,
+    String javaVersion,
+    TraversalPolicy traversalPolicy,
+    Map<String, CachedContractChecksum> contracts
+) { }
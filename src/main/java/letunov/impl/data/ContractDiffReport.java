@@ -0,0 +1,18 @@
+package letunov.impl.data;
+
+import java.util.List;
+
+public record ContractDiffReport(
+    String baseline,
+    List<ContractChange> changes
+) {
+    public boolean isCompatible() {
+        return changes.stream().allMatch(ContractChange::compatible);
+    }
+
+    // Whether the changes only add to the provided contracts, so neither consumers nor providers can tell the difference
+    public boolean isAdditive() {
+        return changes.stream().allMatch(change -> change.compatible() && change.side() == ContractSide.PROVIDING
+            && change.kind().isAdditive());
+    }
+}
@@ -0,0 +1,10 @@
+package letunov.impl.data;
+
+import java.util.List;
+import java.util.Map;
+
+public record ContractFingerprint(
+    String digest,
+    List<MethodFingerprint> methods,
+    Map<String, String> types
+) { }
@@ -0,0 +1,12 @@
+package letunov.impl.data;
+
+import java.util.List;
+import java.util.Map;
+
+public record ContractShape(
+    String name,
+    ContractSide side,
+    List<EndpointShape> endpoints,
+    // Getter fields with their declared types of every DTO walked into, by type name
+    Map<String, Map<String, String>> types
+) { }
@@ -0,0 +1,8 @@
+package letunov.impl.data;
+
+public enum ContractSide {
+    // A contract the microservice provides, changes must keep the calls of its consumers working
+    PROVIDING,
+    // A contract the microservice consumes, changes must keep its calls working against the provider
+    CONSUMING
+}
@@ -0,0 +1,15 @@
+package letunov.impl.data;
+
+import java.util.List;
+
+public record ContractsDelta(
+    String microserviceName,
+    String baseVersion,
+    String version,
+    List<ProvidingContractInfo> addedProviding,
+    List<ProvidingContractInfo> changedProviding,
+    List<ProvidingContractInfo> removedProviding,
+    List<ConsumingContractInfo> addedConsuming,
+    List<ConsumingContractInfo> changedConsuming,
+    List<ConsumingContractInfo> removedConsuming
+) { }
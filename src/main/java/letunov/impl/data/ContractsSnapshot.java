@@ -0,0 +1,7 @@
+package letunov.impl.data;
+
+public record ContractsSnapshot(
+    String graphId,
+    String version,
+    MicroserviceContractsInfo contractsInfo
+) { }
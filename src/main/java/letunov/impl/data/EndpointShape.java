@@ -0,0 +1,15 @@
+package letunov.impl.data;
+
+import java.util.List;
+import java.util.Map;
+
+public record EndpointShape(
+    String signature,
+    String name,
+    List<String> httpMethods,
+    List<String> paths,
+    // Non-empty params, headers, consumes and produces of the mapping
+    Map<String, List<String>> conditions,
+    String returnType,
+    List<ParameterShape> parameters
+) { }
@@ -0,0 +1,3 @@
+package letunov.impl.data;
+
+public record FileStamp(long size, long lastModified, String hash) { }
@@ -0,0 +1,10 @@
+package letunov.impl.data;
+
+public enum GraphUpdateMode {
+    // Every module sends its own request as soon as it is scanned
+    PER_MODULE,
+    // The last module of the reactor sends the requests of all modules concurrently over the shared connection pool
+    PIPELINED,
+    // The last module of the reactor sends the contracts of all modules in one request
+    SINGLE_REQUEST
+}
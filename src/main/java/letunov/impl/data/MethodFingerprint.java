@@ -0,0 +1,10 @@
+package letunov.impl.data;
+
+import java.util.List;
+
+public record MethodFingerprint(
+    String signature,
+    String digest,
+    String returnTypeDigest,
+    List<ParameterFingerprint> parameters
+) { }
@@ -0,0 +1,12 @@
+package letunov.impl.data;
+
+public enum ParameterBinding {
+    // @RequestBody
+    BODY,
+    // @PathVariable
+    PATH,
+    // @RequestParam
+    QUERY,
+    // No binding annotation
+    NONE
+}
@@ -0,0 +1,6 @@
+package letunov.impl.data;
+
+public record ParameterFingerprint(
+    String name,
+    String digest
+) { }
@@ -0,0 +1,10 @@
+package letunov.impl.data;
+
+public record ParameterShape(
+    String name,
+    ParameterBinding binding,
+    // Name of the path variable or request parameter, null for other bindings
+    String bindingName,
+    boolean required,
+    String type
+) { }
@@ -0,0 +1,11 @@
+package letunov.impl.data;
+
+import java.util.Map;
+
+// Wall time summed over all runs of the phase, phases running concurrently overlap
+public record PhaseMetrics(
+    String name,
+    int runs,
+    long wallTimeNanos,
+    Map<String, Long> counters
+) { }
@@ -0,0 +1,8 @@
+package letunov.impl.data;
+
+import java.util.Map;
+
+public record PrecomputedContractChecksum(
+    String checksum,
+    Map<String, String> classFileHashes
+) { }
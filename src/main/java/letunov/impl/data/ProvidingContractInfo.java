@@ -1,7 +1,15 @@
 package letunov.impl.data;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record ProvidingContractInfo(
     String name,
     DependencyInfo dependency,
-    String checksum
-) { }
+    String checksum,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    ContractFingerprint fingerprint
+) {
+    public ProvidingContractInfo(String name, DependencyInfo dependency, String checksum) {
+        this(name, dependency, checksum, null);
+    }
+}
@@ -0,0 +1,11 @@
+package letunov.impl.data;
+
+import java.util.List;
+
+public record ScanMetricsReport(
+    String project,
+    String goal,
+    long startedAtMillis,
+    long wallTimeNanos,
+    List<PhaseMetrics> phases
+) { }
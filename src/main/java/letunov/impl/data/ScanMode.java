@@ -0,0 +1,8 @@
+package letunov.impl.data;
+
+public enum ScanMode {
+    // Only the output directory and the configured includes, providers and consumers of other jars are not found
+    TARGETED,
+    // The whole project classpath, dependency jars included
+    FULL_CLASSPATH
+}
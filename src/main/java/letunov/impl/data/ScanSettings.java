@@ -0,0 +1,17 @@
+package letunov.impl.data;
+
+import java.util.List;
+
+public record ScanSettings(
+    ScanMode scanMode,
+    List<String> includes,
+    boolean checksumCache,
+    int threads,
+    ChecksumBackend checksumBackend,
+    boolean contractFingerprints,
+    TraversalPolicy traversalPolicy,
+    boolean jvmCache,
+    boolean pipelined,
+    boolean checksumManifest,
+    boolean contractShapes
+) { }
@@ -0,0 +1,18 @@
+package letunov.impl.data;
+
+import java.time.Duration;
+
+public record ServerClientSettings(
+    Duration connectTimeout,
+    Duration readTimeout,
+    // Applies to each write of a request body, so large uploads are not cut off by the timeout meant for responses
+    Duration writeTimeout,
+    int retries,
+    Duration retryBackoff,
+    boolean gzip,
+    boolean async
+) {
+    public static ServerClientSettings defaults() {
+        return new ServerClientSettings(Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(60), 2, Duration.ofMillis(500), false, false);
+    }
+}
@@ -0,0 +1,40 @@
+package letunov.impl.data;
+
+import java.util.List;
+
+/**
+ * Decides which types of a contract are walked into, that is whose getter fields take part in the checksum. A type
+ * that is not walked into contributes only its name. {@link #LEGACY} walks into every type but the primitives, their
+ * wrappers and {@code String}, which is what the server expects unless all modules use the same policy.
+ *
+ * @param opaqueLibraryTypes types of the JDK and of common libraries, {@code LocalDateTime}, {@code BigDecimal},
+ *                           {@code Optional} or Jackson nodes, are opaque
+ * @param traversedPackages  when not empty, only types of these packages and their subpackages are walked into
+ * @param maxDepth           number of field levels walked into below a method signature, 0 for no limit
+ */
+public record TraversalPolicy(
+    boolean opaqueLibraryTypes,
+    List<String> traversedPackages,
+    int maxDepth
+) {
+    public static final TraversalPolicy LEGACY = new TraversalPolicy(false, List.of(), 0);
+
+    private static final List<String> LIBRARY_PACKAGES = List.of("java.", "javax.", "jakarta.", "jdk.", "sun.", "com.sun.",
+        "kotlin.", "scala.", "com.fasterxml.jackson.", "org.springframework.", "org.joda.time.", "com.google.protobuf.");
+
+    // Types directly in a method signature have the depth 0, the types of their fields 1 and so on
+    public boolean isTraversable(String typeName, int depth) {
+        if (maxDepth > 0 && depth >= maxDepth) {
+            return false;
+        }
+        if (opaqueLibraryTypes && LIBRARY_PACKAGES.stream().anyMatch(typeName::startsWith)) {
+            return false;
+        }
+        return traversedPackages.isEmpty()
+            || traversedPackages.stream().anyMatch(packageName -> typeName.startsWith(packageName + "."));
+    }
+
+    public boolean limitsDepth() {
+        return maxDepth > 0;
+    }
+}
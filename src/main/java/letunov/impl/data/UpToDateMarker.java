@@ -0,0 +1,20 @@
+package letunov.impl.data;
+
+import java.util.Map;
+
+/**
+ * Inputs and result of the last successful run of a goal.
+ *
+ * @param fingerprint   digest of the project output directory, the dependencies and the scan settings
+ * @param files         stamps of the inputs by path, a file whose size and modification time are unchanged is not hashed
+ *                      again
+ * @param contractsInfo contracts found by the run
+ * @param requestKey    request to the integrity server completed with these contracts, null if none was completed
+ */
+public record UpToDateMarker(
+    int version,
+    String fingerprint,
+    Map<String, FileStamp> files,
+    MicroserviceContractsInfo contractsInfo,
+    String requestKey
+) { }
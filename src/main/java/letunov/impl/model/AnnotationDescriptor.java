@@ -0,0 +1,19 @@
+package letunov.impl.model;
+
+import java.util.List;
+import java.util.Map;
+
+public record AnnotationDescriptor(String type, Map<String, Object> values) {
+    public String getString(String element) {
+        return (String) values.get(element);
+    }
+
+    public boolean getBoolean(String element) {
+        return (Boolean) values.get(element);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getStrings(String element) {
+        return (List<String>) values.get(element);
+    }
+}
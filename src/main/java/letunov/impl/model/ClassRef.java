@@ -0,0 +1,8 @@
+package letunov.impl.model;
+
+public record ClassRef(String name) implements TypeRef {
+    @Override
+    public String getTypeName() {
+        return name;
+    }
+}
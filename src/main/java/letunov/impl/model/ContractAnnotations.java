@@ -0,0 +1,24 @@
+package letunov.impl.model;
+
+import java.util.Set;
+
+public class ContractAnnotations {
+    private static final String PACKAGE = "org.springframework.web.bind.annotation.";
+
+    public static final String REQUEST_MAPPING = PACKAGE + "RequestMapping";
+    public static final String GET_MAPPING = PACKAGE + "GetMapping";
+    public static final String POST_MAPPING = PACKAGE + "PostMapping";
+    public static final String PUT_MAPPING = PACKAGE + "PutMapping";
+    public static final String DELETE_MAPPING = PACKAGE + "DeleteMapping";
+    public static final String PATCH_MAPPING = PACKAGE + "PatchMapping";
+    public static final String REQUEST_BODY = PACKAGE + "RequestBody";
+    public static final String PATH_VARIABLE = PACKAGE + "PathVariable";
+    public static final String REQUEST_PARAM = PACKAGE + "RequestParam";
+
+    public static final Set<String> ALL = Set.of(REQUEST_MAPPING, GET_MAPPING, POST_MAPPING, PUT_MAPPING, DELETE_MAPPING,
+        PATCH_MAPPING, REQUEST_BODY, PATH_VARIABLE, REQUEST_PARAM);
+
+    public static String getSimpleName(String annotationType) {
+        return annotationType.substring(annotationType.lastIndexOf('.') + 1);
+    }
+}
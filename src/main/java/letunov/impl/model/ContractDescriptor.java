@@ -0,0 +1,5 @@
+package letunov.impl.model;
+
+import java.util.List;
+
+public record ContractDescriptor(String name, List<MethodDescriptor> methods) { }
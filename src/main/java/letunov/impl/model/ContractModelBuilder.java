@@ -0,0 +1,15 @@
+package letunov.impl.model;
+
+import java.util.List;
+import java.util.Set;
+
+public interface ContractModelBuilder {
+    ContractDescriptor getContractDescriptor(String contractName);
+
+    List<FieldDescriptor> getDeclaredFields(String typeName);
+
+    Set<String> getPublicMethodNames(String typeName);
+
+    // Superclasses and interfaces of the type, direct and indirect, which its public methods may be inherited from
+    Set<String> getSupertypes(String typeName);
+}
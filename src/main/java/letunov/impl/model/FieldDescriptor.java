@@ -0,0 +1,3 @@
+package letunov.impl.model;
+
+public record FieldDescriptor(String name, ClassRef type, TypeRef genericType) { }
@@ -0,0 +1,8 @@
+package letunov.impl.model;
+
+public record GenericArrayRef(TypeRef componentType) implements TypeRef {
+    @Override
+    public String getTypeName() {
+        return componentType.getTypeName() + "[]";
+    }
+}
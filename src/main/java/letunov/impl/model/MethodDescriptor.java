@@ -0,0 +1,13 @@
+package letunov.impl.model;
+
+import java.util.List;
+
+public record MethodDescriptor(
+    String declaringType,
+    String name,
+    int modifiers,
+    List<AnnotationDescriptor> annotations,
+    List<ParameterDescriptor> parameters,
+    ClassRef returnType,
+    TypeRef genericReturnType
+) { }
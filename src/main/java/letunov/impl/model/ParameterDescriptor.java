@@ -0,0 +1,10 @@
+package letunov.impl.model;
+
+import java.util.List;
+
+public record ParameterDescriptor(
+    String name,
+    List<AnnotationDescriptor> annotations,
+    ClassRef type,
+    TypeRef genericType
+) { }
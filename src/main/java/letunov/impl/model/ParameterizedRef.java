@@ -0,0 +1,14 @@
+package letunov.impl.model;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+
+public record ParameterizedRef(String rawName, List<TypeRef> arguments) implements TypeRef {
+    @Override
+    public String getTypeName() {
+        return arguments.stream()
+            .map(TypeRef::getTypeName)
+            .collect(joining(", ", rawName + "<", ">"));
+    }
+}
@@ -0,0 +1,5 @@
+package letunov.impl.model;
+
+public sealed interface TypeRef permits ClassRef, ParameterizedRef, TypeVariableRef, WildcardRef, GenericArrayRef {
+    String getTypeName();
+}
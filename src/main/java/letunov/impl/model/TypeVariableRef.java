@@ -0,0 +1,8 @@
+package letunov.impl.model;
+
+public record TypeVariableRef(String name) implements TypeRef {
+    @Override
+    public String getTypeName() {
+        return name;
+    }
+}
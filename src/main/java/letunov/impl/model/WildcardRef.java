@@ -0,0 +1,14 @@
+package letunov.impl.model;
+
+public record WildcardRef(TypeRef upperBound, TypeRef lowerBound) implements TypeRef {
+    @Override
+    public String getTypeName() {
+        if (lowerBound != null) {
+            return "? super " + lowerBound.getTypeName();
+        }
+        if (upperBound != null) {
+            return "? extends " + upperBound.getTypeName();
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,295 @@
+package letunov.mojo;
+
+import letunov.impl.ContractDiffDelegate;
+import letunov.impl.JarClassNamesCache;
+import letunov.impl.MicroserviceIntegrityServerClient;
+import letunov.impl.ReactorGoalProgress;
+import letunov.impl.RetrieveMicroserviceContractsInfoDelegate;
+import letunov.impl.ScanMetrics;
+import letunov.impl.SharedTypeChecksums;
+import letunov.impl.UpToDateCheck;
+import letunov.impl.WorkDirectoryUtil;
+import letunov.impl.data.ChecksumBackend;
+import letunov.impl.data.ContractDiffReport;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ScanMode;
+import letunov.impl.data.ScanSettings;
+import letunov.impl.data.ServerClientSettings;
+import letunov.impl.data.TraversalPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.stream;
+
+@Slf4j
+public abstract class AbstractContractScannerMojo extends AbstractMojo {
+    // Project property holding the input fingerprint, for the build cache extension and the plugins running later
+    private static final String INPUT_FINGERPRINT_PROPERTY = "contractScanInputFingerprint";
+
+    @Parameter(defaultValue = "${project}", readonly = true)
+    protected MavenProject project;
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    protected List<MavenProject> reactorProjects;
+
+    // Only tells the builds of a Maven daemon apart, the plugin does not compile against maven-core
+    @Parameter(defaultValue = "${session}", readonly = true)
+    protected Object session;
+
+    @Parameter(defaultValue = "${session.goals}", readonly = true)
+    protected List<String> sessionGoals;
+
+    @Parameter(defaultValue = "${plugin.groupId}:${plugin.artifactId}", readonly = true)
+    protected String pluginKey;
+
+    protected final ScanMetrics scanMetrics = new ScanMetrics();
+
+    private UpToDateCheck upToDateCheck;
+    // Requests sent asynchronously are awaited by the last module of the reactor to finish the goal, so uploads
+    // overlap with the build of the remaining modules
+    private ReactorGoalProgress goalProgress;
+
+    // The last module of the reactor to finish the goal does the work left to the reactor and awaits the requests
+    // still running in the background. After a module has failed the goal, that work is abandoned and every module
+    // awaits the pending requests itself, a failing one included, so no request failure goes unreported
+    protected void executeGoal(String goal, Runnable goalBody) {
+        // Registered first, so a module returning early still counts towards the modules running the goal
+        goalProgress = ReactorGoalProgress.get(session, goal, () -> getGoalProjects(goal));
+        try {
+            goalBody.run();
+        } catch (RuntimeException | Error e) {
+            failModule(e);
+            throw e;
+        } finally {
+            reportMetrics(goal);
+        }
+        finishModule();
+    }
+
+    // Work left to the last module of the reactor to finish the goal, nothing by default
+    protected void completeReactor() {
+    }
+
+    protected ReactorGoalProgress getGoalProgress() {
+        return goalProgress;
+    }
+
+    protected MicroserviceContractsInfo retrieveMicroserviceContractsInfo(String goal) {
+        var delegate = new RetrieveMicroserviceContractsInfoDelegate();
+        var scanSettings = getScanSettings();
+        log.debug("Scan settings received: {}", scanSettings);
+        configureJvmCaches();
+        if (Boolean.parseBoolean(System.getProperty("contractUpToDateCheck", "true"))) {
+            upToDateCheck = new UpToDateCheck(WorkDirectoryUtil.getUpToDateMarkerFile(project, goal));
+            var fingerprint = scanMetrics.measure("inputFingerprint", () -> upToDateCheck.computeFingerprint(project, scanSettings));
+            project.getProperties().setProperty(INPUT_FINGERPRINT_PROPERTY, fingerprint);
+            var upToDateContractsInfo = upToDateCheck.getUpToDateContractsInfo();
+            if (upToDateContractsInfo != null) {
+                log.info("[{}] Inputs are unchanged since the last run, the scan is skipped", getClass().getSimpleName());
+                return upToDateContractsInfo;
+            }
+        }
+
+        var microserviceContractsInfo = delegate.execute(project, scanSettings, scanMetrics);
+        if (upToDateCheck != null) {
+            upToDateCheck.save(microserviceContractsInfo, null);
+        }
+        return microserviceContractsInfo;
+    }
+
+    // Caches living as long as the JVM, shared by the modules of a build and by the builds of a daemon. Invalidation
+    // happens once per build, in its first module.
+    protected void configureJvmCaches() {
+        var maxClasses = System.getProperty("contractJvmCacheMaxClasses", String.valueOf(JarClassNamesCache.DEFAULT_MAX_CLASSES));
+        var maxTypes = System.getProperty("contractJvmCacheMaxTypes", String.valueOf(SharedTypeChecksums.DEFAULT_MAX_TYPES));
+        JarClassNamesCache.setMaxClasses(Long.parseLong(maxClasses.trim()));
+        SharedTypeChecksums.setMaxTypes(Long.parseLong(maxTypes.trim()));
+        var invalidate = Boolean.parseBoolean(System.getProperty("contractJvmCacheInvalidate", "false"));
+        if (invalidate && (reactorProjects == null || reactorProjects.isEmpty() || reactorProjects.get(0) == project)) {
+            log.info("[{}] JVM caches are invalidated", getClass().getSimpleName());
+            JarClassNamesCache.clear();
+            SharedTypeChecksums.clear();
+        }
+    }
+
+    // Whether the last run with the same inputs has already completed the same request, which is then not sent again
+    protected boolean isRequestUpToDate(String requestKey) {
+        if (upToDateCheck == null || !Boolean.parseBoolean(System.getProperty("contractSkipUnchangedRequests", "false"))
+            || !upToDateCheck.isRequestUpToDate(requestKey)) {
+            return false;
+        }
+        log.info("[{}] Inputs are unchanged and the request was already completed, it is not sent again",
+            getClass().getSimpleName());
+        return true;
+    }
+
+    protected CompletableFuture<Void> markRequestCompleted(CompletableFuture<Void> request,
+        MicroserviceContractsInfo microserviceContractsInfo, String requestKey) {
+        if (upToDateCheck == null) {
+            return request;
+        }
+        return request.thenRun(() -> upToDateCheck.save(microserviceContractsInfo, requestKey));
+    }
+
+    // Compares the contracts with the baseline given by contractDiffBaseline, relative to the module directory, so each
+    // module of a reactor has its own. Empty without a baseline to compare with.
+    protected Optional<ContractDiffReport> diffContracts() {
+        var baseline = System.getProperty("contractDiffBaseline");
+        if (baseline == null) {
+            return Optional.empty();
+        }
+        var delegate = new ContractDiffDelegate(WorkDirectoryUtil.getContractShapesFile(project),
+            project.getBasedir().toPath().resolve(baseline.trim()), WorkDirectoryUtil.getContractDiffFile(project));
+        return scanMetrics.measure("contractDiff", delegate::execute);
+    }
+
+    protected ScanSettings getScanSettings() {
+        var scanMode = System.getProperty("contractScanMode", ScanMode.FULL_CLASSPATH.name());
+        var includes = System.getProperty("contractScanIncludes", "");
+        var checksumCache = System.getProperty("contractChecksumCache", "true");
+        var threads = System.getProperty("contractScanThreads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        var checksumBackend = System.getProperty("contractChecksumBackend", ChecksumBackend.REFLECTION.name());
+        var contractFingerprints = System.getProperty("contractFingerprints", "false");
+        var jvmCache = System.getProperty("contractJvmCache", "true");
+        var pipelined = System.getProperty("contractScanPipelined", "false");
+        var checksumManifest = System.getProperty("contractChecksumManifest", "true");
+        var contractShapes = System.getProperty("contractDiffBaseline") != null;
+        return new ScanSettings(ScanMode.valueOf(scanMode.trim().toUpperCase()), splitList(includes),
+            Boolean.parseBoolean(checksumCache), Math.max(1, Integer.parseInt(threads.trim())),
+            ChecksumBackend.valueOf(checksumBackend.trim().toUpperCase()), Boolean.parseBoolean(contractFingerprints),
+            getTraversalPolicy(), Boolean.parseBoolean(jvmCache), Boolean.parseBoolean(pipelined),
+            Boolean.parseBoolean(checksumManifest), contractShapes);
+    }
+
+    protected TraversalPolicy getTraversalPolicy() {
+        var opaqueLibraryTypes = System.getProperty("contractOpaqueLibraryTypes", "false");
+        var traversedPackages = System.getProperty("contractTraversedPackages", "");
+        var maxDepth = System.getProperty("contractMaxDepth", "0");
+        return new TraversalPolicy(Boolean.parseBoolean(opaqueLibraryTypes), splitList(traversedPackages),
+            Math.max(0, Integer.parseInt(maxDepth.trim())));
+    }
+
+    protected ServerClientSettings getServerClientSettings() {
+        var defaults = ServerClientSettings.defaults();
+        var connectTimeout = System.getProperty("integrityServerConnectTimeout", String.valueOf(defaults.connectTimeout().toMillis()));
+        var readTimeout = System.getProperty("integrityServerReadTimeout", String.valueOf(defaults.readTimeout().toMillis()));
+        var writeTimeout = System.getProperty("integrityServerWriteTimeout", String.valueOf(defaults.writeTimeout().toMillis()));
+        var retries = System.getProperty("integrityServerRetries", String.valueOf(defaults.retries()));
+        var retryBackoff = System.getProperty("integrityServerRetryBackoff", String.valueOf(defaults.retryBackoff().toMillis()));
+        var gzip = System.getProperty("integrityServerGzip", String.valueOf(defaults.gzip()));
+        var async = System.getProperty("integrityServerAsync", String.valueOf(defaults.async()));
+        return new ServerClientSettings(Duration.ofMillis(Long.parseLong(connectTimeout.trim())),
+            Duration.ofMillis(Long.parseLong(readTimeout.trim())), Duration.ofMillis(Long.parseLong(writeTimeout.trim())),
+            Math.max(0, Integer.parseInt(retries.trim())),
+            Duration.ofMillis(Long.parseLong(retryBackoff.trim())), Boolean.parseBoolean(gzip), Boolean.parseBoolean(async));
+    }
+
+    protected MicroserviceIntegrityServerClient createServerClient(ServerClientSettings settings) {
+        var microserviceIntegrityServerBaseURL = System.getProperty("microserviceIntegrityServerURL");
+        return new MicroserviceIntegrityServerClient(microserviceIntegrityServerBaseURL, settings, scanMetrics);
+    }
+
+    // Waits for the request right away unless requests are asynchronous, then the last module to finish waits for all
+    protected void completeRequest(CompletableFuture<Void> request, ServerClientSettings settings) {
+        goalProgress.getPendingRequests().add(request);
+        if (!settings.async()) {
+            goalProgress.awaitPendingRequests();
+        } else {
+            log.info("[{}] The request is sent in the background and is awaited at the end of the reactor build",
+                getClass().getSimpleName());
+        }
+    }
+
+    // Requests still running in the background when the goal ends are not part of the report
+    protected void reportMetrics(String goal) {
+        if (Boolean.parseBoolean(System.getProperty("contractScanMetrics", "true"))) {
+            scanMetrics.write(WorkDirectoryUtil.getMetricsFile(project), project.getName(), goal);
+        }
+        if (Boolean.parseBoolean(System.getProperty("contractScanMetricsSummary", "false"))) {
+            scanMetrics.logSummary(project.getName(), goal);
+        }
+    }
+
+    protected static List<String> splitList(String value) {
+        return stream(value.split(","))
+            .map(String::trim)
+            .filter(item -> !item.isEmpty())
+            .toList();
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void finishModule() {
+        if (goalProgress.finish(project.getId())) {
+            try {
+                completeReactor();
+            } catch (RuntimeException e) {
+                awaitPendingRequests(e);
+                throw e;
+            }
+            goalProgress.awaitPendingRequests();
+        } else if (goalProgress.isFailed()) {
+            abandonReactor();
+            goalProgress.awaitPendingRequests();
+        }
+    }
+
+    private void failModule(Throwable failure) {
+        goalProgress.fail(project.getId());
+        abandonReactor();
+        awaitPendingRequests(failure);
+    }
+
+    // The failures of the pending requests are reported along with the failure of the module
+    private void awaitPendingRequests(Throwable failure) {
+        try {
+            goalProgress.awaitPendingRequests();
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void abandonReactor() {
+        var collectedContractsInfo = goalProgress.getCollectedContractsInfo();
+        if (!collectedContractsInfo.isEmpty()) {
+            log.warn("[{}] The goal failed in a module of the reactor, the contracts collected from {} modules are not sent",
+                getClass().getSimpleName(), collectedContractsInfo.size());
+            collectedContractsInfo.clear();
+        }
+    }
+
+    // Every module of the reactor when the goal is called from the command line, otherwise the modules binding it in an
+    // execution of this plugin; a pom parent without the binding does not run it
+    private Set<String> getGoalProjects(String goal) {
+        var projects = reactorProjects == null || reactorProjects.isEmpty() ? List.of(project) : reactorProjects;
+        var calledDirectly = sessionGoals == null || sessionGoals.stream().anyMatch(sessionGoal -> sessionGoal.endsWith(":" + goal));
+        Set<String> goalProjects = new HashSet<>();
+        for (var reactorProject : projects) {
+            if (calledDirectly || isGoalBound(reactorProject, goal)) {
+                goalProjects.add(reactorProject.getId());
+            }
+        }
+        goalProjects.add(project.getId());
+        return goalProjects;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isGoalBound(MavenProject reactorProject, String goal) {
+        return ((List<Plugin>) reactorProject.getBuildPlugins()).stream()
+            .filter(plugin -> plugin.getKey().equals(pluginKey))
+            .flatMap(plugin -> plugin.getExecutions().stream())
+            .anyMatch(execution -> execution.getGoals().contains(goal));
+    }
+}
@@ -0,0 +1,45 @@
+package letunov.mojo;
+
+import letunov.impl.ScanReactorContractsDelegate;
+import letunov.impl.WorkDirectoryUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.util.List;
+
+/**
+ * Scans every module of the reactor once, in parallel, sharing contract jar indexes and checksums between modules.
+ * The result of each module lands in the up-to-date markers of {@code updateMicroserviceGraph} and
+ * {@code verifyMicroservice}, so these goals run afterwards in the same build skip their own scan.
+ */
+@Mojo(name = ScanReactorContractsMojo.GOAL, aggregator = true, requiresDependencyResolution = ResolutionScope.COMPILE)
+@Slf4j
+public class ScanReactorContractsMojo extends AbstractContractScannerMojo {
+    public static final String GOAL = "scanReactorContracts";
+
+    @Override
+    public void execute() {
+        try {
+            scanReactorContracts();
+        } finally {
+            reportMetrics(GOAL);
+        }
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void scanReactorContracts() {
+        var scanSettings = getScanSettings();
+        log.debug("Scan settings received: {}", scanSettings);
+        configureJvmCaches();
+
+        var projects = reactorProjects == null || reactorProjects.isEmpty() ? List.of(project) : reactorProjects;
+        var delegate = new ScanReactorContractsDelegate(List.of(UpdateMicroserviceGraphMojo.GOAL, VerifyMicroserviceMojo.GOAL));
+        var contractsInfo = delegate.execute(projects, scanSettings, scanMetrics);
+        log.info("Microservice contracts information retrieved for {} modules", contractsInfo.size());
+        delegate.saveReactorSnapshot(contractsInfo, WorkDirectoryUtil.getReactorSnapshotFile(project));
+    }
+}
@@ -1,32 +1,87 @@
 package letunov.mojo;
 
-import letunov.impl.MicroserviceIntegrityServerClient;
-import letunov.impl.MicroserviceContractsScanner;
-import letunov.impl.ProjectClassesManager;
-import letunov.impl.RetrieveMicroserviceContractsInfoDelegate;
+import letunov.impl.data.GraphUpdateMode;
 import letunov.impl.data.MicroserviceContractsInfo;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugins.annotations.Mojo;
-import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.MavenProject;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 
-@Mojo(name = "updateMicroserviceGraph")
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+@Mojo(name = UpdateMicroserviceGraphMojo.GOAL, requiresDependencyResolution = ResolutionScope.COMPILE)
 @Slf4j
-public class UpdateMicroserviceGraphMojo extends AbstractMojo {
-    @Parameter(defaultValue = "${project}", readonly = true)
-    private MavenProject project;
+public class UpdateMicroserviceGraphMojo extends AbstractContractScannerMojo {
+    public static final String GOAL = "updateMicroserviceGraph";
 
     @Override
     public void execute() {
-        var delegate = new RetrieveMicroserviceContractsInfoDelegate();
-        var m2Repo = System.getProperty("M2_REPO");
-        var microserviceContractsInfo = delegate.execute(m2Repo, project);
+        executeGoal(GOAL, this::updateMicroserviceGraph);
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void updateMicroserviceGraph() {
+        var microserviceContractsInfo = retrieveMicroserviceContractsInfo(GOAL);
         log.info("Microservice contracts information retrieved: {}", microserviceContractsInfo);
+        diffContracts();
+
+        var graphUpdateMode = getGraphUpdateMode();
+        log.debug("Graph update mode received: {}", graphUpdateMode);
+        if (graphUpdateMode == GraphUpdateMode.PER_MODULE) {
+            var serverClientSettings = getServerClientSettings();
+            var microserviceIntegrityServerClient = createServerClient(serverClientSettings);
+            var requestKey = "updateMicroserviceGraph " + System.getProperty("microserviceIntegrityServerURL");
+            if (isRequestUpToDate(requestKey)) {
+                return;
+            }
+            var request = microserviceIntegrityServerClient.updateMicroserviceGraphAsync(microserviceContractsInfo)
+                .thenRun(() -> log.info("Graph updated successfully for {}!", microserviceContractsInfo.microserviceName()));
+            completeRequest(markRequestCompleted(request, microserviceContractsInfo, requestKey), serverClientSettings);
+            return;
+        }
+
+        // Keyed by the project id, sent by the last module of the reactor
+        getGoalProgress().getCollectedContractsInfo().put(project.getId(), microserviceContractsInfo);
+        log.info("Contracts of {} are collected, the graph is updated by the last module of the reactor",
+            microserviceContractsInfo.microserviceName());
+    }
+
+    @Override
+    protected void completeReactor() {
+        var graphUpdateMode = getGraphUpdateMode();
+        var contractsInfo = getCollectedContractsInfo();
+        if (graphUpdateMode == GraphUpdateMode.PER_MODULE || contractsInfo.isEmpty()) {
+            return;
+        }
+        var serverClientSettings = getServerClientSettings();
+        var microserviceIntegrityServerClient = createServerClient(serverClientSettings);
+        log.info("Updating the graph with {} microservices in {} mode", contractsInfo.size(), graphUpdateMode);
+        var request = graphUpdateMode == GraphUpdateMode.SINGLE_REQUEST
+            ? microserviceIntegrityServerClient.updateMicroserviceGraphsAsync(contractsInfo)
+            : CompletableFuture.allOf(contractsInfo.stream()
+                .map(microserviceIntegrityServerClient::updateMicroserviceGraphAsync)
+                .toArray(CompletableFuture[]::new));
+        completeRequest(request.thenRun(() -> log.info("Graph updated successfully!")), serverClientSettings);
+    }
+
+    private GraphUpdateMode getGraphUpdateMode() {
+        return GraphUpdateMode.valueOf(System.getProperty("graphUpdateMode", GraphUpdateMode.PER_MODULE.name())
+            .trim().toUpperCase());
+    }
 
-        var microserviceIntegrityServerBaseURL = System.getProperty("microserviceIntegrityServerURL");
-        var microserviceIntegrityServerClient = new MicroserviceIntegrityServerClient(microserviceIntegrityServerBaseURL);
-        microserviceIntegrityServerClient.updateMicroserviceGraph(microserviceContractsInfo);
-        log.info("Graph updated successfully!");
+    // Keeps the reactor order, so the server receives the modules in the order they are built
+    private List<MicroserviceContractsInfo> getCollectedContractsInfo() {
+        var collectedContractsInfo = getGoalProgress().getCollectedContractsInfo();
+        if (reactorProjects == null) {
+            return List.copyOf(collectedContractsInfo.values());
+        }
+        return reactorProjects.stream()
+            .map(reactorProject -> collectedContractsInfo.get(reactorProject.getId()))
+            .filter(Objects::nonNull)
+            .toList();
     }
 }
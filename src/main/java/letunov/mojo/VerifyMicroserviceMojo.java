@@ -1,31 +1,78 @@
 package letunov.mojo;
 
-import letunov.impl.MicroserviceIntegrityServerClient;
-import letunov.impl.RetrieveMicroserviceContractsInfoDelegate;
+import letunov.exception.ContractVerificationFailedException;
+import letunov.impl.OfflineVerificationEngine;
+import letunov.impl.VerifyMicroserviceDelegate;
+import letunov.impl.WorkDirectoryUtil;
+import letunov.impl.data.ContractDiffReport;
+import letunov.impl.data.MicroserviceContractsInfo;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugins.annotations.Mojo;
-import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.MavenProject;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 
-@Mojo(name = "verifyMicroservice")
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Mojo(name = VerifyMicroserviceMojo.GOAL, requiresDependencyResolution = ResolutionScope.COMPILE)
 @Slf4j
-public class VerifyMicroserviceMojo extends AbstractMojo {
-    @Parameter(defaultValue = "${project}", readonly = true)
-    private MavenProject project;
+public class VerifyMicroserviceMojo extends AbstractContractScannerMojo {
+    public static final String GOAL = "verifyMicroservice";
 
     @Override
     public void execute() {
-        var delegate = new RetrieveMicroserviceContractsInfoDelegate();
-        var m2Repo = System.getProperty("M2_REPO");
-        log.debug("m2Repo received: {}", m2Repo);
-        var microserviceContractsInfo = delegate.execute(m2Repo, project);
+        executeGoal(GOAL, this::verifyMicroservice);
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void verifyMicroservice() {
+        var microserviceContractsInfo = retrieveMicroserviceContractsInfo(GOAL);
         log.info("Microservice contracts information retrieved: {}", microserviceContractsInfo);
 
+        var contractDiff = diffContracts();
+        if (contractDiff.filter(ContractDiffReport::isAdditive).isPresent()
+            && Boolean.parseBoolean(System.getProperty("contractDiffSkipCompatible", "false"))) {
+            log.info("Contracts provided by {} were only added to since the baseline, the verification is skipped",
+                microserviceContractsInfo.microserviceName());
+            return;
+        }
+
+        var graphSnapshot = System.getProperty("verifyGraphSnapshot");
+        if (graphSnapshot != null) {
+            scanMetrics.measure("offlineVerification", () -> verifyOffline(microserviceContractsInfo, Paths.get(graphSnapshot)));
+            return;
+        }
+
         var changeGraphId = System.getProperty("changeGraphId");
         log.debug("changeGraphId received: {}", changeGraphId);
-        var microserviceIntegrityServerBaseURL = System.getProperty("microserviceIntegrityServerURL");
-        var microserviceIntegrityServerClient = new MicroserviceIntegrityServerClient(microserviceIntegrityServerBaseURL);
-        microserviceIntegrityServerClient.verifyMicroservice(microserviceContractsInfo, changeGraphId);
+        var requestKey = "verifyMicroservice " + System.getProperty("microserviceIntegrityServerURL") + " " + changeGraphId;
+        if (isRequestUpToDate(requestKey)) {
+            return;
+        }
+        var serverClientSettings = getServerClientSettings();
+        var microserviceIntegrityServerClient = createServerClient(serverClientSettings);
+        var verifyDelta = Boolean.parseBoolean(System.getProperty("verifyDelta", "false"));
+        if (!verifyDelta) {
+            var request = microserviceIntegrityServerClient.verifyMicroserviceAsync(microserviceContractsInfo, changeGraphId);
+            completeRequest(markRequestCompleted(request, microserviceContractsInfo, requestKey), serverClientSettings);
+            return;
+        }
+
+        var snapshotFile = System.getProperty("verifySnapshotFile");
+        var verifyMicroserviceDelegate = new VerifyMicroserviceDelegate(microserviceIntegrityServerClient,
+            snapshotFile == null ? WorkDirectoryUtil.getVerifySnapshotFile(project) : Paths.get(snapshotFile));
+        var request = verifyMicroserviceDelegate.execute(microserviceContractsInfo, changeGraphId);
+        completeRequest(markRequestCompleted(request, microserviceContractsInfo, requestKey), serverClientSettings);
+    }
+
+    private void verifyOffline(MicroserviceContractsInfo microserviceContractsInfo, Path graphSnapshot) {
+        log.info("Verifying against the graph snapshot {}", graphSnapshot);
+        var verificationInfo = OfflineVerificationEngine.load(graphSnapshot).verify(microserviceContractsInfo);
+        if (!verificationInfo.messages().isEmpty()) {
+            throw new ContractVerificationFailedException(verificationInfo);
+        }
+        log.info("Contracts of {} match the graph snapshot", microserviceContractsInfo.microserviceName());
     }
 }
@@ -0,0 +1,171 @@
+package letunov.processor;
+
+import letunov.contract.Contract;
+import letunov.contract.ContractConsumer;
+import letunov.contract.ContractProvider;
+import letunov.impl.ChecksumContext;
+import letunov.impl.ChecksumUtil;
+import letunov.impl.ContractChecksumManifest;
+import letunov.impl.data.PrecomputedContractChecksum;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the providers and consumers of a module while it is compiled and computes the checksums of the contracts they
+ * implement, writing them to {@link ContractChecksumManifest#LOCATION} in the class output. The mojos then take the
+ * providers and consumers from the manifest instead of scanning the output directory, and the checksums instead of
+ * computing them while the class files they were computed from are unchanged.
+ * <p>
+ * Checksums use the default traversal policy and are only computed for contracts whose types all come from the
+ * classpath or the JDK. Types compiled with the module have no class file yet, so the checksums of contracts
+ * reaching them are left to the mojos.
+ */
+@SupportedAnnotationTypes("*")
+public class ContractChecksumProcessor extends AbstractProcessor {
+    private static final Pattern JDK_MODULE_PATTERN = Pattern.compile("^(java|jdk)\\..*");
+
+    private final Set<String> compiledTypes = new HashSet<>();
+    private final Set<String> providers = new HashSet<>();
+    private final Set<String> consumers = new HashSet<>();
+    private final Map<String, PrecomputedContractChecksum> checksums = new HashMap<>();
+    private final Set<String> skippedContracts = new HashSet<>();
+    private ElementContractModelBuilder modelBuilder;
+    private ChecksumContext checksumContext;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (modelBuilder == null) {
+            modelBuilder = new ElementContractModelBuilder(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+            checksumContext = new ChecksumContext(modelBuilder);
+        }
+        for (var element : roundEnv.getRootElements()) {
+            collectCompiledTypes(element);
+        }
+        getAnnotatedTypes(roundEnv, ContractProvider.class.getTypeName()).forEach(provider -> addCandidate(provider, providers));
+        getAnnotatedTypes(roundEnv, ContractConsumer.class.getTypeName()).forEach(consumer -> addCandidate(consumer, consumers));
+        if (roundEnv.processingOver()) {
+            writeManifest();
+        }
+        return false;
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    private void collectCompiledTypes(Element element) {
+        if (element instanceof TypeElement type) {
+            compiledTypes.add(modelBuilder.getBinaryName(type));
+            type.getEnclosedElements().forEach(this::collectCompiledTypes);
+        }
+    }
+
+    private Set<TypeElement> getAnnotatedTypes(RoundEnvironment roundEnv, String annotationName) {
+        var annotation = processingEnv.getElementUtils().getTypeElement(annotationName);
+        if (annotation == null) {
+            return Set.of();
+        }
+        Set<TypeElement> annotatedTypes = new HashSet<>();
+        for (var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element instanceof TypeElement type) {
+                annotatedTypes.add(type);
+            }
+        }
+        return annotatedTypes;
+    }
+
+    // Contracts are the implemented interfaces extending Contract, as MicroserviceContractsScanner finds them
+    private void addCandidate(TypeElement candidate, Set<String> candidates) {
+        candidates.add(modelBuilder.getBinaryName(candidate));
+        for (var superInterface : candidate.getInterfaces()) {
+            var contract = (TypeElement) processingEnv.getTypeUtils().asElement(superInterface);
+            var isContract = contract.getInterfaces().stream()
+                .map(type -> modelBuilder.getBinaryName((TypeElement) processingEnv.getTypeUtils().asElement(type)))
+                .anyMatch(Contract.class.getTypeName()::equals);
+            if (isContract) {
+                addChecksum(modelBuilder.getBinaryName(contract));
+            }
+        }
+    }
+
+    private void addChecksum(String contractName) {
+        if (checksums.containsKey(contractName) || skippedContracts.contains(contractName)) {
+            return;
+        }
+        try {
+            Map<String, String> classFileHashes = new TreeMap<>();
+            for (var type : checksumContext.getContractTypes(contractName)) {
+                if (compiledTypes.contains(type)) {
+                    throw new IllegalArgumentException(type + " is compiled with the module");
+                }
+                var hash = getClassFileHash(type);
+                if (hash != null) {
+                    classFileHashes.put(type, hash);
+                }
+            }
+            checksums.put(contractName, new PrecomputedContractChecksum(checksumContext.getContractChecksum(contractName),
+                classFileHashes));
+        } catch (RuntimeException e) {
+            skippedContracts.add(contractName);
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "[ContractChecksumProcessor] The checksum of "
+                + contractName + " is left to the mojos: " + e.getMessage());
+        }
+    }
+
+    // Null for primitives and JDK types, the mojos do not check them either
+    private String getClassFileHash(String typeName) {
+        if (ChecksumContext.isLeafType(typeName)) {
+            return null;
+        }
+        var type = modelBuilder.getTypeElement(typeName);
+        var module = processingEnv.getElementUtils().getModuleOf(type);
+        if (module != null && JDK_MODULE_PATTERN.matcher(module.getQualifiedName()).matches()) {
+            return null;
+        }
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var relativeName = (packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1)) + ".class";
+        try (InputStream inputStream = processingEnv.getFiler().getResource(StandardLocation.CLASS_PATH, packageName,
+            relativeName).openInputStream()) {
+            return ChecksumUtil.getBytesChecksum(inputStream.readAllBytes());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("the class file of " + typeName + " is not found on the classpath", e);
+        }
+    }
+
+    private void writeManifest() {
+        var manifest = new ContractChecksumManifest(ContractChecksumManifest.getCompiledTypesDigest(compiledTypes), providers,
+            consumers, checksums);
+        try {
+            var resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                ContractChecksumManifest.LOCATION);
+            try (var writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                manifest.write(writer);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "[ContractChecksumProcessor] Unable to write " + ContractChecksumManifest.LOCATION + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package letunov.processor;
+
+import letunov.impl.model.AnnotationDescriptor;
+import letunov.impl.model.ClassRef;
+import letunov.impl.model.ContractAnnotations;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.FieldDescriptor;
+import letunov.impl.model.GenericArrayRef;
+import letunov.impl.model.MethodDescriptor;
+import letunov.impl.model.ParameterDescriptor;
+import letunov.impl.model.ParameterizedRef;
+import letunov.impl.model.TypeRef;
+import letunov.impl.model.TypeVariableRef;
+import letunov.impl.model.WildcardRef;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Builds the contract model from the elements of a compilation, for contracts and types read from class files of the
+ * classpath. The result is the model {@link letunov.impl.ReflectionContractModelBuilder} produces from the same class
+ * files: binary type names, erased and generic types, modifiers as in the access flags, annotation defaults and the
+ * parameter names the class file records. A contract whose model reflection would see differently, with bridge methods
+ * or with parameter names javac may take from a local variable table, is rejected.
+ */
+public class ElementContractModelBuilder implements ContractModelBuilder {
+    private static final Map<Modifier, Integer> ACCESS_FLAGS = Map.of(Modifier.PUBLIC, 0x0001, Modifier.PRIVATE, 0x0002,
+        Modifier.PROTECTED, 0x0004, Modifier.STATIC, 0x0008, Modifier.FINAL, 0x0010, Modifier.SYNCHRONIZED, 0x0020,
+        Modifier.NATIVE, 0x0100, Modifier.ABSTRACT, 0x0400, Modifier.STRICTFP, 0x0800);
+    private static final int VARARGS = 0x0080;
+    private static final Set<String> PRIMITIVES = Set.of("boolean", "byte", "char", "short", "int", "long", "float",
+        "double", "void");
+
+    private final Elements elements;
+    private final Types types;
+    private final Map<String, TypeElement> typeElements = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> publicMethodNames = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> supertypes = new ConcurrentHashMap<>();
+
+    public ElementContractModelBuilder(Elements elements, Types types) {
+        this.elements = elements;
+        this.types = types;
+    }
+
+    @Override
+    public ContractDescriptor getContractDescriptor(String contractName) {
+        var contract = getTypeElement(contractName);
+        var methods = getPublicMethods(contract).stream()
+            .map(method -> getMethodDescriptor(contract, method))
+            .toList();
+        return new ContractDescriptor(getBinaryName(contract), methods);
+    }
+
+    @Override
+    public List<FieldDescriptor> getDeclaredFields(String typeName) {
+        if (typeName.endsWith("[]") || isPrimitive(typeName)) {
+            return List.of();
+        }
+        return ElementFilter.fieldsIn(getTypeElement(typeName).getEnclosedElements()).stream()
+            .map(field -> new FieldDescriptor(field.getSimpleName().toString(), getClassRef(field.asType()),
+                getTypeRef(field.asType())))
+            .toList();
+    }
+
+    @Override
+    public Set<String> getPublicMethodNames(String typeName) {
+        return publicMethodNames.computeIfAbsent(typeName, name -> {
+            if (isPrimitive(name)) {
+                return Set.of();
+            }
+            var type = getTypeElement(name.endsWith("[]") ? Object.class.getName() : name);
+            return ElementFilter.methodsIn(elements.getAllMembers(type)).stream()
+                .filter(method -> method.getModifiers().contains(Modifier.PUBLIC))
+                .filter(method -> type.getKind() != ElementKind.INTERFACE || !isObjectMethod(method))
+                .map(method -> method.getSimpleName().toString())
+                .collect(toSet());
+        });
+    }
+
+    @Override
+    public Set<String> getSupertypes(String typeName) {
+        return supertypes.computeIfAbsent(typeName, name -> {
+            Set<String> result = new LinkedHashSet<>();
+            if (!name.endsWith("[]") && !isPrimitive(name)) {
+                collectSupertypes(getTypeElement(name), result);
+            }
+            return result;
+        });
+    }
+
+    public TypeElement getTypeElement(String typeName) {
+        return typeElements.computeIfAbsent(typeName, name -> {
+            var type = elements.getTypeElement(name.replace('$', '.'));
+            if (type == null) {
+                throw new IllegalArgumentException("Unable to find the type " + name);
+            }
+            return type;
+        });
+    }
+
+    public String getBinaryName(TypeElement type) {
+        var name = elements.getBinaryName(type).toString();
+        typeElements.putIfAbsent(name, type);
+        return name;
+    }
+
+    //    =========================================================================
+    //    Implementation
+    //    =========================================================================
+
+    // Mirrors Class#getMethods as ClassFileContractModelBuilder does: own public methods first, then inherited ones,
+    // skipping static methods of super interfaces and, for interfaces, the methods of Object
+    private List<ExecutableElement> getPublicMethods(TypeElement contract) {
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        collectPublicMethods(contract, contract, true, methods, new HashSet<>());
+        return new ArrayList<>(methods.values());
+    }
+
+    private void collectPublicMethods(TypeElement contract, TypeElement type, boolean declaringType,
+        Map<String, ExecutableElement> methods, Set<String> visited) {
+        if (!visited.add(getBinaryName(type))) {
+            return;
+        }
+        var isInterface = type.getKind() == ElementKind.INTERFACE;
+        for (var method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC)
+                || (method.getModifiers().contains(Modifier.STATIC) && isInterface && !declaringType)) {
+                continue;
+            }
+            var key = getErasedSignature(method);
+            if (!declaringType && isBridged(methods, method, key)) {
+                throw new IllegalArgumentException("The contract " + getBinaryName(contract) + " has a bridge method for "
+                    + method.getSimpleName());
+            }
+            methods.putIfAbsent(key, method);
+        }
+        if (!isInterface && type.getSuperclass().getKind() == TypeKind.DECLARED) {
+            collectPublicMethods(contract, asTypeElement(type.getSuperclass()), false, methods, visited);
+        }
+        for (var superInterface : type.getInterfaces()) {
+            collectPublicMethods(contract, asTypeElement(superInterface), false, methods, visited);
+        }
+    }
+
+    // As Class#getSuperclass, interfaces have no superclass here although javac reports Object as their supertype
+    private void collectSupertypes(TypeElement type, Set<String> result) {
+        if (type.getKind() != ElementKind.INTERFACE && type.getSuperclass().getKind() == TypeKind.DECLARED) {
+            var superclass = asTypeElement(type.getSuperclass());
+            if (result.add(getBinaryName(superclass))) {
+                collectSupertypes(superclass, result);
+            }
+        }
+        for (var superInterface : type.getInterfaces()) {
+            var element = asTypeElement(superInterface);
+            if (result.add(getBinaryName(element))) {
+                collectSupertypes(element, result);
+            }
+        }
+    }
+
+    private String getErasedSignature(ExecutableElement method) {
+        return method.getSimpleName() + method.getParameters().stream()
+            .map(parameter -> getClassRef(parameter.asType()).name())
+            .collect(joining(",", "(", ")"));
+    }
+
+    // An override with another erasure, a covariant return type or a generic parameter, makes javac add a bridge
+    // method, which reflection reports and the elements do not
+    private boolean isBridged(Map<String, ExecutableElement> methods, ExecutableElement inherited, String inheritedKey) {
+        for (var entry : methods.entrySet()) {
+            var method = entry.getValue();
+            if (elements.overrides(method, inherited, (TypeElement) method.getEnclosingElement())
+                && (!entry.getKey().equals(inheritedKey)
+                    || !getClassRef(method.getReturnType()).equals(getClassRef(inherited.getReturnType())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MethodDescriptor getMethodDescriptor(TypeElement contract, ExecutableElement method) {
+        if (!method.getModifiers().contains(Modifier.ABSTRACT) && !method.getParameters().isEmpty()) {
+            throw new IllegalArgumentException("The contract " + getBinaryName(contract) + " has a method with a body and"
+                + " parameters, " + method.getSimpleName());
+        }
+        var owner = getBinaryName((TypeElement) method.getEnclosingElement());
+        var parameters = method.getParameters().stream()
+            .map(parameter -> new ParameterDescriptor(parameter.getSimpleName().toString(),
+                getAnnotationDescriptors(parameter), getClassRef(parameter.asType()), getTypeRef(parameter.asType())))
+            .toList();
+        return new MethodDescriptor(owner, method.getSimpleName().toString(), getModifiers(method),
+            getAnnotationDescriptors(method), parameters, getClassRef(method.getReturnType()),
+            getTypeRef(method.getReturnType()));
+    }
+
+    private int getModifiers(ExecutableElement method) {
+        var modifiers = method.isVarArgs() ? VARARGS : 0;
+        for (var modifier : method.getModifiers()) {
+            modifiers |= ACCESS_FLAGS.getOrDefault(modifier, 0);
+        }
+        return modifiers;
+    }
+
+    private List<AnnotationDescriptor> getAnnotationDescriptors(Element element) {
+        List<AnnotationDescriptor> descriptors = new ArrayList<>();
+        for (var annotation : element.getAnnotationMirrors()) {
+            var annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            var typeName = getBinaryName(annotationType);
+            if (ContractAnnotations.ALL.contains(typeName)) {
+                descriptors.add(getAnnotationDescriptor(typeName, annotation));
+            }
+        }
+        return descriptors;
+    }
+
+    // Supported elements with their defaults, as Annotation#annotationType().getDeclaredMethods() gives them
+    private AnnotationDescriptor getAnnotationDescriptor(String typeName, AnnotationMirror annotation) {
+        Map<String, Object> values = new TreeMap<>();
+        elements.getElementValuesWithDefaults(annotation).forEach((element, value) -> {
+            var elementType = element.getReturnType();
+            var componentType = elementType instanceof ArrayType arrayType ? arrayType.getComponentType() : elementType;
+            if (isString(componentType) || isEnum(componentType)
+                || (elementType.getKind() != TypeKind.ARRAY && componentType.getKind() == TypeKind.BOOLEAN)) {
+                values.put(element.getSimpleName().toString(), getAnnotationValue(value, elementType.getKind() == TypeKind.ARRAY));
+            }
+        });
+        return new AnnotationDescriptor(typeName, values);
+    }
+
+    private Object getAnnotationValue(AnnotationValue annotationValue, boolean array) {
+        var value = annotationValue.getValue();
+        if (array) {
+            var items = value instanceof List<?> list ? list : List.of(annotationValue);
+            return items.stream()
+                .map(item -> (String) getAnnotationValue((AnnotationValue) item, false))
+                .toList();
+        }
+        if (value instanceof VariableElement enumConstant) {
+            return enumConstant.getSimpleName().toString();
+        }
+        return value;
+    }
+
+    private boolean isString(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && getBinaryName(asTypeElement(type)).equals(String.class.getName());
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && asTypeElement(type).getKind() == ElementKind.ENUM;
+    }
+
+    private boolean isObjectMethod(ExecutableElement method) {
+        return getBinaryName((TypeElement) method.getEnclosingElement()).equals(Object.class.getName());
+    }
+
+    private boolean isPrimitive(String typeName) {
+        return PRIMITIVES.contains(typeName);
+    }
+
+    private TypeElement asTypeElement(TypeMirror type) {
+        return (TypeElement) types.asElement(type);
+    }
+
+    // Class#getTypeName of the erased type
+    private ClassRef getClassRef(TypeMirror type) {
+        var erasure = types.erasure(type);
+        return switch (erasure.getKind()) {
+            case ARRAY -> new ClassRef(getClassRef(((ArrayType) erasure).getComponentType()).name() + "[]");
+            case DECLARED -> new ClassRef(getBinaryName(asTypeElement(erasure)));
+            default -> new ClassRef(erasure.toString());
+        };
+    }
+
+    // The java.lang.reflect.Type reflection reports, a class unless generics are involved
+    private TypeRef getTypeRef(TypeMirror type) {
+        if (type instanceof DeclaredType declaredType && !declaredType.getTypeArguments().isEmpty()) {
+            return new ParameterizedRef(getBinaryName(asTypeElement(declaredType)), declaredType.getTypeArguments().stream()
+                .map(this::getTypeRef)
+                .toList());
+        }
+        if (type instanceof WildcardType wildcardType) {
+            if (wildcardType.getSuperBound() != null) {
+                return new WildcardRef(null, getTypeRef(wildcardType.getSuperBound()));
+            }
+            var upperBound = wildcardType.getExtendsBound();
+            return new WildcardRef(upperBound == null || isObject(upperBound) ? null : getTypeRef(upperBound), null);
+        }
+        if (type instanceof ArrayType arrayType && isGeneric(arrayType.getComponentType())) {
+            return new GenericArrayRef(getTypeRef(arrayType.getComponentType()));
+        }
+        if (type instanceof TypeVariable typeVariable) {
+            return new TypeVariableRef(typeVariable.asElement().getSimpleName().toString());
+        }
+        return getClassRef(type);
+    }
+
+    private boolean isGeneric(TypeMirror type) {
+        return switch (type.getKind()) {
+            case TYPEVAR -> true;
+            case DECLARED -> !((DeclaredType) type).getTypeArguments().isEmpty();
+            case ARRAY -> isGeneric(((ArrayType) type).getComponentType());
+            default -> false;
+        };
+    }
+
+    private boolean isObject(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && getBinaryName(asTypeElement(type)).equals(Object.class.getName());
+    }
+}
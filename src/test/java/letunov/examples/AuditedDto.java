@@ -0,0 +1,8 @@
+package letunov.examples;
+
+import lombok.Data;
+
+@Data
+public class AuditedDto {
+    private String author;
+}
@@ -0,0 +1,12 @@
+package letunov.examples;
+
+import org.springframework.web.bind.annotation.*;
+
+public interface BaseContractInterface {
+    @GetMapping("/base/{id}")
+    Person getBase(@PathVariable(name = "id", required = false) Long id);
+
+    static String baseVersion() {
+        return "1";
+    }
+}
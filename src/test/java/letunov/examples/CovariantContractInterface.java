@@ -0,0 +1,9 @@
+package letunov.examples;
+
+import org.springframework.web.bind.annotation.*;
+
+public interface CovariantContractInterface extends BaseContractInterface {
+    @Override
+    @GetMapping("/base/{id}")
+    Student getBase(@PathVariable(name = "id", required = false) Long id);
+}
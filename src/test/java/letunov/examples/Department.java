@@ -0,0 +1,11 @@
+package letunov.examples;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class Department {
+    private String Name;
+    private List<Employee> Staff;
+}
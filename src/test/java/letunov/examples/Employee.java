@@ -0,0 +1,9 @@
+package letunov.examples;
+
+import lombok.Data;
+
+@Data
+public class Employee {
+    private String Name;
+    private Department Department;
+}
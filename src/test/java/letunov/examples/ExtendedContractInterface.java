@@ -0,0 +1,31 @@
+package letunov.examples;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ExtendedContractInterface extends BaseContractInterface {
+    @RequestMapping(value = "/search", method = {RequestMethod.GET, RequestMethod.POST}, produces = "application/json")
+    List<? extends Person> search(@RequestParam(name = "q", defaultValue = "all") String query,
+                                  @RequestParam(required = false) Map<String, List<Dog>> filters);
+
+    @PutMapping(path = "/bulk", consumes = "application/json")
+    ResponseEntity<Map<String, ? super ItemDto>> bulk(@RequestBody(required = false) ItemDto[] items, int... priorities);
+
+    @PatchMapping
+    <T extends Person> T patch(@RequestBody T value, List<T>[] history);
+
+    @DeleteMapping("/tree")
+    void delete(@RequestParam List<TreeNode> nodes);
+
+    static String version() {
+        return "2";
+    }
+
+    default Optional<TreeNodeHolder> holder() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,8 @@
+package letunov.examples;
+
+import org.springframework.web.bind.annotation.GetMapping;
+
+public interface HolderContractInterface {
+    @GetMapping("/holder")
+    TreeNodeHolder getHolder();
+}
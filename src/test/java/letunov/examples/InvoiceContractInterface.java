@@ -0,0 +1,8 @@
+package letunov.examples;
+
+import org.springframework.web.bind.annotation.*;
+
+public interface InvoiceContractInterface {
+    @GetMapping("/invoices/{id}")
+    InvoiceDto getInvoice(@PathVariable String id);
+}
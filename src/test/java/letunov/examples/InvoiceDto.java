@@ -0,0 +1,10 @@
+package letunov.examples;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class InvoiceDto extends AuditedDto {
+    private long total;
+}
@@ -0,0 +1,15 @@
+package letunov.examples;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+public interface RecursiveContractInterface {
+    @GetMapping("/tree")
+    TreeNode getTree();
+
+    @PostMapping("/tree")
+    List<TreeNode> postTree(@RequestBody TreeNode node);
+}
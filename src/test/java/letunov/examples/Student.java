@@ -0,0 +1,15 @@
+package letunov.examples;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class Student extends Person implements Comparable<Student> {
+    private String school;
+
+    @Override
+    public int compareTo(Student other) {
+        return school.compareTo(other.school);
+    }
+}
@@ -0,0 +1,12 @@
+package letunov.examples;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TreeNode {
+    private String Label;
+    private TreeNode Parent;
+    private List<TreeNode> Children;
+}
@@ -0,0 +1,6 @@
+package letunov.examples.scan;
+
+import letunov.contract.ContractConsumer;
+
+@ContractConsumer(serviceName = "upstream")
+public interface AnotherScannedConsumer extends ScannedContract { }
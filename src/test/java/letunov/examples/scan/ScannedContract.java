@@ -0,0 +1,11 @@
+package letunov.examples.scan;
+
+import letunov.contract.Contract;
+import letunov.examples.Person;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+public interface ScannedContract extends Contract {
+    @GetMapping("/scanned/{id}")
+    Person getPerson(@PathVariable String id);
+}
@@ -0,0 +1,14 @@
+package letunov.examples.scan;
+
+import letunov.contract.ContractProvider;
+import letunov.examples.Person;
+
+import java.io.Serializable;
+
+@ContractProvider
+public class ScannedProvider implements Serializable, ScannedContract {
+    @Override
+    public Person getPerson(String id) {
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryContractSnapshotTest extends TestSupport {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void read_writtenSnapshot_sameContracts() throws Exception {
+        var snapshot = createGraph(20, 5);
+        var file = tempDir.resolve("graph.snapshot");
+        var jsonFile = tempDir.resolve("graph.json");
+        objectMapper.writeValue(jsonFile.toFile(), snapshot);
+
+        BinaryContractSnapshot.write(snapshot, file);
+
+        assertEquals(snapshot, BinaryContractSnapshot.read(file));
+        assertTrue(BinaryContractSnapshot.isBinarySnapshot(file));
+        assertFalse(BinaryContractSnapshot.isBinarySnapshot(jsonFile));
+        assertEquals(OfflineVerificationEngine.load(jsonFile).verify(snapshot.get(3)).messages(),
+            OfflineVerificationEngine.load(file).verify(snapshot.get(3)).messages());
+    }
+
+    @Test
+    void decode_nonHexChecksumsAndNulls_restored() {
+        var snapshot = List.of(new MicroserviceContractsInfo("orders",
+            List.of(new ProvidingContractInfo("com.example.OrdersContract", null, "not-a-sha256"),
+                new ProvidingContractInfo("com.example.LegacyContract", new DependencyInfo("com.example", "api", null), null)),
+            List.of(new ConsumingContractInfo("com.example.PaymentsContract", "payments",
+                new DependencyInfo("com.example", "api", "1.0"), "A".repeat(64)))));
+
+        assertEquals(snapshot, BinaryContractSnapshot.decode(ByteBuffer.wrap(BinaryContractSnapshot.encode(snapshot))));
+    }
+
+    @Test
+    void encode_largeGraph_muchSmallerThanJson() throws Exception {
+        var snapshot = createGraph(200, 10);
+
+        var binary = BinaryContractSnapshot.encode(snapshot);
+        var json = objectMapper.writeValueAsBytes(snapshot);
+
+        assertTrue(binary.length * 3 < json.length, "binary " + binary.length + " bytes, JSON " + json.length + " bytes");
+    }
+
+    @Test
+    void decode_corruptedSnapshot_exceptionThrown() {
+        var bytes = BinaryContractSnapshot.encode(createGraph(2, 2));
+        var unsupportedVersion = bytes.clone();
+        unsupportedVersion[4] = 2;
+
+        assertThrows(IllegalArgumentException.class,
+            () -> BinaryContractSnapshot.decode(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length / 2))));
+        assertThrows(IllegalArgumentException.class, () -> BinaryContractSnapshot.decode(ByteBuffer.wrap(unsupportedVersion)));
+        assertThrows(IllegalArgumentException.class,
+            () -> BinaryContractSnapshot.decode(ByteBuffer.wrap("[]".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void decode_corruptedCounts_exceptionThrown() {
+        var maxCount = snapshotWithStringCount(0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+        var negativeCount = snapshotWithStringCount(0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        var overlongCount = snapshotWithStringCount(0x81, 0x80, 0x80, 0x80, 0x80, 0x00);
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryContractSnapshot.decode(ByteBuffer.wrap(maxCount)));
+        assertThrows(IllegalArgumentException.class, () -> BinaryContractSnapshot.decode(ByteBuffer.wrap(negativeCount)));
+        assertThrows(IllegalArgumentException.class, () -> BinaryContractSnapshot.decode(ByteBuffer.wrap(overlongCount)));
+    }
+
+    @Test
+    void decode_everyByteCorrupted_onlyIllegalArgumentThrown() {
+        var bytes = BinaryContractSnapshot.encode(createGraph(2, 2));
+        for (int i = 0; i < bytes.length; i++) {
+            for (int value : new int[]{0x00, 0x7F, 0x80, 0xFF}) {
+                var corrupted = bytes.clone();
+                corrupted[i] = (byte) value;
+                try {
+                    BinaryContractSnapshot.decode(ByteBuffer.wrap(corrupted));
+                } catch (IllegalArgumentException e) {
+                    // the documented failure, anything else fails the test
+                }
+            }
+        }
+    }
+
+    private List<MicroserviceContractsInfo> createGraph(int services, int contractsPerService) {
+        var api = new DependencyInfo("com.example.platform", "platform-contracts", "2.7.1-SNAPSHOT");
+        List<MicroserviceContractsInfo> graph = new ArrayList<>();
+        for (int service = 0; service < services; service++) {
+            var providing = IntStream.range(0, contractsPerService)
+                .mapToObj(i -> new ProvidingContractInfo(contractName(i), api, ChecksumUtil.getBytesChecksum(new byte[]{(byte) i})))
+                .toList();
+            var provider = "service-" + ((service + 1) % services);
+            var consuming = IntStream.range(0, contractsPerService)
+                .mapToObj(i -> new ConsumingContractInfo(contractName(i), provider, api,
+                    ChecksumUtil.getBytesChecksum(new byte[]{(byte) i})))
+                .toList();
+            graph.add(new MicroserviceContractsInfo("service-" + service, providing, consuming));
+        }
+        return graph;
+    }
+
+    private byte[] snapshotWithStringCount(int... countBytes) {
+        var snapshot = Arrays.copyOf("CSNP".getBytes(StandardCharsets.US_ASCII), 5 + countBytes.length);
+        snapshot[4] = 1;
+        for (int i = 0; i < countBytes.length; i++) {
+            snapshot[5 + i] = (byte) countBytes[i];
+        }
+        return snapshot;
+    }
+
+    private String contractName(int index) {
+        return "com.example.platform.contracts.GeneratedContract" + index;
+    }
+}
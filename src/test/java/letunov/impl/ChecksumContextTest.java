@@ -0,0 +1,142 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.examples.ContractInterface;
+import letunov.examples.DepartmentContractInterface;
+import letunov.examples.EmployeeContractInterface;
+import letunov.examples.HolderContractInterface;
+import letunov.examples.ExtendedContractInterface;
+import letunov.examples.RecursiveContractInterface;
+import letunov.examples.TreeNode;
+import letunov.impl.data.TraversalPolicy;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.FieldDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChecksumContextTest extends TestSupport {
+
+    @Test
+    void getContractChecksum_sameContext_typesComputedOnce() {
+        var context = newContext();
+
+        var first = context.getContractChecksum(ContractInterface.class.getTypeName());
+        var computedTypesCount = context.getComputedTypesCount();
+        var second = context.getContractChecksum(ContractInterface.class.getTypeName());
+
+        assertEquals("26c16e648caf745f411882c4bd1f5f7d54792ad9985ecfa56c3ebbfd590078cd", first);
+        assertEquals(first, second);
+        assertEquals(computedTypesCount, context.getComputedTypesCount());
+    }
+
+    @Test
+    void getContractChecksum_selfReferencingDto_independentOfProcessingOrder() {
+        var warmedContext = newContext();
+        warmedContext.getContractChecksum(HolderContractInterface.class.getTypeName());
+
+        var fresh = newContext().getContractChecksum(RecursiveContractInterface.class.getTypeName());
+        var warmed = warmedContext.getContractChecksum(RecursiveContractInterface.class.getTypeName());
+
+        assertEquals(fresh, warmed);
+    }
+
+    @Test
+    void getContractChecksum_mutuallyReferencingDtos_independentOfProcessingOrder() {
+        var warmedContext = newContext();
+        warmedContext.getContractChecksum(DepartmentContractInterface.class.getTypeName());
+
+        var fresh = newContext().getContractChecksum(EmployeeContractInterface.class.getTypeName());
+        var warmed = warmedContext.getContractChecksum(EmployeeContractInterface.class.getTypeName());
+
+        assertEquals(fresh, warmed);
+    }
+
+    @Test
+    void getContractChecksum_concurrentCalls_sameChecksumsAsSequential() {
+        var contracts = List.of(ContractInterface.class, HolderContractInterface.class, RecursiveContractInterface.class);
+        var expected = contracts.stream()
+            .map(contract -> newContext().getContractChecksum(contract.getTypeName()))
+            .toList();
+
+        var context = newContext();
+        var result = IntStream.range(0, 64).parallel()
+            .mapToObj(i -> context.getContractChecksum(contracts.get(i % contracts.size()).getTypeName()))
+            .toList();
+
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(expected.get(i % contracts.size()), result.get(i));
+        }
+    }
+
+    @Test
+    void getContractChecksum_legacyPolicy_sameChecksum() {
+        var context = new ChecksumContext(new ReflectionContractModelBuilder(getClass().getClassLoader()), TraversalPolicy.LEGACY);
+
+        assertEquals("26c16e648caf745f411882c4bd1f5f7d54792ad9985ecfa56c3ebbfd590078cd",
+            context.getContractChecksum(ContractInterface.class.getTypeName()));
+    }
+
+    @Test
+    void getContractChecksum_opaqueLibraryTypes_libraryFieldsNotRead() {
+        Set<String> readTypes = ConcurrentHashMap.newKeySet();
+        var context = new ChecksumContext(recordingReads(readTypes), new TraversalPolicy(true, List.of(), 0));
+
+        context.getContractChecksum(ExtendedContractInterface.class.getTypeName());
+
+        assertTrue(readTypes.contains(TreeNode.class.getTypeName()));
+        assertTrue(readTypes.stream().noneMatch(type -> type.startsWith("java.")), readTypes.toString());
+    }
+
+    @Test
+    void getContractChecksum_maxDepth_independentOfProcessingOrder() {
+        var policy = new TraversalPolicy(false, List.of("letunov.examples"), 1);
+        var warmedContext = new ChecksumContext(new ReflectionContractModelBuilder(getClass().getClassLoader()), policy);
+        warmedContext.getContractChecksum(RecursiveContractInterface.class.getTypeName());
+
+        var fresh = new ChecksumContext(new ReflectionContractModelBuilder(getClass().getClassLoader()), policy)
+            .getContractChecksum(HolderContractInterface.class.getTypeName());
+        var warmed = warmedContext.getContractChecksum(HolderContractInterface.class.getTypeName());
+
+        assertEquals(fresh, warmed);
+        assertNotEquals(newContext().getContractChecksum(HolderContractInterface.class.getTypeName()), fresh);
+    }
+
+    private ChecksumContext newContext() {
+        return new ChecksumContext(new ReflectionContractModelBuilder(getClass().getClassLoader()));
+    }
+
+    private ContractModelBuilder recordingReads(Set<String> readTypes) {
+        var modelBuilder = new ReflectionContractModelBuilder(getClass().getClassLoader());
+        return new ContractModelBuilder() {
+            @Override
+            public ContractDescriptor getContractDescriptor(String contractName) {
+                return modelBuilder.getContractDescriptor(contractName);
+            }
+
+            @Override
+            public List<FieldDescriptor> getDeclaredFields(String typeName) {
+                readTypes.add(typeName);
+                return modelBuilder.getDeclaredFields(typeName);
+            }
+
+            @Override
+            public Set<String> getPublicMethodNames(String typeName) {
+                return modelBuilder.getPublicMethodNames(typeName);
+            }
+
+            @Override
+            public Set<String> getSupertypes(String typeName) {
+                return modelBuilder.getSupertypes(typeName);
+            }
+        };
+    }
+}
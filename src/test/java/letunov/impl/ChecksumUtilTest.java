@@ -4,6 +4,8 @@ import letunov.TestSupport;
 import letunov.examples.ContractInterface;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class ChecksumUtilTest extends TestSupport {
@@ -14,4 +16,12 @@ class ChecksumUtilTest extends TestSupport {
 
         assertEquals("26c16e648caf745f411882c4bd1f5f7d54792ad9985ecfa56c3ebbfd590078cd", result);
     }
+
+    @Test
+    void getLongChecksum_sameAsChecksumOfDecimalString() {
+        for (long value : new long[] {0, 7, -7, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(ChecksumUtil.getBytesChecksum(String.valueOf(value).getBytes(StandardCharsets.UTF_8)),
+                ChecksumUtil.getLongChecksum(value), String.valueOf(value));
+        }
+    }
 }
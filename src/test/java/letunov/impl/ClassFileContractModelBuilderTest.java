@@ -0,0 +1,67 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.examples.ContractInterface;
+import letunov.examples.CovariantContractInterface;
+import letunov.examples.ExtendedContractInterface;
+import letunov.examples.HolderContractInterface;
+import letunov.examples.Person;
+import letunov.examples.RecursiveContractInterface;
+import letunov.examples.Student;
+import letunov.examples.TreeNode;
+import letunov.exception.ClassFileNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClassFileContractModelBuilderTest extends TestSupport {
+    private static final List<Class<?>> CONTRACTS = List.of(ContractInterface.class, HolderContractInterface.class,
+        RecursiveContractInterface.class, ExtendedContractInterface.class, CovariantContractInterface.class);
+
+    private final ReflectionContractModelBuilder reflectionModelBuilder =
+        new ReflectionContractModelBuilder(getClass().getClassLoader());
+    private final ClassFileContractModelBuilder classFileModelBuilder =
+        new ClassFileContractModelBuilder(getClass().getClassLoader());
+
+    @Test
+    void getContractDescriptor_sameModelAsReflection() {
+        for (var contract : CONTRACTS) {
+            var expected = reflectionModelBuilder.getContractDescriptor(contract.getTypeName());
+            var result = classFileModelBuilder.getContractDescriptor(contract.getTypeName());
+
+            // Class#getMethods does not define an order
+            assertEquals(expected.name(), result.name());
+            assertEquals(new HashSet<>(expected.methods()), new HashSet<>(result.methods()));
+            assertEquals(expected.methods().size(), result.methods().size());
+        }
+    }
+
+    @Test
+    void getContractChecksum_sameChecksumAsReflection() {
+        for (var contract : CONTRACTS) {
+            var expected = new ChecksumContext(reflectionModelBuilder).getContractChecksum(contract.getTypeName());
+            var result = new ChecksumContext(classFileModelBuilder).getContractChecksum(contract.getTypeName());
+
+            assertEquals(expected, result, contract.getTypeName());
+        }
+    }
+
+    @Test
+    void getDeclaredFields_sameFieldsAsReflection() {
+        for (var type : new Class<?>[]{Person.class, TreeNode.class, Student.class}) {
+            assertEquals(reflectionModelBuilder.getDeclaredFields(type.getTypeName()),
+                classFileModelBuilder.getDeclaredFields(type.getTypeName()));
+            assertEquals(reflectionModelBuilder.getPublicMethodNames(type.getTypeName()),
+                classFileModelBuilder.getPublicMethodNames(type.getTypeName()));
+        }
+    }
+
+    @Test
+    void getContractDescriptor_missingClassFile_exceptionThrown() {
+        assertThrows(ClassFileNotFoundException.class, () -> classFileModelBuilder.getContractDescriptor("letunov.examples.Missing"));
+    }
+}
@@ -0,0 +1,90 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.examples.AuditedDto;
+import letunov.examples.ContractInterface;
+import letunov.examples.InvoiceContractInterface;
+import letunov.impl.data.CachedContractChecksum;
+import letunov.impl.data.ClassFileStamp;
+import letunov.impl.data.ContractChecksumCacheContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractChecksumCacheTest extends TestSupport {
+    private static final String CHECKSUM = "26c16e648caf745f411882c4bd1f5f7d54792ad9985ecfa56c3ebbfd590078cd";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getChecksum_unchangedInputs_cachedChecksumReturned() throws Exception {
+        var cacheFile = tempDir.resolve("checksum-cache.json");
+        var cache = newCache(cacheFile);
+        assertEquals(CHECKSUM, cache.getChecksum(ContractInterface.class));
+        cache.save();
+
+        var content = objectMapper.readValue(cacheFile.toFile(), ContractChecksumCacheContent.class);
+        var cached = content.contracts().get(ContractInterface.class.getTypeName());
+        assertTrue(cached.inputs().keySet().containsAll(
+            List.of("letunov.examples.ContractInterface", "letunov.examples.Person", "letunov.examples.Dog")));
+        writeCache(cacheFile, content, new CachedContractChecksum("cached", cached.inputs()));
+
+        assertEquals("cached", newCache(cacheFile).getChecksum(ContractInterface.class));
+    }
+
+    @Test
+    void getChecksum_changedInput_checksumRecomputed() throws Exception {
+        var cacheFile = tempDir.resolve("checksum-cache.json");
+        var cache = newCache(cacheFile);
+        cache.getChecksum(ContractInterface.class);
+        cache.save();
+
+        var content = objectMapper.readValue(cacheFile.toFile(), ContractChecksumCacheContent.class);
+        var cached = content.contracts().get(ContractInterface.class.getTypeName());
+        Map<String, ClassFileStamp> inputs = new HashMap<>(cached.inputs());
+        inputs.computeIfPresent("letunov.examples.Dog", (type, stamp) -> new ClassFileStamp(stamp.source(), "changed"));
+        writeCache(cacheFile, content, new CachedContractChecksum("cached", inputs));
+
+        assertEquals(CHECKSUM, newCache(cacheFile).getChecksum(ContractInterface.class));
+    }
+
+    @Test
+    void getChecksum_changedSuperclassOfDto_checksumRecomputed() throws Exception {
+        var cacheFile = tempDir.resolve("checksum-cache.json");
+        var cache = newCache(cacheFile);
+        var checksum = cache.getChecksum(InvoiceContractInterface.class);
+        cache.save();
+
+        var content = objectMapper.readValue(cacheFile.toFile(), ContractChecksumCacheContent.class);
+        var cached = content.contracts().get(InvoiceContractInterface.class.getTypeName());
+        assertTrue(cached.inputs().containsKey(AuditedDto.class.getTypeName()));
+        Map<String, ClassFileStamp> inputs = new HashMap<>(cached.inputs());
+        inputs.computeIfPresent(AuditedDto.class.getTypeName(), (type, stamp) -> new ClassFileStamp(stamp.source(), "changed"));
+        writeCache(cacheFile, content, InvoiceContractInterface.class, new CachedContractChecksum("cached", inputs));
+
+        assertEquals(checksum, newCache(cacheFile).getChecksum(InvoiceContractInterface.class));
+    }
+
+    private ContractChecksumCache newCache(Path cacheFile) {
+        var classLoader = getClass().getClassLoader();
+        return new ContractChecksumCache(cacheFile, classLoader, new ChecksumContext(new ReflectionContractModelBuilder(classLoader)));
+    }
+
+    private void writeCache(Path cacheFile, ContractChecksumCacheContent content, CachedContractChecksum cached) throws Exception {
+        writeCache(cacheFile, content, ContractInterface.class, cached);
+    }
+
+    private void writeCache(Path cacheFile, ContractChecksumCacheContent content, Class<?> contract,
+        CachedContractChecksum cached) throws Exception {
+        objectMapper.writeValue(cacheFile.toFile(), new ContractChecksumCacheContent(content.version(), content.javaVersion(),
+            content.traversalPolicy(), Map.of(contract.getTypeName(), cached)));
+    }
+}
@@ -0,0 +1,145 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.examples.ContractInterface;
+import letunov.impl.data.ContractChange;
+import letunov.impl.data.ContractChangeKind;
+import letunov.impl.data.ContractShape;
+import letunov.impl.data.ContractSide;
+import letunov.impl.data.EndpointShape;
+import letunov.impl.data.ParameterBinding;
+import letunov.impl.data.ParameterShape;
+import letunov.impl.data.TraversalPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractDiffEngineTest extends TestSupport {
+    private static final String CONTRACT = "com.example.OrdersContract";
+    private static final ParameterShape ID = new ParameterShape("id", ParameterBinding.PATH, "id", true, "java.lang.String");
+    private static final ParameterShape EXPAND = new ParameterShape("expand", ParameterBinding.QUERY, "expand", true,
+        "java.lang.String");
+    private static final ContractShape BASELINE = new ContractShape(CONTRACT, ContractSide.PROVIDING, List.of(
+        endpoint("getOrder", List.of("/orders/{id}"), "com.example.Order", ID, EXPAND),
+        endpoint("deleteOrder", List.of("/orders/{id}"), "void", ID)),
+        Map.of("com.example.Order", Map.of("id", "java.lang.String", "total", "long")));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void diff_compatibleChanges_reportCompatible() {
+        var current = new ContractShape(CONTRACT, ContractSide.PROVIDING, List.of(
+            endpoint("getOrder", List.of("/orders/{id}"), "com.example.Order", ID,
+                new ParameterShape("expand", ParameterBinding.QUERY, "expand", false, "java.lang.String"),
+                new ParameterShape("locale", ParameterBinding.QUERY, "locale", false, "java.lang.String")),
+            endpoint("deleteOrder", List.of("/orders/{id}"), "void", ID),
+            endpoint("getOrders", List.of("/orders"), "java.util.List<com.example.Order>")),
+            Map.of("com.example.Order", Map.of("id", "java.lang.String", "total", "long", "currency", "java.lang.String")));
+
+        var report = new ContractDiffEngine("baseline", List.of(BASELINE)).diff(List.of(current,
+            new ContractShape("com.example.StockContract", ContractSide.PROVIDING, List.of(), Map.of())));
+
+        assertEquals(List.of(ContractChangeKind.CHANGED_REQUIRED, ContractChangeKind.NEW_PARAMETER,
+            ContractChangeKind.NEW_ENDPOINT, ContractChangeKind.NEW_OPTIONAL_FIELD, ContractChangeKind.NEW_CONTRACT),
+            report.changes().stream().map(ContractChange::kind).toList());
+        assertTrue(report.isCompatible());
+        // The parameter becoming optional is compatible, but not additive
+        assertFalse(report.isAdditive());
+    }
+
+    @Test
+    void diff_addedProvidingContracts_reportAdditive() {
+        var current = new ContractShape(CONTRACT, ContractSide.PROVIDING, List.of(
+            endpoint("getOrder", List.of("/orders/{id}"), "com.example.Order", ID, EXPAND,
+                new ParameterShape("locale", ParameterBinding.QUERY, "locale", false, "java.lang.String")),
+            endpoint("deleteOrder", List.of("/orders/{id}"), "void", ID),
+            endpoint("getOrders", List.of("/orders"), "java.util.List<com.example.Order>")),
+            Map.of("com.example.Order", Map.of("id", "java.lang.String", "total", "long", "currency", "java.lang.String")));
+        var withoutExpand = new ContractShape(CONTRACT, ContractSide.PROVIDING, List.of(
+            endpoint("getOrder", List.of("/orders/{id}"), "com.example.Order", ID),
+            endpoint("deleteOrder", List.of("/orders/{id}"), "void", ID)),
+            BASELINE.types());
+        var engine = new ContractDiffEngine("baseline", List.of(BASELINE));
+
+        assertTrue(engine.diff(List.of(current)).isAdditive());
+        var removedQueryParameter = engine.diff(List.of(withoutExpand));
+        assertTrue(removedQueryParameter.isCompatible());
+        assertFalse(removedQueryParameter.isAdditive());
+    }
+
+    @Test
+    void diff_consumingContract_compatibilityReversed() {
+        var baseline = new ContractShape(CONTRACT, ContractSide.CONSUMING, BASELINE.endpoints(), BASELINE.types());
+        var current = new ContractShape(CONTRACT, ContractSide.CONSUMING, List.of(
+            endpoint("getOrder", List.of("/orders/{id}"), "com.example.Order",
+                new ParameterShape("expand", ParameterBinding.QUERY, "expand", false, "java.lang.String")),
+            endpoint("getOrders", List.of("/orders"), "java.util.List<com.example.Order>")),
+            Map.of("com.example.Order", Map.of("id", "java.lang.String")));
+
+        var report = new ContractDiffEngine("baseline", List.of(baseline, BASELINE)).diff(List.of(current, BASELINE));
+
+        assertEquals(List.of(
+            "!< CHANGED_REQUIRED com.example.OrdersContract getOrder() expand: true -> false",
+            "!< REMOVED_PARAMETER com.example.OrdersContract getOrder() id: PATH(id) required java.lang.String -> none",
+            "!< NEW_ENDPOINT com.example.OrdersContract getOrders(): none -> GET [/orders]",
+            "+< REMOVED_ENDPOINT com.example.OrdersContract deleteOrder(): GET [/orders/{id}] -> none",
+            "+< REMOVED_FIELD com.example.OrdersContract com.example.Order.total: long -> none"),
+            ContractDiffEngine.format(report).subList(1, report.changes().size() + 1));
+        assertFalse(report.isCompatible());
+        assertFalse(report.isAdditive());
+    }
+
+    @Test
+    void diff_breakingChanges_reportIncompatible() throws Exception {
+        var baselineFile = tempDir.resolve("baseline.json");
+        ContractDiffEngine.writeShapes(List.of(BASELINE), baselineFile);
+        var current = new ContractShape(CONTRACT, ContractSide.PROVIDING, List.of(
+            endpoint("getOrder", List.of("/v2/orders/{id}"), "com.example.OrderView",
+                new ParameterShape("id", ParameterBinding.PATH, "id", true, "long"),
+                new ParameterShape("tenant", ParameterBinding.QUERY, "tenant", true, "java.lang.String"))),
+            Map.of("com.example.Order", Map.of("id", "java.lang.String")));
+
+        var report = ContractDiffEngine.load(baselineFile).diff(List.of(current));
+
+        assertEquals(List.of(
+            "! CHANGED_PATH com.example.OrdersContract getOrder(): [/orders/{id}] -> [/v2/orders/{id}]",
+            "! CHANGED_TYPE com.example.OrdersContract getOrder() return: com.example.Order -> com.example.OrderView",
+            "! CHANGED_TYPE com.example.OrdersContract getOrder() id: java.lang.String -> long",
+            "! NEW_PARAMETER com.example.OrdersContract getOrder() tenant: none -> QUERY(tenant) required java.lang.String",
+            "+ REMOVED_PARAMETER com.example.OrdersContract getOrder() expand: QUERY(expand) required java.lang.String -> none",
+            "! REMOVED_ENDPOINT com.example.OrdersContract deleteOrder(): GET [/orders/{id}] -> none",
+            "! REMOVED_FIELD com.example.OrdersContract com.example.Order.total: long -> none"),
+            ContractDiffEngine.format(report).subList(1, report.changes().size() + 1));
+        assertFalse(report.isCompatible());
+    }
+
+    @Test
+    void getContractShape_exampleContract_mappingsAndBindings() {
+        var shapeBuilder = new ContractShapeBuilder(new ReflectionContractModelBuilder(getClass().getClassLoader()),
+            TraversalPolicy.LEGACY);
+
+        var shape = shapeBuilder.getContractShape(ContractInterface.class.getTypeName(), ContractSide.PROVIDING);
+
+        var postPerson = shape.endpoints().stream().filter(endpoint -> endpoint.name().equals("postPerson")).findFirst()
+            .orElseThrow();
+        assertEquals(List.of("POST"), postPerson.httpMethods());
+        assertEquals(List.of("/service/{param}"), postPerson.paths());
+        assertEquals(List.of(ParameterBinding.PATH, ParameterBinding.BODY),
+            postPerson.parameters().stream().map(ParameterShape::binding).toList());
+        assertEquals(Map.of("name", "java.lang.String", "age", "int", "dog", "java.util.List<letunov.examples.Dog>"),
+            shape.types().get("letunov.examples.Person"));
+        assertTrue(shape.types().containsKey("letunov.examples.Dog"));
+    }
+
+    private static EndpointShape endpoint(String name, List<String> paths, String returnType, ParameterShape... parameters) {
+        return new EndpointShape(name + "()", name, List.of("GET"), paths, Map.of(), returnType, List.of(parameters));
+    }
+}
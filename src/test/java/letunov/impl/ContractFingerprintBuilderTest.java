@@ -0,0 +1,98 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.examples.ContractInterface;
+import letunov.examples.ExtendedContractInterface;
+import letunov.examples.RecursiveContractInterface;
+import letunov.examples.TreeNode;
+import letunov.impl.data.ContractFingerprint;
+import letunov.impl.data.MethodFingerprint;
+import letunov.impl.model.ContractDescriptor;
+import letunov.impl.model.ContractModelBuilder;
+import letunov.impl.model.FieldDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ContractFingerprintBuilderTest extends TestSupport {
+
+    @Test
+    void getContractFingerprint_classFileBackend_sameAsReflection() {
+        for (var contract : List.of(ContractInterface.class, ExtendedContractInterface.class, RecursiveContractInterface.class)) {
+            var reflection = new ContractFingerprintBuilder(new ReflectionContractModelBuilder(getClass().getClassLoader()))
+                .getContractFingerprint(contract.getTypeName());
+            var classFile = new ContractFingerprintBuilder(new ClassFileContractModelBuilder(getClass().getClassLoader()))
+                .getContractFingerprint(contract.getTypeName());
+
+            assertEquals(reflection, classFile, contract.getTypeName());
+        }
+    }
+
+    @Test
+    void getContractFingerprint_changedDto_onlyMethodsUsingItChange() {
+        var modelBuilder = new ReflectionContractModelBuilder(getClass().getClassLoader());
+        var original = new ContractFingerprintBuilder(modelBuilder)
+            .getContractFingerprint(ExtendedContractInterface.class.getTypeName());
+        var changed = new ContractFingerprintBuilder(withoutField(modelBuilder, TreeNode.class.getTypeName(), "Label"))
+            .getContractFingerprint(ExtendedContractInterface.class.getTypeName());
+
+        var originalMethods = getMethodDigests(original);
+        var changedMethods = getMethodDigests(changed);
+        assertNotEquals(original.digest(), changed.digest());
+        assertEquals(originalMethods.keySet(), changedMethods.keySet());
+        originalMethods.forEach((signature, digest) -> {
+            var usesTreeNode = signature.startsWith("delete(") || signature.startsWith("holder(");
+            assertEquals(!usesTreeNode, digest.equals(changedMethods.get(signature)), signature);
+        });
+        assertNotEquals(original.types().get(TreeNode.class.getTypeName()), changed.types().get(TreeNode.class.getTypeName()));
+    }
+
+    @Test
+    void getContractFingerprint_sameBuilder_memoizedResultIsStable() {
+        var builder = new ContractFingerprintBuilder(new ReflectionContractModelBuilder(getClass().getClassLoader()));
+
+        var first = builder.getContractFingerprint(RecursiveContractInterface.class.getTypeName());
+        var second = builder.getContractFingerprint(RecursiveContractInterface.class.getTypeName());
+
+        assertEquals(first, second);
+        assertEquals(first, new ContractFingerprintBuilder(new ReflectionContractModelBuilder(getClass().getClassLoader()))
+            .getContractFingerprint(RecursiveContractInterface.class.getTypeName()));
+    }
+
+    private Map<String, String> getMethodDigests(ContractFingerprint fingerprint) {
+        return fingerprint.methods().stream()
+            .collect(toMap(MethodFingerprint::signature, MethodFingerprint::digest));
+    }
+
+    private ContractModelBuilder withoutField(ContractModelBuilder modelBuilder, String typeName, String fieldName) {
+        return new ContractModelBuilder() {
+            @Override
+            public ContractDescriptor getContractDescriptor(String contractName) {
+                return modelBuilder.getContractDescriptor(contractName);
+            }
+
+            @Override
+            public List<FieldDescriptor> getDeclaredFields(String type) {
+                return modelBuilder.getDeclaredFields(type).stream()
+                    .filter(field -> !type.equals(typeName) || !field.name().equals(fieldName))
+                    .toList();
+            }
+
+            @Override
+            public Set<String> getPublicMethodNames(String type) {
+                return modelBuilder.getPublicMethodNames(type);
+            }
+
+            @Override
+            public Set<String> getSupertypes(String type) {
+                return modelBuilder.getSupertypes(type);
+            }
+        };
+    }
+}
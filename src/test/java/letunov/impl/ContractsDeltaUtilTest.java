@@ -0,0 +1,45 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.impl.data.ContractFingerprint;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ContractsDeltaUtilTest extends TestSupport {
+    private static final DependencyInfo API = new DependencyInfo("com.example", "api", "1.0");
+
+    @Test
+    void getVersion_fingerprintAdded_sameVersion() {
+        var base = providing(new ProvidingContractInfo("com.example.OrdersContract", API, "a"));
+        var current = providing(new ProvidingContractInfo("com.example.OrdersContract", API, "a",
+            new ContractFingerprint("digest", List.of(), Map.of())));
+
+        assertEquals(ContractsDeltaUtil.getVersion(base), ContractsDeltaUtil.getVersion(current));
+        assertEquals(List.of(), ContractsDeltaUtil.getDelta(base, current).changedProviding());
+    }
+
+    @Test
+    void getVersion_canonicalForm_hashed() {
+        var contractsInfo = providing(new ProvidingContractInfo("com.example.OrdersContract", API, "a"),
+            new ProvidingContractInfo("com.example.AuditContract", null, "b"));
+
+        assertEquals(ChecksumUtil.getBytesChecksum(("orders\n"
+                + "P\tcom.example.AuditContract\t\tb\n"
+                + "P\tcom.example.OrdersContract\tcom.example:api:1.0\ta\n").getBytes()),
+            ContractsDeltaUtil.getVersion(contractsInfo));
+        assertNotEquals(ContractsDeltaUtil.getVersion(contractsInfo), ContractsDeltaUtil.getVersion(
+            providing(new ProvidingContractInfo("com.example.OrdersContract", API, "a"))));
+    }
+
+    private static MicroserviceContractsInfo providing(ProvidingContractInfo... contracts) {
+        return new MicroserviceContractsInfo("orders", List.of(contracts), List.of());
+    }
+}
@@ -0,0 +1,74 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.impl.data.DependencyInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DependencyClassIndexTest extends TestSupport {
+    private static final DependencyInfo API = new DependencyInfo("com.example", "api", "1.0");
+    private static final DependencyInfo SHADED = new DependencyInfo("com.example", "shaded", "1.0");
+    private static final DependencyInfo CLASSES = new DependencyInfo("com.example", "classes", "1.0");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getDependencyInfo_duplicateClass_firstDeclaredDependencyUsed() throws IOException {
+        var apiJar = createJar("api.jar", "com/example/api/Contract.class", "com/example/api/Dto.class",
+            "META-INF/MANIFEST.MF", "module-info.class");
+        var shadedJar = createJar("shaded.jar", "com/example/api/Dto.class", "META-INF/versions/11/com/example/Util.class");
+        var classesDirectory = Files.createDirectories(tempDir.resolve("classes/com/example/own"));
+        Files.createFile(classesDirectory.resolve("Own.class"));
+        Map<DependencyInfo, Path> dependencies = new LinkedHashMap<>();
+        dependencies.put(API, apiJar);
+        dependencies.put(SHADED, shadedJar);
+        dependencies.put(CLASSES, tempDir.resolve("classes"));
+        dependencies.put(new DependencyInfo("com.example", "missing", "1.0"), tempDir.resolve("missing.jar"));
+
+        var index = new DependencyClassIndex(dependencies);
+
+        assertEquals(Optional.of(API), index.getDependencyInfo("com.example.api.Contract"));
+        assertEquals(Optional.of(API), index.getDependencyInfo("com.example.api.Dto"));
+        assertEquals(Optional.of(SHADED), index.getDependencyInfo("com.example.Util"));
+        assertEquals(Optional.of(CLASSES), index.getDependencyInfo("com.example.own.Own"));
+        assertEquals(Optional.empty(), index.getDependencyInfo("module-info"));
+        assertEquals(Optional.empty(), index.getDependencyInfo("com.example.Unknown"));
+        assertEquals(Map.of("com.example.api.Dto", List.of(API, SHADED)), index.getConflicts());
+    }
+
+    @Test
+    void getClassEntryNames_unchangedJar_entriesReused() throws IOException {
+        var jar = createJar("api.jar", "com/example/api/Contract.class", "META-INF/MANIFEST.MF");
+
+        var first = JarClassNamesCache.getClassEntryNames(jar);
+        var second = JarClassNamesCache.getClassEntryNames(jar);
+
+        assertEquals(List.of("com/example/api/Contract.class"), first);
+        assertSame(first, second);
+    }
+
+    private Path createJar(String name, String... entries) throws IOException {
+        var jar = tempDir.resolve(name);
+        try (var outputStream = new ZipOutputStream(Files.newOutputStream(jar))) {
+            for (var entry : entries) {
+                outputStream.putNextEntry(new ZipEntry(entry));
+                outputStream.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,41 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LruCacheTest extends TestSupport {
+
+    @Test
+    void put_overMaxWeight_leastRecentlyUsedEvicted() {
+        var cache = new LruCache<String, String>(6, String::length);
+        cache.put("a", "aa");
+        cache.put("b", "bb");
+        cache.put("c", "cc");
+        cache.get("a");
+
+        cache.put("d", "dd");
+
+        assertNull(cache.get("b"));
+        assertEquals("aa", cache.get("a"));
+        assertEquals("cc", cache.get("c"));
+        assertEquals("dd", cache.get("d"));
+        assertEquals(6, cache.getWeight());
+    }
+
+    @Test
+    void setMaxWeight_lowered_evictsAndSkipsHeavierValues() {
+        var cache = new LruCache<String, String>(10, String::length);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+
+        cache.setMaxWeight(5);
+        cache.put("c", "cccccc");
+
+        assertEquals(1, cache.size());
+        assertEquals("bbbb", cache.get("b"));
+        assertNull(cache.get("c"));
+    }
+}
@@ -1,12 +1,82 @@
 package letunov.impl;
 
 import letunov.TestSupport;
+import letunov.examples.scan.ScannedContract;
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.reflections.scanners.Scanners.TypesAnnotated;
 
 public class MicroserviceContractsScannerTest extends TestSupport {
+    private static final DependencyInfo API = new DependencyInfo("com.example", "api", "1.0");
+
+    private ExecutorService executor;
+    private MicroserviceContractsScanner scanner;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException {
+        executor = Executors.newFixedThreadPool(2);
+        var classLoader = getClass().getClassLoader();
+        var reflections = new Reflections(new ConfigurationBuilder()
+            .forPackages("letunov.examples.scan")
+            .addClassLoaders(classLoader)
+            .setScanners(TypesAnnotated));
+        var testClasses = Path.of(ScannedContract.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        var checksumContext = new ChecksumContext(new ReflectionContractModelBuilder(classLoader));
+        scanner = new MicroserviceContractsScanner(reflections, classLoader, new DependencyClassIndex(Map.of(API, testClasses)),
+            new ContractChecksumCache(null, classLoader, checksumContext), null, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
 
     @Test
     void getProvidingContractsInfo_test() {
+        var checksum = ChecksumUtil.getContractChecksum(ScannedContract.class);
+
+        assertEquals(List.of(new ProvidingContractInfo(ScannedContract.class.getTypeName(), API, checksum)),
+            scanner.getProvidingContractsInfo());
+    }
+
+    @Test
+    void getConsumingContractsInfo_contractOfSeveralConsumers_reportedOnce() {
+        var checksum = ChecksumUtil.getContractChecksum(ScannedContract.class);
+
+        assertEquals(List.of(new ConsumingContractInfo(ScannedContract.class.getTypeName(), "upstream", API, checksum)),
+            scanner.getConsumingContractsInfo());
+    }
+
+    @Test
+    void getProvidingContractsInfo_dependencyIndexFailed_failureThrown() {
+        var index = new CompletableFuture<DependencyClassIndex>();
+        index.completeExceptionally(new IllegalStateException("index failed"));
+        var classLoader = getClass().getClassLoader();
+        var failingScanner = new MicroserviceContractsScanner(new Reflections(new ConfigurationBuilder()
+            .forPackages("letunov.examples.scan")
+            .addClassLoaders(classLoader)
+            .setScanners(TypesAnnotated)), classLoader, index,
+            new ContractChecksumCache(null, classLoader, new ChecksumContext(new ReflectionContractModelBuilder(classLoader))),
+            null, executor);
 
+        var exception = assertThrows(IllegalStateException.class, failingScanner::getProvidingContractsInfo);
+        assertEquals("index failed", exception.getMessage());
     }
 }
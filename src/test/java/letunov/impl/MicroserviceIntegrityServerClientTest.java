@@ -0,0 +1,147 @@
+package letunov.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import letunov.TestSupport;
+import letunov.exception.UnableToMakeRequestException;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import letunov.impl.data.ServerClientSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MicroserviceIntegrityServerClientTest extends TestSupport {
+    private static final MicroserviceContractsInfo INFO = new MicroserviceContractsInfo("orders",
+        List.of(new ProvidingContractInfo("com.example.OrdersContract", new DependencyInfo("com.example", "api", "1.0"), "abc")),
+        List.of());
+
+    private final Queue<Integer> responseCodes = new ConcurrentLinkedQueue<>();
+    private final Queue<MicroserviceContractsInfo> receivedBodies = new ConcurrentLinkedQueue<>();
+    private final Queue<List<MicroserviceContractsInfo>> receivedBatches = new ConcurrentLinkedQueue<>();
+    private final Queue<String> requestPaths = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> receivedBytes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestsCount = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void updateMicroserviceGraph_serverError_retried() {
+        responseCodes.addAll(List.of(503, 500, 200));
+
+        createClient(false).updateMicroserviceGraph(INFO);
+
+        assertEquals(3, requestsCount.get());
+        assertEquals(List.of(INFO, INFO, INFO), List.copyOf(receivedBodies));
+    }
+
+    @Test
+    void updateMicroserviceGraph_retried_attemptsAndBytesReported() {
+        responseCodes.addAll(List.of(503, 200));
+        var scanMetrics = new ScanMetrics();
+
+        createClient(false, scanMetrics).updateMicroserviceGraph(INFO);
+
+        var phase = scanMetrics.getReport("orders", "updateMicroserviceGraph").phases().get(0);
+        assertEquals("updateMicroserviceGraph", phase.name());
+        assertEquals(1, phase.runs());
+        assertEquals(2L, phase.counters().get("attempts"));
+        assertEquals(2L * receivedBytes.peek(), phase.counters().get("bytesSent"));
+    }
+
+    @Test
+    void updateMicroserviceGraph_clientError_notRetried() {
+        responseCodes.add(400);
+
+        assertThrows(UnableToMakeRequestException.class, () -> createClient(false).updateMicroserviceGraph(INFO));
+        assertEquals(1, requestsCount.get());
+    }
+
+    @Test
+    void verifyMicroserviceAsync_gzip_compressedBodySent() throws Exception {
+        responseCodes.add(200);
+
+        createClient(true).verifyMicroserviceAsync(INFO, "42").get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(INFO), List.copyOf(receivedBodies));
+    }
+
+    @Test
+    void verifyMicroserviceAsync_conflict_reportedAsServerError() {
+        responseCodes.add(409);
+
+        var result = createClient(false).verifyMicroserviceAsync(INFO, "42");
+
+        var exception = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(UnableToMakeRequestException.class, exception.getCause());
+        assertEquals(1, requestsCount.get());
+    }
+
+    @Test
+    void updateMicroserviceGraphsAsync_severalMicroservices_singleRequestSent() throws Exception {
+        responseCodes.add(200);
+        var other = new MicroserviceContractsInfo("payments", List.of(), List.of());
+
+        createClient(false).updateMicroserviceGraphsAsync(List.of(INFO, other)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, requestsCount.get());
+        assertEquals("/graph/microservices", requestPaths.poll());
+        assertEquals(List.of(INFO, other), receivedBatches.poll());
+    }
+
+    private MicroserviceIntegrityServerClient createClient(boolean gzip) {
+        return createClient(gzip, new ScanMetrics());
+    }
+
+    private MicroserviceIntegrityServerClient createClient(boolean gzip, ScanMetrics scanMetrics) {
+        var settings = new ServerClientSettings(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5), 2, Duration.ofMillis(10), gzip, false);
+        return new MicroserviceIntegrityServerClient("http://localhost:" + server.getAddress().getPort(), settings, scanMetrics);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestsCount.incrementAndGet();
+        var bytes = exchange.getRequestBody().readAllBytes();
+        receivedBytes.add(bytes.length);
+        var inputStream = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+            ? new GZIPInputStream(new ByteArrayInputStream(bytes))
+            : new ByteArrayInputStream(bytes);
+        requestPaths.add(exchange.getRequestURI().getPath());
+        var body = objectMapper.readTree(inputStream);
+        if (body.isArray()) {
+            receivedBatches.add(List.of(objectMapper.treeToValue(body, MicroserviceContractsInfo[].class)));
+        } else {
+            receivedBodies.add(objectMapper.treeToValue(body, MicroserviceContractsInfo.class));
+        }
+        var code = responseCodes.poll();
+        exchange.sendResponseHeaders(code == null ? 500 : code, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,65 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OfflineVerificationEngineTest extends TestSupport {
+    private static final DependencyInfo API = new DependencyInfo("com.example", "api", "1.0");
+    private static final List<MicroserviceContractsInfo> GRAPH = List.of(
+        new MicroserviceContractsInfo("payments",
+            List.of(new ProvidingContractInfo("com.example.PaymentsContract", API, "p1")),
+            List.of(new ConsumingContractInfo("com.example.OrdersContract", "orders", API, "o1"))),
+        new MicroserviceContractsInfo("orders",
+            List.of(new ProvidingContractInfo("com.example.OrdersContract", API, "o1")),
+            List.of(new ConsumingContractInfo("com.example.PaymentsContract", "payments", API, "p1"))));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void verify_matchingContracts_noMessages() throws Exception {
+        var graphSnapshot = tempDir.resolve("graph.json");
+        objectMapper.writeValue(graphSnapshot.toFile(), GRAPH);
+
+        var result = OfflineVerificationEngine.load(graphSnapshot).verify(GRAPH.get(1));
+
+        assertEquals(graphSnapshot.toString(), result.graphLink());
+        assertEquals(List.of(), result.messages());
+    }
+
+    @Test
+    void verify_changedContracts_mismatchesReported() {
+        var orders = new MicroserviceContractsInfo("orders",
+            List.of(new ProvidingContractInfo("com.example.OrdersContract", API, "o2")),
+            List.of(new ConsumingContractInfo("com.example.PaymentsContract", "payments", API, "p2"),
+                new ConsumingContractInfo("com.example.RefundsContract", "payments", API, "r1"),
+                new ConsumingContractInfo("com.example.StockContract", "stock", API, "s1")));
+
+        var result = new OfflineVerificationEngine("graph", GRAPH).verify(orders);
+
+        assertEquals(List.of(
+            "The consumed contract com.example.PaymentsContract differs from the one provided by payments",
+            "The microservice payments doesn't provide com.example.RefundsContract",
+            "The microservice stock providing com.example.StockContract is not in the graph",
+            "The provided contract com.example.OrdersContract differs from the one consumed by payments"), result.messages());
+    }
+
+    @Test
+    void verify_removedContract_consumersReported() {
+        var orders = new MicroserviceContractsInfo("orders", List.of(), GRAPH.get(1).consuming());
+
+        var result = new OfflineVerificationEngine("graph", GRAPH).verify(orders);
+
+        assertEquals(List.of("The contract com.example.OrdersContract consumed by payments is no longer provided"), result.messages());
+    }
+}
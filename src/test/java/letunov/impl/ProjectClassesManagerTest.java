@@ -0,0 +1,73 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.contract.ContractConsumer;
+import letunov.contract.ContractProvider;
+import letunov.examples.scan.AnotherScannedConsumer;
+import letunov.examples.scan.ScannedConsumer;
+import letunov.examples.scan.ScannedProvider;
+import letunov.impl.data.DependencyInfo;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.reflections.scanners.Scanners.TypesAnnotated;
+import static org.mockito.Mockito.mock;
+
+class ProjectClassesManagerTest extends TestSupport {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getDependencyClassIndex_resolvedArtifacts_attributedByBaseVersion() throws IOException {
+        var siblingClasses = Files.createDirectories(tempDir.resolve("sibling/target/classes/com/example/api"));
+        Files.createFile(siblingClasses.resolve("Contract.class"));
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        artifacts.add(createArtifact("api", "1.0-20250101.120000-3", tempDir.resolve("sibling/target/classes").toFile()));
+        artifacts.add(createArtifact("unresolved", "1.0", null));
+
+        try (var projectClassesManager = new ProjectClassesManager()) {
+            var index = projectClassesManager.getDependencyClassIndex(artifacts);
+
+            assertEquals(Optional.of(new DependencyInfo("com.example", "api", "1.0-SNAPSHOT")),
+                index.getDependencyInfo("com.example.api.Contract"));
+        }
+    }
+
+    @Test
+    void getManifestReflections_manifest_sameProvidersAndConsumersAsScan() {
+        var manifest = new ContractChecksumManifest("", Set.of(ScannedProvider.class.getTypeName()),
+            Set.of(ScannedConsumer.class.getTypeName(), AnotherScannedConsumer.class.getTypeName()), Map.of());
+
+        try (var projectClassesManager = new ProjectClassesManager()) {
+            var scanned = projectClassesManager.getProjectReflections(getClass().getClassLoader());
+            var fromManifest = projectClassesManager.getManifestReflections(manifest);
+
+            for (var annotation : List.of(ContractProvider.class, ContractConsumer.class)) {
+                assertEquals(scanned.get(TypesAnnotated.with(annotation.getTypeName())),
+                    fromManifest.get(TypesAnnotated.with(annotation.getTypeName())));
+            }
+        }
+    }
+
+    private Artifact createArtifact(String artifactId, String version, File file) {
+        var artifact = new DefaultArtifact("com.example", artifactId, VersionRange.createFromVersion(version), "compile",
+            "jar", null, mock(ArtifactHandler.class));
+        artifact.setFile(file);
+        return artifact;
+    }
+}
@@ -0,0 +1,59 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactorGoalProgressTest extends TestSupport {
+
+    @Test
+    void finish_allGoalProjects_lastOneOnly() {
+        var session = new Object();
+        var progress = ReactorGoalProgress.get(session, "goal", () -> Set.of("a", "b"));
+
+        assertSame(progress, ReactorGoalProgress.get(session, "goal", () -> Set.of("c")));
+        assertFalse(progress.finish("b"));
+        assertTrue(progress.finish("a"));
+        assertFalse(progress.finish("a"));
+    }
+
+    @Test
+    void get_nextSession_freshProgress() {
+        var progress = ReactorGoalProgress.get(new Object(), "goal", () -> Set.of("a", "b"));
+        progress.finish("a");
+
+        var next = ReactorGoalProgress.get(new Object(), "goal", () -> Set.of("a", "b"));
+
+        assertNotSame(progress, next);
+        assertFalse(next.finish("a"));
+        assertTrue(next.finish("b"));
+    }
+
+    @Test
+    void fail_modulePartwayThroughReactor_noLastModuleAndRequestsAwaited() {
+        var session = new Object();
+        var progress = ReactorGoalProgress.get(session, "goal", () -> Set.of("a", "b", "c", "d"));
+        progress.getPendingRequests().add(CompletableFuture.failedFuture(new IllegalStateException("upload failed")));
+        assertFalse(progress.finish("a"));
+
+        progress.fail("b");
+
+        var failure = assertThrows(IllegalStateException.class, progress::awaitPendingRequests);
+        assertEquals("upload failed", failure.getMessage());
+        assertTrue(progress.getPendingRequests().isEmpty());
+        // d depends on b and is skipped, c finishes after the failure and is not the last module
+        var sameProgress = ReactorGoalProgress.get(session, "goal", () -> Set.of("c"));
+        assertSame(progress, sameProgress);
+        assertFalse(sameProgress.finish("c"));
+        assertTrue(sameProgress.isFailed());
+    }
+}
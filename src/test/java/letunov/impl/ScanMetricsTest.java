@@ -0,0 +1,40 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.impl.data.ScanMetricsReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanMetricsTest extends TestSupport {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void write_measuredPhases_reportedInFirstRunOrder() throws Exception {
+        var scanMetrics = new ScanMetrics();
+        scanMetrics.measure("reflections", () -> scanMetrics.count("reflections", "indexedTypes", 3));
+        var result = scanMetrics.measure("contracts", () -> "scanned");
+        IntStream.range(0, 100).parallel().forEach(i -> scanMetrics.count("contracts", "contracts", 1));
+        scanMetrics.measure("reflections", () -> scanMetrics.count("reflections", "indexedTypes", 2));
+
+        var file = tempDir.resolve("metrics.json");
+        scanMetrics.write(file, "orders", "verifyMicroservice");
+        var report = objectMapper.readValue(file.toFile(), ScanMetricsReport.class);
+
+        assertEquals("scanned", result);
+        assertEquals("orders", report.project());
+        assertEquals(List.of("reflections", "contracts"), report.phases().stream().map(phase -> phase.name()).toList());
+        assertEquals(2, report.phases().get(0).runs());
+        assertEquals(Map.of("indexedTypes", 5L), report.phases().get(0).counters());
+        assertEquals(Map.of("contracts", 100L), report.phases().get(1).counters());
+        assertTrue(report.wallTimeNanos() >= report.phases().get(0).wallTimeNanos());
+    }
+}
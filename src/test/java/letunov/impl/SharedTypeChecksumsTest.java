@@ -0,0 +1,138 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.examples.AuditedDto;
+import letunov.examples.Bone;
+import letunov.examples.Dog;
+import letunov.examples.InvoiceContractInterface;
+import letunov.examples.InvoiceDto;
+import letunov.impl.data.TraversalPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SharedTypeChecksumsTest extends TestSupport {
+    private static final Set<String> DOG_TYPES = Set.of(Dog.class.getTypeName(), Bone.class.getTypeName(), "java.lang.String");
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        SharedTypeChecksums.clear();
+    }
+
+    @Test
+    void getChecksum_unchangedJar_reusedByNextScan() throws IOException {
+        var jar = writeJar("");
+        try (var classLoader = newClassLoader(jar)) {
+            new SharedTypeChecksums(classLoader).putChecksum(Dog.class.getTypeName(), TraversalPolicy.LEGACY, 0, 42, DOG_TYPES);
+        }
+
+        try (var classLoader = newClassLoader(jar)) {
+            var sharedTypeChecksums = new SharedTypeChecksums(classLoader);
+            assertEquals(42, sharedTypeChecksums.getChecksum(Dog.class.getTypeName(), TraversalPolicy.LEGACY, 0));
+            assertNull(sharedTypeChecksums.getChecksum(Dog.class.getTypeName(), new TraversalPolicy(true, List.of(), 0), 0));
+        }
+
+        writeJar("rebuilt");
+        try (var classLoader = newClassLoader(jar)) {
+            assertNull(new SharedTypeChecksums(classLoader).getChecksum(Dog.class.getTypeName(), TraversalPolicy.LEGACY, 0));
+        }
+    }
+
+    @Test
+    void getContractChecksum_jarOfContractTypeRebuilt_computedAgain() throws IOException {
+        var jar = writeJar("");
+        try (var classLoader = newClassLoader(jar)) {
+            new SharedTypeChecksums(classLoader).putContractChecksum("com.example.DogContract", TraversalPolicy.LEGACY, "42",
+                DOG_TYPES);
+        }
+
+        try (var classLoader = newClassLoader(jar)) {
+            assertEquals("42", new SharedTypeChecksums(classLoader).getContractChecksum("com.example.DogContract",
+                TraversalPolicy.LEGACY));
+        }
+
+        writeJar("rebuilt");
+        try (var classLoader = newClassLoader(jar)) {
+            assertNull(new SharedTypeChecksums(classLoader).getContractChecksum("com.example.DogContract",
+                TraversalPolicy.LEGACY));
+        }
+    }
+
+    @Test
+    void putChecksum_typeOfDirectory_notShared() {
+        var sharedTypeChecksums = new SharedTypeChecksums(getClass().getClassLoader());
+
+        sharedTypeChecksums.putChecksum(Dog.class.getTypeName(), TraversalPolicy.LEGACY, 0, 42, DOG_TYPES);
+
+        assertFalse(sharedTypeChecksums.isShareable(Dog.class.getTypeName()));
+        assertNull(sharedTypeChecksums.getChecksum(Dog.class.getTypeName(), TraversalPolicy.LEGACY, 0));
+    }
+
+    @Test
+    void getChecksum_jarOfSuperclassRebuilt_computedAgain() throws IOException {
+        var dtoJar = writeJar("invoice.jar", "", InvoiceContractInterface.class, InvoiceDto.class);
+        var baseJar = writeJar("audited.jar", "", AuditedDto.class);
+        try (var classLoader = newClassLoader(dtoJar, baseJar)) {
+            new ChecksumContext(new ReflectionContractModelBuilder(classLoader), TraversalPolicy.LEGACY,
+                new SharedTypeChecksums(classLoader)).getContractChecksum(InvoiceContractInterface.class.getTypeName());
+        }
+
+        try (var classLoader = newClassLoader(dtoJar, baseJar)) {
+            assertNotNull(new SharedTypeChecksums(classLoader).getChecksum(InvoiceDto.class.getTypeName(),
+                TraversalPolicy.LEGACY, 0));
+        }
+
+        writeJar("audited.jar", "rebuilt", AuditedDto.class);
+        try (var classLoader = newClassLoader(dtoJar, baseJar)) {
+            assertNull(new SharedTypeChecksums(classLoader).getChecksum(InvoiceDto.class.getTypeName(),
+                TraversalPolicy.LEGACY, 0));
+        }
+    }
+
+    private URLClassLoader newClassLoader(Path... jars) throws IOException {
+        var urls = new URL[jars.length];
+        for (int i = 0; i < jars.length; i++) {
+            urls[i] = jars[i].toUri().toURL();
+        }
+        return new URLClassLoader(urls, ClassLoader.getPlatformClassLoader());
+    }
+
+    private Path writeJar(String comment) throws IOException {
+        return writeJar("dto.jar", comment, Dog.class, Bone.class);
+    }
+
+    // The comment changes the size of the jar, as a rebuild would
+    private Path writeJar(String name, String comment, Class<?>... types) throws IOException {
+        var jar = tempDir.resolve(name);
+        try (var output = new ZipOutputStream(Files.newOutputStream(jar))) {
+            for (var type : types) {
+                var entryName = type.getName().replace('.', '/') + ".class";
+                output.putNextEntry(new ZipEntry(entryName));
+                try (var input = type.getClassLoader().getResourceAsStream(entryName)) {
+                    output.write(input.readAllBytes());
+                }
+                output.closeEntry();
+            }
+            output.setComment(comment);
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,102 @@
+package letunov.impl;
+
+import letunov.TestSupport;
+import letunov.impl.data.ChecksumBackend;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import letunov.impl.data.ScanMode;
+import letunov.impl.data.ScanSettings;
+import letunov.impl.data.TraversalPolicy;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class UpToDateCheckTest extends TestSupport {
+    private static final ScanSettings SCAN_SETTINGS = new ScanSettings(ScanMode.TARGETED, List.of(), true, 1,
+        ChecksumBackend.REFLECTION, false, TraversalPolicy.LEGACY, true, false, false, false);
+    private static final MicroserviceContractsInfo CONTRACTS_INFO = new MicroserviceContractsInfo("service",
+        List.of(new ProvidingContractInfo("com.example.Contract", null, "checksum")), List.of());
+
+    @TempDir
+    Path tempDir;
+
+    private Artifact dependency;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dependency = new DefaultArtifact("com.example", "api", VersionRange.createFromVersion("1.0"), "compile", "jar",
+            null, mock(ArtifactHandler.class));
+        dependency.setFile(Files.write(tempDir.resolve("api.jar"), new byte[] {0}).toFile());
+    }
+
+    @Test
+    void getUpToDateContractsInfo_unchangedInputs_previousResult() throws IOException {
+        var classFile = Files.createDirectories(tempDir.resolve("classes/com/example")).resolve("Contract.class");
+        Files.write(classFile, new byte[] {1, 2, 3});
+        var markerFile = tempDir.resolve("marker.json");
+
+        var firstRun = new UpToDateCheck(markerFile);
+        var fingerprint = computeFingerprint(firstRun, SCAN_SETTINGS);
+        assertNull(firstRun.getUpToDateContractsInfo());
+        firstRun.save(CONTRACTS_INFO, "request");
+
+        // Rebuilt with identical contents: the hash is recomputed and matches
+        Files.setLastModifiedTime(classFile, FileTime.fromMillis(0));
+        var secondRun = new UpToDateCheck(markerFile);
+        assertEquals(fingerprint, computeFingerprint(secondRun, SCAN_SETTINGS));
+        assertEquals(CONTRACTS_INFO, secondRun.getUpToDateContractsInfo());
+        assertTrue(secondRun.isRequestUpToDate("request"));
+        assertFalse(secondRun.isRequestUpToDate("another request"));
+
+        Files.write(classFile, new byte[] {1, 2, 4});
+        var thirdRun = new UpToDateCheck(markerFile);
+        assertNotEquals(fingerprint, computeFingerprint(thirdRun, SCAN_SETTINGS));
+        assertNull(thirdRun.getUpToDateContractsInfo());
+        assertFalse(thirdRun.isRequestUpToDate("request"));
+    }
+
+    @Test
+    void computeFingerprint_changedSettings_differentFingerprint() {
+        var check = new UpToDateCheck(tempDir.resolve("marker.json"));
+
+        var legacy = computeFingerprint(check, SCAN_SETTINGS);
+        var opaque = computeFingerprint(check, new ScanSettings(ScanMode.TARGETED, List.of(), true, 1,
+            ChecksumBackend.REFLECTION, false, new TraversalPolicy(true, List.of(), 0), true, false, false, false));
+
+        assertNotEquals(legacy, opaque);
+    }
+
+    @Test
+    void computeFingerprint_changedSiblingClasses_differentFingerprint() throws IOException {
+        var siblingClasses = Files.createDirectories(tempDir.resolve("sibling/classes/com/example"));
+        Files.write(siblingClasses.resolve("Dto.class"), new byte[] {1});
+        dependency.setFile(tempDir.resolve("sibling/classes").toFile());
+        var check = new UpToDateCheck(tempDir.resolve("marker.json"));
+
+        var fingerprint = computeFingerprint(check, SCAN_SETTINGS);
+        Files.write(siblingClasses.resolve("Dto.class"), new byte[] {2});
+
+        assertNotEquals(fingerprint, computeFingerprint(check, SCAN_SETTINGS));
+    }
+
+    private String computeFingerprint(UpToDateCheck check, ScanSettings scanSettings) {
+        return check.computeFingerprint("service", tempDir.resolve("classes"), List.of(dependency), scanSettings);
+    }
+}
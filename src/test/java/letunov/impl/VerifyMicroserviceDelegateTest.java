@@ -0,0 +1,116 @@
+package letunov.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import letunov.TestSupport;
+import letunov.impl.data.ConsumingContractInfo;
+import letunov.impl.data.ContractsDelta;
+import letunov.impl.data.DependencyInfo;
+import letunov.impl.data.MicroserviceContractsInfo;
+import letunov.impl.data.ProvidingContractInfo;
+import letunov.impl.data.ServerClientSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VerifyMicroserviceDelegateTest extends TestSupport {
+    private static final DependencyInfo API = new DependencyInfo("com.example", "api", "1.0");
+    private static final MicroserviceContractsInfo BASE = new MicroserviceContractsInfo("orders",
+        List.of(new ProvidingContractInfo("com.example.OrdersContract", API, "a"),
+            new ProvidingContractInfo("com.example.LegacyContract", API, "b")),
+        List.of(new ConsumingContractInfo("com.example.PaymentsContract", "payments", API, "c")));
+    private static final MicroserviceContractsInfo CURRENT = new MicroserviceContractsInfo("orders",
+        List.of(new ProvidingContractInfo("com.example.OrdersContract", API, "changed"),
+            new ProvidingContractInfo("com.example.ReturnsContract", API, "d")),
+        List.of(new ConsumingContractInfo("com.example.PaymentsContract", "payments", API, "c")));
+
+    @TempDir
+    Path tempDir;
+
+    private final Queue<Integer> responseCodes = new ConcurrentLinkedQueue<>();
+    private final Queue<Map.Entry<String, JsonNode>> requests = new ConcurrentLinkedQueue<>();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void execute_acknowledgedSnapshot_onlyDeltaSent() throws Exception {
+        responseCodes.addAll(List.of(200, 200));
+        var delegate = createDelegate();
+
+        delegate.execute(BASE, "42").get(10, TimeUnit.SECONDS);
+        delegate.execute(CURRENT, "42").get(10, TimeUnit.SECONDS);
+
+        assertEquals("PUT", requests.poll().getKey());
+        var deltaRequest = requests.poll();
+        assertEquals("PATCH", deltaRequest.getKey());
+        var delta = objectMapper.treeToValue(deltaRequest.getValue(), ContractsDelta.class);
+        assertEquals(ContractsDeltaUtil.getVersion(BASE), delta.baseVersion());
+        assertEquals(List.of(CURRENT.providing().get(1)), delta.addedProviding());
+        assertEquals(List.of(CURRENT.providing().get(0)), delta.changedProviding());
+        assertEquals(List.of(BASE.providing().get(1)), delta.removedProviding());
+        assertEquals(List.of(), delta.addedConsuming());
+        assertEquals(List.of(), delta.changedConsuming());
+        assertEquals(List.of(), delta.removedConsuming());
+    }
+
+    @Test
+    void execute_serverStateMismatch_fullContractsSent() throws Exception {
+        responseCodes.addAll(List.of(200, 409, 200));
+        var delegate = createDelegate();
+
+        delegate.execute(BASE, "42").get(10, TimeUnit.SECONDS);
+        delegate.execute(CURRENT, "42").get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("PUT", "PATCH", "PUT"), requests.stream().map(Map.Entry::getKey).toList());
+        assertEquals(CURRENT, objectMapper.treeToValue(List.copyOf(requests).get(2).getValue(), MicroserviceContractsInfo.class));
+    }
+
+    @Test
+    void execute_otherChangeGraph_fullContractsSent() throws Exception {
+        responseCodes.addAll(List.of(200, 200));
+        var delegate = createDelegate();
+
+        delegate.execute(BASE, "42").get(10, TimeUnit.SECONDS);
+        delegate.execute(CURRENT, "43").get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("PUT", "PUT"), requests.stream().map(Map.Entry::getKey).toList());
+    }
+
+    private VerifyMicroserviceDelegate createDelegate() {
+        var settings = new ServerClientSettings(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5), 0, Duration.ofMillis(10), false, false);
+        var client = new MicroserviceIntegrityServerClient("http://localhost:" + server.getAddress().getPort(), settings);
+        return new VerifyMicroserviceDelegate(client, tempDir.resolve("verify-snapshot.json"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(Map.entry(exchange.getRequestMethod(), objectMapper.readTree(exchange.getRequestBody())));
+        var code = responseCodes.poll();
+        exchange.sendResponseHeaders(code == null ? 500 : code, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,169 @@
+package letunov.processor;
+
+import letunov.TestSupport;
+import letunov.examples.ContractInterface;
+import letunov.examples.DepartmentContractInterface;
+import letunov.examples.ExtendedContractInterface;
+import letunov.examples.HolderContractInterface;
+import letunov.examples.RecursiveContractInterface;
+import letunov.examples.scan.ScannedContract;
+import letunov.impl.ChecksumContext;
+import letunov.impl.ChecksumUtil;
+import letunov.impl.ContractChecksumCache;
+import letunov.impl.ContractChecksumManifest;
+import letunov.impl.ReflectionContractModelBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractChecksumProcessorTest extends TestSupport {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void elementModel_exampleContracts_checksumsEqualToReflection() throws Exception {
+        var contracts = List.of(ContractInterface.class, ExtendedContractInterface.class, HolderContractInterface.class,
+            RecursiveContractInterface.class, DepartmentContractInterface.class, ScannedContract.class);
+        var processor = new ElementChecksumsProcessor(contracts.stream().map(Class::getTypeName).toList());
+
+        compile(Map.of("sample/Sample.java", "package sample; public class Sample { }"), processor);
+
+        for (var contract : contracts) {
+            assertEquals(ChecksumUtil.getContractChecksum(contract), processor.checksums.get(contract.getTypeName()),
+                contract.getTypeName());
+        }
+    }
+
+    @Test
+    void process_providerOfClasspathContract_checksumPrecomputed() throws Exception {
+        compile(Map.of("sample/SampleProvider.java", """
+            package sample;
+
+            import letunov.contract.ContractProvider;
+            import letunov.examples.Person;
+            import letunov.examples.scan.ScannedContract;
+
+            @ContractProvider
+            public class SampleProvider implements ScannedContract {
+                @Override
+                public Person getPerson(String id) {
+                    return null;
+                }
+            }
+            """), new ContractChecksumProcessor());
+
+        var manifest = ContractChecksumManifest.read(getOutputDir()).orElseThrow();
+        assertEquals(Set.of("sample.SampleProvider"), manifest.getProviders());
+        assertEquals(ChecksumUtil.getContractChecksum(ScannedContract.class),
+            manifest.getChecksum(ScannedContract.class.getTypeName()).checksum());
+
+        var classLoader = getClass().getClassLoader();
+        var cache = new ContractChecksumCache(null, classLoader,
+            new ChecksumContext(new ReflectionContractModelBuilder(classLoader)), manifest);
+        assertEquals(ChecksumUtil.getContractChecksum(ScannedContract.class), cache.getChecksum(ScannedContract.class));
+        assertEquals(1, cache.getPrecomputedCount());
+    }
+
+    @Test
+    void process_contractReachingCompiledType_checksumLeftToMojos() throws Exception {
+        compile(Map.of(
+            "sample/SampleDto.java", "package sample; public class SampleDto { public String name; }",
+            "sample/SampleContract.java", """
+                package sample;
+
+                public interface SampleContract extends letunov.contract.Contract {
+                    SampleDto get();
+                }
+                """,
+            "sample/SampleProvider.java", """
+                package sample;
+
+                @letunov.contract.ContractProvider
+                public class SampleProvider implements SampleContract {
+                    public SampleDto get() {
+                        return null;
+                    }
+                }
+                """), new ContractChecksumProcessor());
+
+        var manifest = ContractChecksumManifest.read(getOutputDir()).orElseThrow();
+        assertEquals(Set.of("sample.SampleProvider"), manifest.getProviders());
+        assertNull(manifest.getChecksum("sample.SampleContract"));
+    }
+
+    @Test
+    void read_classAddedAfterCompilation_manifestIgnored() throws Exception {
+        compile(Map.of("sample/Sample.java", "package sample; public class Sample { }"), new ContractChecksumProcessor());
+        assertTrue(ContractChecksumManifest.read(getOutputDir()).isPresent());
+
+        Files.write(getOutputDir().resolve("sample/Added.class"), new byte[0]);
+
+        assertTrue(ContractChecksumManifest.read(getOutputDir()).isEmpty());
+    }
+
+    private void compile(Map<String, String> sources, Processor processor) throws IOException {
+        var sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        var outputDir = Files.createDirectories(getOutputDir());
+        for (var source : sources.entrySet()) {
+            var file = sourceDir.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+        }
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(null, null, null)) {
+            var units = fileManager.getJavaFileObjectsFromPaths(sources.keySet().stream().map(sourceDir::resolve).toList());
+            var task = compiler.getTask(null, fileManager, null, List.of("-d", outputDir.toString(), "-classpath",
+                System.getProperty("java.class.path"), "-implicit:none"), null, units);
+            task.setProcessors(List.of(processor));
+            assertTrue(task.call());
+        }
+    }
+
+    private Path getOutputDir() {
+        return tempDir.resolve("classes");
+    }
+
+    // Computes the checksums of the given classpath contracts over the element model
+    @SupportedAnnotationTypes("*")
+    private static class ElementChecksumsProcessor extends AbstractProcessor {
+        private final List<String> contracts;
+        private final Map<String, String> checksums = new HashMap<>();
+
+        private ElementChecksumsProcessor(List<String> contracts) {
+            this.contracts = contracts;
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (roundEnv.processingOver()) {
+                var checksumContext = new ChecksumContext(new ElementContractModelBuilder(processingEnv.getElementUtils(),
+                    processingEnv.getTypeUtils()));
+                contracts.forEach(contract -> checksums.put(contract, checksumContext.getContractChecksum(contract)));
+            }
+            return false;
+        }
+    }
+}